@@ -0,0 +1,64 @@
+package org.vitaliistf.mathhelper.benchmark;
+
+/**
+ * Utility class generating the equations used by the benchmarks.
+ */
+public class BenchmarkEquations {
+
+    /**
+     * The depth of the parentheses of the nested equation.
+     */
+    public static final int NESTING_DEPTH = 50;
+
+    /**
+     * The number of terms of the long equation.
+     */
+    public static final int TERMS = 500;
+
+    /**
+     * Returns an equation of the specified shape.
+     *
+     * @param shape "short" for a linear equation, "nested" for an equation with deeply nested parentheses,
+     *              or "long" for an equation with many terms.
+     * @return The equation without spaces.
+     */
+    public static String equation(String shape) {
+        return switch (shape) {
+            case "short" -> "2*x+5=17";
+            case "nested" -> nested();
+            case "long" -> longEquation();
+            default -> throw new IllegalArgumentException("Unknown equation shape: " + shape);
+        };
+    }
+
+    /**
+     * Returns evenly spaced values of x in [-1000, 1000].
+     *
+     * @param count The number of values.
+     * @return The values of x.
+     */
+    public static double[] xs(int count) {
+        double[] xs = new double[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = -1000 + 2000.0 * i / (count - 1);
+        }
+        return xs;
+    }
+
+    private static String nested() {
+        String expression = "x";
+        for (int i = 1; i <= NESTING_DEPTH; i++) {
+            expression = "(" + expression + (i % 2 == 0 ? "*" : "+") + "1.5)";
+        }
+        return expression + "=-2*x";
+    }
+
+    private static String longEquation() {
+        StringBuilder equation = new StringBuilder("x");
+        for (int i = 1; i < TERMS; i++) {
+            equation.append(i % 3 == 0 ? '-' : '+').append(i).append("*x/").append(i + 1);
+        }
+        return equation.append("=0").toString();
+    }
+
+}
@@ -0,0 +1,82 @@
+package org.vitaliistf.mathhelper.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.vitaliistf.mathhelper.evaluation.BatchEvaluationResult;
+import org.vitaliistf.mathhelper.evaluation.EquationEvaluator;
+import org.vitaliistf.mathhelper.evaluation.StatefulEvaluationHelper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of evaluating an equation for many values of x.
+ * Every operation is a single value of x.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EvaluationBenchmark {
+
+    private static final int VALUES = 1024;
+
+    /**
+     * The number of left sides with x substituted, parsed by {@link #parse(Blackhole)}.
+     */
+    private static final int SUBSTITUTED = 16;
+
+    @Param({"short", "nested", "long"})
+    private String shape;
+
+    private String equation;
+    private double[] xs;
+    private String[] substitutedLeftSides;
+
+    @Setup
+    public void setUp() {
+        equation = BenchmarkEquations.equation(shape);
+        xs = BenchmarkEquations.xs(VALUES);
+
+        String leftSide = equation.substring(0, equation.indexOf('='));
+        substitutedLeftSides = new String[SUBSTITUTED];
+        for (int i = 0; i < SUBSTITUTED; i++) {
+            substitutedLeftSides[i] = leftSide.replace("x", "(" + xs[i * (VALUES / SUBSTITUTED)] + ")");
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void evaluate(Blackhole blackhole) {
+        for (double x : xs) {
+            blackhole.consume(EquationEvaluator.evaluate(equation, x));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public BatchEvaluationResult evaluateBatch() {
+        return EquationEvaluator.evaluateBatch(equation, xs);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SUBSTITUTED)
+    public void parse(Blackhole blackhole) {
+        for (String expression : substitutedLeftSides) {
+            blackhole.consume(new StatefulEvaluationHelper(expression).parse());
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+package org.vitaliistf.mathhelper.benchmark;
+
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vitaliistf.mathhelper.entity.Equation;
+import org.vitaliistf.mathhelper.repository.CachingEquationRepository;
+import org.vitaliistf.mathhelper.repository.DatabaseConfiguration;
+import org.vitaliistf.mathhelper.repository.EquationRepository;
+import org.vitaliistf.mathhelper.repository.EquationSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the repository queries against the embedded H2 database configured in the test resources,
+ * so that the results do not depend on a database server.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepositoryBenchmark {
+
+    @Param({"1000"})
+    private int equations;
+
+    private SessionFactory sessionFactory;
+    private EquationRepository equationRepository;
+    private CachingEquationRepository cachingEquationRepository;
+    private List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = DatabaseConfiguration.buildSessionFactory();
+        equationRepository = new EquationRepository(sessionFactory);
+        cachingEquationRepository = new CachingEquationRepository(sessionFactory);
+
+        List<Equation> saved = new ArrayList<>();
+        for (int i = 0; i < equations; i++) {
+            Equation equation = new Equation("x*x=" + i * i);
+            equation.addRoot(i);
+            if (i > 0) {
+                equation.addRoot(-i);
+            }
+            saved.add(equation);
+        }
+        equationRepository.saveAll(saved);
+        ids = saved.stream().map(Equation::getId).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public Equation findEquationById() {
+        return equationRepository.findEquationById(randomId());
+    }
+
+    @Benchmark
+    public Equation findCachedEquationById() {
+        return cachingEquationRepository.findEquationById(randomId());
+    }
+
+    @Benchmark
+    public Equation findEquationByExpression() {
+        int i = ThreadLocalRandom.current().nextInt(equations);
+        return equationRepository.findEquationByExpression("x*x=" + i * i);
+    }
+
+    @Benchmark
+    public List<Equation> findEquationsByRoots() {
+        double root = ThreadLocalRandom.current().nextInt(equations);
+        return equationRepository.findEquationsByRoots(List.of(root, -root));
+    }
+
+    @Benchmark
+    public List<EquationSummary> findEquationSummariesByRootsWithinTolerance() {
+        double root = ThreadLocalRandom.current().nextInt(equations);
+        return equationRepository.findEquationSummariesByRoots(List.of(root, -root), 1e-10);
+    }
+
+    @Benchmark
+    public List<Equation> findAllAfter() {
+        return equationRepository.findAllAfter(randomId(), 50);
+    }
+
+    @Benchmark
+    public List<Equation> findAll() {
+        return equationRepository.findAll();
+    }
+
+    private Long randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+}
@@ -0,0 +1,74 @@
+package org.vitaliistf.mathhelper.benchmark;
+
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vitaliistf.mathhelper.entity.Equation;
+import org.vitaliistf.mathhelper.repository.DatabaseConfiguration;
+import org.vitaliistf.mathhelper.repository.EquationRepository;
+import org.vitaliistf.mathhelper.repository.EquationSummary;
+import org.vitaliistf.mathhelper.search.ReverseSearch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the reverse search over many distinct rational equations with pools of different sizes,
+ * showing how the search scales with the number of cores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReverseSearchBenchmark {
+
+    @Param({"10000"})
+    private int equations;
+
+    @Param({"1", "2", "4", "8"})
+    private int parallelism;
+
+    private SessionFactory sessionFactory;
+    private ForkJoinPool pool;
+    private ReverseSearch reverseSearch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = DatabaseConfiguration.buildSessionFactory();
+        EquationRepository equationRepository = new EquationRepository(sessionFactory);
+        List<Equation> saved = new ArrayList<>();
+        for (int i = 0; i < equations; i++) {
+            saved.add(new Equation("(x-1.5)*(x+2.5)*(x-" + i + ")/(x*x+1)+3*x*x*x-2*x*x+x/(x+7)=" + i));
+        }
+        equationRepository.saveAll(saved);
+        pool = new ForkJoinPool(parallelism);
+        reverseSearch = new ReverseSearch(equationRepository, pool, ReverseSearch.DEFAULT_PAGE_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<EquationSummary> findEquationsSatisfiedBy() {
+        return reverseSearch.findEquationsSatisfiedBy(new double[]{3});
+    }
+
+}
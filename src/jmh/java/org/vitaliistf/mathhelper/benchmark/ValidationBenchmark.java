@@ -0,0 +1,68 @@
+package org.vitaliistf.mathhelper.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.vitaliistf.mathhelper.validation.EquationValidator;
+import org.vitaliistf.mathhelper.validation.RootConverter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of validating equations and converting the entered roots.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    /**
+     * Typical input of the roots, including values that are not numbers.
+     */
+    private static final String[] ROOTS = {"2", "-2", "0.5", "-1.3", "1e-3", "12345.6789", "x", "2,5"};
+
+    @Param({"short", "nested", "long"})
+    private String shape;
+
+    private String equation;
+    private String invalidEquation;
+
+    @Setup
+    public void setUp() {
+        equation = BenchmarkEquations.equation(shape);
+        // the error is at the end, so the whole equation is scanned
+        invalidEquation = equation + "+*4";
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return EquationValidator.isValid(equation);
+    }
+
+    @Benchmark
+    public boolean isValidRejected() {
+        return EquationValidator.isValid(invalidEquation);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public void convertRoots(Blackhole blackhole) {
+        for (String root : ROOTS) {
+            blackhole.consume(RootConverter.convert(root));
+        }
+    }
+
+}
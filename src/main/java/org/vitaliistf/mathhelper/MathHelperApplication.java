@@ -1,18 +1,40 @@
 package org.vitaliistf.mathhelper;
 
 import org.hibernate.SessionFactory;
-import org.hibernate.cfg.Configuration;
+import org.vitaliistf.mathhelper.cache.CacheStatistics;
 import org.vitaliistf.mathhelper.entity.Equation;
-import org.vitaliistf.mathhelper.entity.Root;
+import org.vitaliistf.mathhelper.evaluation.CompilationResult;
+import org.vitaliistf.mathhelper.evaluation.CompiledEquation;
 import org.vitaliistf.mathhelper.evaluation.EquationEvaluator;
-import org.vitaliistf.mathhelper.repository.EquationRepository;
-import org.vitaliistf.mathhelper.validation.EquationValidator;
+import org.vitaliistf.mathhelper.evaluation.FoundRoots;
+import org.vitaliistf.mathhelper.evaluation.RootFinder;
+import org.vitaliistf.mathhelper.importer.EquationImporter;
+import org.vitaliistf.mathhelper.importer.ImportReport;
+import org.vitaliistf.mathhelper.metrics.Metrics;
+import org.vitaliistf.mathhelper.repository.CachingEquationRepository;
+import org.vitaliistf.mathhelper.repository.DatabaseConfiguration;
+import org.vitaliistf.mathhelper.repository.DuplicateEquationException;
+import org.vitaliistf.mathhelper.search.ReverseSearch;
+import org.vitaliistf.mathhelper.server.EquationServer;
+import org.vitaliistf.mathhelper.service.EquationService;
 import org.vitaliistf.mathhelper.validation.RootConverter;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Scanner;
+import java.util.stream.Stream;
 
 /**
  * Main class for the MathHelper application, providing a console-based user interface.
@@ -20,15 +42,33 @@ import java.util.Scanner;
 public class MathHelperApplication {
 
     private static final Scanner scanner = new Scanner(System.in);
-    private static final SessionFactory sessionFactory = buildSessionFactory();
-    private static final EquationRepository equationRepository = new EquationRepository(sessionFactory);
+    private static final SessionFactory sessionFactory = DatabaseConfiguration.buildSessionFactory();
+    private static final CachingEquationRepository equationRepository = new CachingEquationRepository(sessionFactory);
+    private static final EquationService equationService = new EquationService(equationRepository);
+    private static final ReverseSearch reverseSearch = new ReverseSearch(equationRepository);
+
+    private static final int IMPORT_BUFFER_SIZE = 1 << 20;
 
     /**
      * The main entry point for the MathHelper application.
      *
-     * @param args Command-line arguments (not used).
+     * @param args Command-line arguments: "--server [--port N]" to run the HTTP server, or
+     *             "--import file [--output file]" to import equations from a file ("-" for the standard input)
+     *             instead of the console menu.
+     * @throws IOException If the HTTP server cannot be started or the import files cannot be read or written.
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        List<String> arguments = List.of(args);
+        Metrics.registerMBeans();
+        if (arguments.contains("--server")) {
+            runServer(arguments);
+            return;
+        }
+        if (arguments.contains("--import")) {
+            runImport(arguments);
+            return;
+        }
+
         while (true) {
             displayMenu();
 
@@ -45,16 +85,66 @@ public class MathHelperApplication {
                     exitApplication();
                     System.exit(0);
                 }
+                case "7" -> searchEquationsSatisfiedByRoots();
+                case "8" -> showMetrics();
                 default -> System.out.println("\nPlease, enter the correct option.");
             }
         }
     }
 
-    private static SessionFactory buildSessionFactory() {
-        return new Configuration()
-                .addAnnotatedClass(Equation.class)
-                .addAnnotatedClass(Root.class)
-                .buildSessionFactory();
+    private static void runServer(List<String> arguments) throws IOException {
+        int portIndex = arguments.indexOf("--port");
+        int port = portIndex >= 0 && portIndex + 1 < arguments.size()
+                ? Integer.parseInt(arguments.get(portIndex + 1))
+                : EquationServer.DEFAULT_PORT;
+
+        EquationServer server = new EquationServer(equationService, port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            sessionFactory.close();
+        }));
+        server.start();
+        System.out.println("MathHelper server is listening on port " + server.getPort());
+    }
+
+    private static void runImport(List<String> arguments) throws IOException {
+        String input = argumentValue(arguments, "--import");
+        String output = argumentValue(arguments, "--output");
+        if (input == null) {
+            System.err.println("Usage: --import <file|-> [--output <file|->]");
+            System.exit(2);
+        }
+        boolean fromStdin = input.equals("-");
+        if (output == null) {
+            output = fromStdin ? "-" : input + ".results";
+        }
+        boolean toStdout = output.equals("-");
+
+        ImportReport report;
+        try (Reader reader = fromStdin
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : Files.newBufferedReader(Path.of(input), StandardCharsets.UTF_8);
+             BufferedReader lines = new BufferedReader(reader, IMPORT_BUFFER_SIZE);
+             Writer writer = new BufferedWriter(toStdout
+                     ? new OutputStreamWriter(System.out, StandardCharsets.UTF_8)
+                     : Files.newBufferedWriter(Path.of(output), StandardCharsets.UTF_8), IMPORT_BUFFER_SIZE)) {
+            report = new EquationImporter(equationService).importEquations(lines, writer);
+        } finally {
+            sessionFactory.close();
+        }
+
+        PrintStream summary = toStdout ? System.err : System.out;
+        summary.printf("Imported %d lines in %.1f s (%.0f lines/s): %d saved with %d roots, %d duplicates, %d invalid%n",
+                report.lines(), report.elapsed().toMillis() / 1000.0, report.linesPerSecond(),
+                report.saved(), report.roots(), report.duplicates(), report.invalid());
+        if (!toStdout) {
+            summary.println("Results are written to " + output);
+        }
+    }
+
+    private static String argumentValue(List<String> arguments, String name) {
+        int index = arguments.indexOf(name);
+        return index >= 0 && index + 1 < arguments.size() ? arguments.get(index + 1) : null;
     }
 
     private static void displayMenu() {
@@ -65,26 +155,48 @@ public class MathHelperApplication {
         System.out.println("4. Find all equations with single root");
         System.out.println("5. Delete equation");
         System.out.println("6. Exit");
+        System.out.println("7. Find equations satisfied by roots");
+        System.out.println("8. Show metrics");
         System.out.print("\nChoose an option: ");
     }
 
     private static void enterEquation() {
         System.out.print("\nEnter equation: ");
-        String equationStr = removeSpaces(scanner.nextLine());
+        String equationStr = scanner.nextLine();
+
+        CompilationResult compilation = equationService.compile(equationStr);
+        if (compilation.isSuccessful()) {
+            CompiledEquation compiledEquation = compilation.equation();
+            equationService.findEquivalent(compiledEquation).ifPresent(equivalent ->
+                    System.out.println("An algebraically identical equation is already saved - ID: "
+                            + equivalent.getId() + ", Equation: " + equivalent.getExpression()));
 
-        if (EquationValidator.isValid(equationStr)) {
-            Equation equation = new Equation(equationStr);
-            enterRoots(equation);
-            equationRepository.save(equation);
-            System.out.println("Equation is saved successfully.");
+            Equation equation = equationService.newEquation(equationStr, compiledEquation);
+            enterRoots(equation, compiledEquation);
+            try {
+                equationRepository.save(equation);
+                System.out.println("Equation is saved successfully.");
+            } catch (DuplicateEquationException e) {
+                System.out.println("The equation is already saved.");
+            }
         } else {
-            System.out.println("The equation is not correct. Please, check the input.");
+            System.out.println("The equation is not correct: " + compilation.error().getMessage()
+                    + ". Please, check the input.");
         }
     }
 
-    private static void enterRoots(Equation equation) {
-        System.out.print("Enter roots of the equation with spaces between (or press Enter, to skip): ");
+    private static void enterRoots(Equation equation, CompiledEquation compiledEquation) {
+        System.out.print("Enter roots of the equation with spaces between " +
+                "(or type 'find' to find them automatically, or press Enter, to skip): ");
         String input = scanner.nextLine();
+        if (input.isBlank()) {
+            return;
+        }
+
+        if (input.trim().equalsIgnoreCase("find")) {
+            findRoots(equation, compiledEquation);
+            return;
+        }
 
         String[] roots = input.split("\\s+");
 
@@ -99,7 +211,7 @@ public class MathHelperApplication {
                 n = RootConverter.convert(input);
             }
 
-            if (n.isPresent() && EquationEvaluator.evaluate(equation.getExpression(), n.get())) {
+            if (n.isPresent() && compiledEquation.isSatisfiedBy(n.get())) {
                 saveValidRoot(equation, root, n.get());
             } else if (!root.equals("")) {
                 System.out.println("Number " + root + " - is not a root of equation, it will not be saved.");
@@ -107,9 +219,28 @@ public class MathHelperApplication {
         }
     }
 
+    private static void findRoots(Equation equation, CompiledEquation compiledEquation) {
+        FoundRoots found = equationService.findRoots(compiledEquation);
+        if (found.everyValue()) {
+            System.out.println("Every number is a root of the equation, no roots will be saved.");
+            return;
+        }
+        double[] roots = found.roots();
+        if (found.truncated()) {
+            System.out.println("The equation has too many roots, only the first " + roots.length + " will be saved.");
+        }
+        if (roots.length == 0) {
+            System.out.println("No roots were found in the interval [" + RootFinder.DEFAULT_LOWER_BOUND + ", "
+                    + RootFinder.DEFAULT_UPPER_BOUND + "].");
+        }
+        for (double root : roots) {
+            equation.addRoot(root);
+            System.out.println("Number " + root + " - is a root of equation, it will be saved.");
+        }
+    }
+
     private static void saveValidRoot(Equation equation, String root, Double rootValue) {
-        Root rootToSave = new Root(rootValue, equation);
-        equation.getRoots().add(rootToSave);
+        equation.addRoot(rootValue);
         System.out.println("Number " + root + " - is a root of equation, it will be saved.");
     }
 
@@ -132,28 +263,51 @@ public class MathHelperApplication {
 
     private static void displayEquationsByRoots(List<Double> roots) {
         System.out.println("Equations with entered roots:");
-        equationRepository.findEquationsByRoots(roots).forEach(
-                equation -> System.out.println("ID: " + equation.getId() + ", Equation: " + equation.getExpression())
+        equationRepository.findEquationSummariesByRoots(roots, EquationEvaluator.PRECISION).forEach(
+                summary -> System.out.println("ID: " + summary.id() + ", Equation: " + summary.expression())
+        );
+    }
+
+    private static void searchEquationsSatisfiedByRoots() {
+        System.out.print("Enter roots to check every equation against with spaces between: ");
+        String rootsString = scanner.nextLine();
+
+        List<Double> roots = new ArrayList<>();
+        for (String s : rootsString.split(" ")) {
+            try {
+                roots.add(Double.parseDouble(s));
+            } catch (NumberFormatException e) {
+                System.out.println("Root " + s + " - is not a number, searching without it.");
+            }
+        }
+
+        System.out.println("Equations satisfied by entered roots:");
+        double[] values = roots.stream().mapToDouble(Double::doubleValue).toArray();
+        reverseSearch.findEquationsSatisfiedBy(values).forEach(
+                summary -> System.out.println("ID: " + summary.id() + ", Equation: " + summary.expression())
         );
     }
 
     private static void getAllEquations() {
         System.out.println("All equations: ");
-        equationRepository.findAll().forEach(MathHelperApplication::displayEquationDetails);
+        try (Stream<Equation> equations = equationRepository.streamAll()) {
+            equations.forEach(MathHelperApplication::displayEquationDetails);
+        }
     }
 
     private static void getAllEquationsWithSingleRoot() {
         System.out.println("All equations with a single root: ");
-        equationRepository.findEquationsWithSingleRoot().forEach(MathHelperApplication::displayEquationDetails);
+        try (Stream<Equation> equations = equationRepository.streamEquationsWithSingleRoot()) {
+            equations.forEach(MathHelperApplication::displayEquationDetails);
+        }
     }
 
     private static void deleteEquation() {
         System.out.print("\nEnter ID of equation, or its expression to delete: ");
         String equationStr = scanner.nextLine();
         if (equationStr.contains("x")) {
-            Equation equation = equationRepository.findEquationByExpression(removeSpaces(equationStr));
-            if (equation != null) {
-                equationRepository.deleteEquationById(equation.getId());
+            String expression = removeSpaces(equationStr);
+            if (equationRepository.deleteByExpressions(List.of(expression)).equations() > 0) {
                 System.out.println("Equation is deleted successfully.");
             } else {
                 System.out.println("The entered equation is not in the database. Please, check the input.");
@@ -161,9 +315,7 @@ public class MathHelperApplication {
         } else {
             try {
                 Long id = Long.parseLong(equationStr);
-                Equation equation = equationRepository.findEquationById(id);
-                if (equation != null) {
-                    equationRepository.deleteEquationById(id);
+                if (equationRepository.deleteByIds(List.of(id)).equations() > 0) {
                     System.out.println("Equation is deleted successfully.");
                 } else {
                     System.out.println("Equation with such ID is not present in the database. Please, check the input.");
@@ -182,7 +334,15 @@ public class MathHelperApplication {
         );
     }
 
+    private static void showMetrics() {
+        System.out.println();
+        System.out.print(Metrics.dump());
+    }
+
     private static void exitApplication() {
+        CacheStatistics statistics = equationRepository.statistics();
+        System.out.printf("%nEquation cache: %d hits, %d misses, hit rate %.1f%%%n",
+                statistics.hits(), statistics.misses(), statistics.hitRate() * 100);
         System.out.println("\nThank you for using the program. Goodbye!");
         sessionFactory.close();
     }
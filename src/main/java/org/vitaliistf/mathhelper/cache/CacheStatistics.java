@@ -0,0 +1,34 @@
+package org.vitaliistf.mathhelper.cache;
+
+/**
+ * A snapshot of the counters of a cache.
+ *
+ * @param hits      The number of lookups that found a cached value.
+ * @param misses    The number of lookups that did not find a cached value.
+ * @param evictions The number of values removed to keep the cache within its maximum size.
+ * @param size      The number of values currently in the cache.
+ */
+public record CacheStatistics(long hits, long misses, long evictions, long size) {
+
+    /**
+     * Returns the ratio of lookups that found a cached value.
+     *
+     * @return The hit rate between 0 and 1, or 0 if there were no lookups.
+     */
+    public double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Adds the counters of another cache to these ones.
+     *
+     * @param other The statistics of the other cache.
+     * @return The statistics with all the counters added together.
+     */
+    public CacheStatistics plus(CacheStatistics other) {
+        return new CacheStatistics(hits + other.hits, misses + other.misses,
+                evictions + other.evictions, size + other.size);
+    }
+
+}
@@ -0,0 +1,177 @@
+package org.vitaliistf.mathhelper.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A thread-safe cache holding at most a fixed number of values.
+ * Keys are spread over independently locked segments, and every segment evicts its least recently used
+ * entry when it is full, so threads working with different keys rarely contend for the same lock.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public class LruCache<K, V> {
+
+    private static final int MAX_SEGMENTS = 16;
+
+    /**
+     * Minimum number of entries per segment, so that small caches are not split into tiny segments.
+     */
+    private static final int MIN_SEGMENT_SIZE = 8;
+
+    private final Segment<K, V>[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructs a cache holding at most the specified number of values.
+     *
+     * @param maximumSize The maximum number of values.
+     * @throws IllegalArgumentException If the maximum size is not positive.
+     */
+    @SuppressWarnings("unchecked")
+    public LruCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+        }
+        int segmentCount = Math.min(MAX_SEGMENTS, Integer.highestOneBit(Math.max(1, maximumSize / MIN_SEGMENT_SIZE)));
+        segments = (Segment<K, V>[]) new Segment<?, ?>[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            // the first segments take the remainder, so the capacities add up to the maximum size
+            int capacity = maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0);
+            segments[i] = new Segment<>(capacity, evictions);
+        }
+    }
+
+    /**
+     * Returns the value cached for the key.
+     *
+     * @param key The key.
+     * @return The cached value, or null if there is none.
+     */
+    public V getIfPresent(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        V value;
+        synchronized (segment) {
+            value = segment.get(key);
+        }
+        (value != null ? hits : misses).increment();
+        return value;
+    }
+
+    /**
+     * Returns the value cached for the key, loading and caching it on a miss.
+     * The loader runs outside of any lock, so two threads missing the same key may both load it.
+     *
+     * @param key    The key.
+     * @param loader The function computing the value; a null result is returned but not cached.
+     * @return The cached or loaded value.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = getIfPresent(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Caches the value for the key, replacing the previous one.
+     *
+     * @param key   The key.
+     * @param value The value.
+     */
+    public void put(K key, V value) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, value);
+        }
+    }
+
+    /**
+     * Removes the value cached for the key.
+     *
+     * @param key The key.
+     */
+    public void invalidate(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+    }
+
+    /**
+     * Removes all the cached values.
+     */
+    public void invalidateAll() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of cached values.
+     *
+     * @return The number of values.
+     */
+    public long size() {
+        long size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the current values of the cache counters.
+     *
+     * @return The statistics of the cache.
+     */
+    public CacheStatistics statistics() {
+        return new CacheStatistics(hits.sum(), misses.sum(), evictions.sum(), size());
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return segments[hash & (segments.length - 1)];
+    }
+
+    /**
+     * A map in access order that drops its least recently used entry when it exceeds its capacity.
+     */
+    private static class Segment<K, V> extends LinkedHashMap<K, V> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+        private final LongAdder evictions;
+
+        Segment(int capacity, LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,52 @@
+package org.vitaliistf.mathhelper.concurrent;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Utility class giving access to virtual threads, which are only available on Java 21 and later,
+ * while the application is compiled for Java 17.
+ */
+public class VirtualThreads {
+
+    private static final MethodHandle NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findVirtualThreadPerTaskExecutor();
+
+    /**
+     * Checks whether virtual threads are available.
+     *
+     * @return True on Java 21 and later, false otherwise.
+     */
+    public static boolean isAvailable() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Creates an executor starting a new virtual thread for every task.
+     *
+     * @return The executor, or empty if virtual threads are not available.
+     */
+    public static Optional<ExecutorService> newVirtualThreadPerTaskExecutor() {
+        if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of((ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke());
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot create a virtual thread executor", e);
+        }
+    }
+
+    private static MethodHandle findVirtualThreadPerTaskExecutor() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class,
+                    "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+}
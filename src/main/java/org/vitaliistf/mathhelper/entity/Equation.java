@@ -2,24 +2,68 @@ package org.vitaliistf.mathhelper.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Represents an equation entity with its expression and associated roots.
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_equation_canonical_form", columnList = "canonicalForm"),
+        @Index(name = "idx_equation_root_count", columnList = "rootCount"),
+        @Index(name = Equation.EXPRESSION_HASH_INDEX, columnList = "expressionHash"),
+        @Index(name = Equation.EXPRESSION_INDEX, columnList = "expression", unique = true)
+})
 @Getter
 @Setter
 @NoArgsConstructor
 public class Equation {
 
+    /**
+     * The maximum length of a stored canonical form key.
+     */
+    public static final int CANONICAL_FORM_LENGTH = 512;
+
+    /**
+     * The number of identifiers fetched from a sequence at once, matching the JDBC batch size,
+     * so that a batch of inserts needs a single round trip for its identifiers.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * The number of root collections loaded by a single statement when they are not fetched with a join.
+     */
+    public static final int ROOTS_BATCH_SIZE = 100;
+
+    /**
+     * The name of the index on the expression hash, used to find equations by expression.
+     */
+    public static final String EXPRESSION_HASH_INDEX = "idx_equation_expression_hash";
+
+    /**
+     * The name of the unique index on the expression, reported when an equation is saved twice.
+     */
+    public static final String EXPRESSION_INDEX = "uk_equation_expression";
+
+    /**
+     * The maximum length in bytes of the packed roots, enough for 131072 roots.
+     */
+    public static final int PACKED_ROOTS_LENGTH = 1 << 20;
+
     /**
      * The unique identifier for the equation.
+     * Generated from a sequence rather than an identity column, since identity columns disable insert batching.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "equation_sequence")
+    @SequenceGenerator(name = "equation_sequence", sequenceName = "equation_sequence",
+            allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     /**
@@ -29,19 +73,67 @@ public class Equation {
     @NonNull
     private String expression;
 
+    /**
+     * The {@link ExpressionHash} of the expression, kept in step with it.
+     * Not unique, since distinct expressions may have the same hash; the expression itself is unique.
+     * Null only for equations saved before the hash was stored.
+     */
+    @Setter(AccessLevel.NONE)
+    private Long expressionHash;
+
+    /**
+     * The key of the canonical rational form of the equation, shared by algebraically identical equations.
+     * Null if the equation has no canonical form or its key is too long to be stored.
+     */
+    @Column(length = CANONICAL_FORM_LENGTH)
+    private String canonicalForm;
+
+    /**
+     * The number of roots of the equation, kept in step with the list of roots by {@link #addRoot(double)},
+     * {@link #removeRoot(Root)} and {@link #setRoots(List)}, so that equations can be found
+     * by their number of roots through an index instead of counting the roots of every equation.
+     */
+    @Column(nullable = false)
+    @Setter(AccessLevel.NONE)
+    private int rootCount;
+
     /**
      * The list of roots associated with this equation.
+     * Loaded in the same statement when an equation is found by identifier; queries fetch the roots
+     * with a join, and otherwise the roots of up to {@code ROOTS_BATCH_SIZE} equations are loaded at once.
      */
+    @Fetch(FetchMode.JOIN)
+    @BatchSize(size = ROOTS_BATCH_SIZE)
     @OneToMany(mappedBy = "equation", cascade = CascadeType.ALL, fetch=FetchType.EAGER, orphanRemoval = true)
     private List<Root> roots = new ArrayList<>();
 
+    /**
+     * The values of the roots packed by {@link PackedRoots}, written before every insert or update,
+     * so that read-mostly workloads can read the roots of an equation as a single column without loading
+     * a Root entity for every root. Null while the list of roots has changes that are not saved yet,
+     * and for equations saved before the packed roots were stored.
+     */
+    @Column(length = PACKED_ROOTS_LENGTH)
+    @Setter(AccessLevel.NONE)
+    private byte[] packedRoots;
+
     /**
      * Constructs an equation with the specified expression.
      *
      * @param expression The mathematical expression of the equation. Cannot be null.
      */
     public Equation(String expression) {
+        setExpression(expression);
+    }
+
+    /**
+     * Sets the mathematical expression of the equation and its hash.
+     *
+     * @param expression The mathematical expression of the equation. Cannot be null.
+     */
+    public void setExpression(@NonNull String expression) {
         this.expression = expression;
+        this.expressionHash = ExpressionHash.of(expression);
     }
 
     /**
@@ -51,5 +143,76 @@ public class Equation {
      */
     public void addRoot(double root) {
         roots.add(new Root(root, this));
+        rootCount = roots.size();
+        packedRoots = null;
+    }
+
+    /**
+     * Removes a root from the list of roots associated with this equation; it is deleted when the equation is saved.
+     *
+     * @param root The root to be removed.
+     * @return True if the root belonged to this equation.
+     */
+    public boolean removeRoot(Root root) {
+        boolean removed = roots.remove(root);
+        rootCount = roots.size();
+        packedRoots = null;
+        return removed;
+    }
+
+    /**
+     * Returns the roots associated with this equation as a read-only list, since the roots are the inverse side
+     * of their association: changes to the list itself would not mark the equation as changed,
+     * and its derived columns would not be updated.
+     *
+     * @return An unmodifiable view of the list of roots.
+     */
+    public List<Root> getRoots() {
+        return Collections.unmodifiableList(roots);
+    }
+
+    /**
+     * Replaces the roots associated with this equation; the removed roots are deleted when the equation is saved.
+     *
+     * @param roots The new roots.
+     */
+    public void setRoots(List<Root> roots) {
+        List<Root> replacement = new ArrayList<>(roots);
+        this.roots.clear();
+        this.roots.addAll(replacement);
+        rootCount = this.roots.size();
+        packedRoots = null;
+    }
+
+    /**
+     * Returns the values of the roots, unpacked from the packed roots when they are up to date.
+     *
+     * @return A new array with the root values, in the order of the list of roots.
+     */
+    public double[] getRootValues() {
+        if (packedRoots != null) {
+            return PackedRoots.unpack(packedRoots);
+        }
+        double[] values = new double[roots.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = roots.get(i).getValue();
+        }
+        return values;
+    }
+
+    /**
+     * Counts and packs the roots before the equation is inserted or updated, and hashes the expression
+     * of an equation saved before the hash was stored. Since the roots can only be changed through
+     * {@link #addRoot(double)}, {@link #removeRoot(Root)} and {@link #setRoots(List)}, which change the root count
+     * and clear the packed roots, every change of the roots marks the equation as changed and runs this callback.
+     */
+    @PrePersist
+    @PreUpdate
+    private void updateDerivedColumns() {
+        rootCount = roots.size();
+        packedRoots = PackedRoots.pack(roots);
+        if (expressionHash == null) {
+            expressionHash = ExpressionHash.of(expression);
+        }
     }
 }
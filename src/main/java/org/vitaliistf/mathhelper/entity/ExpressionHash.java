@@ -0,0 +1,54 @@
+package org.vitaliistf.mathhelper.entity;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Utility class computing the fixed-width hash of an expression, stored next to it so that expressions are found
+ * through an index on a 64-bit column rather than on the unbounded expression text.
+ * The hash is the first 8 bytes of the SHA-256 digest of the expression without whitespace, so expressions
+ * differing only in spaces have the same hash; distinct expressions practically never do, but may,
+ * so a match on the hash is always confirmed by comparing the expressions.
+ */
+public class ExpressionHash {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    /**
+     * Computes the hash of the given expression.
+     *
+     * @param expression The expression; whitespace is ignored.
+     * @return The first 8 bytes of the SHA-256 digest of the expression without whitespace.
+     */
+    public static long of(String expression) {
+        byte[] digest = SHA_256.get().digest(removeWhitespace(expression).getBytes(StandardCharsets.UTF_8));
+        long hash = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = (hash << 8) | (digest[i] & 0xFF);
+        }
+        return hash;
+    }
+
+    /**
+     * Removes the whitespace of the given expression, which the hash ignores.
+     *
+     * @param expression The expression.
+     * @return The expression without whitespace, the same instance if it has none.
+     */
+    public static String removeWhitespace(String expression) {
+        for (int i = 0; i < expression.length(); i++) {
+            if (Character.isWhitespace(expression.charAt(i))) {
+                return expression.replaceAll("\\s+", "");
+            }
+        }
+        return expression;
+    }
+
+}
@@ -0,0 +1,69 @@
+package org.vitaliistf.mathhelper.entity;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.List;
+
+/**
+ * Utility class packing root values into a single binary column, 8 bytes per root in little-endian order,
+ * so that the roots of an equation are read as one value and kept as a primitive array instead of
+ * an entity with a boxed value, an identifier and a back-reference for every root.
+ */
+public class PackedRoots {
+
+    private static final VarHandle DOUBLES =
+            MethodHandles.byteArrayViewVarHandle(double[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final double[] NO_ROOTS = new double[0];
+
+    /**
+     * Packs the given root values.
+     *
+     * @param values The root values.
+     * @return The packed values.
+     */
+    public static byte[] pack(double[] values) {
+        byte[] packed = new byte[values.length * Double.BYTES];
+        for (int i = 0; i < values.length; i++) {
+            DOUBLES.set(packed, i * Double.BYTES, values[i]);
+        }
+        return packed;
+    }
+
+    /**
+     * Packs the values of the given roots.
+     *
+     * @param roots The roots.
+     * @return The packed values, in the order of the roots.
+     */
+    public static byte[] pack(List<Root> roots) {
+        byte[] packed = new byte[roots.size() * Double.BYTES];
+        for (int i = 0; i < roots.size(); i++) {
+            DOUBLES.set(packed, i * Double.BYTES, (double) roots.get(i).getValue());
+        }
+        return packed;
+    }
+
+    /**
+     * Unpacks root values.
+     *
+     * @param packed The packed values, or null.
+     * @return The root values, empty if packed is null.
+     * @throws IllegalArgumentException If the length of packed is not a multiple of 8.
+     */
+    public static double[] unpack(byte[] packed) {
+        if (packed == null || packed.length == 0) {
+            return NO_ROOTS;
+        }
+        if (packed.length % Double.BYTES != 0) {
+            throw new IllegalArgumentException("Packed roots must be a multiple of 8 bytes long: " + packed.length);
+        }
+        double[] values = new double[packed.length / Double.BYTES];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (double) DOUBLES.get(packed, i * Double.BYTES);
+        }
+        return values;
+    }
+
+}
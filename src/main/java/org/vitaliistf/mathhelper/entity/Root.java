@@ -13,10 +13,12 @@ import lombok.*;
 public class Root {
 
     /**
-     * The unique identifier for the root.
+     * The unique identifier for the root, generated from a sequence in the same way as the equation identifier.
      */
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "root_sequence")
+    @SequenceGenerator(name = "root_sequence", sequenceName = "root_sequence",
+            allocationSize = Equation.ID_ALLOCATION_SIZE)
     private Long id;
 
     /**
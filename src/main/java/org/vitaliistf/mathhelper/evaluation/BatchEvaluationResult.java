@@ -0,0 +1,23 @@
+package org.vitaliistf.mathhelper.evaluation;
+
+import java.util.BitSet;
+
+/**
+ * The result of evaluating an equation for an array of candidate roots.
+ *
+ * @param roots     The indexes of the candidates that satisfy the equation within {@link EquationEvaluator#PRECISION}.
+ * @param residuals The left side minus the right side of the equation for every candidate.
+ */
+public record BatchEvaluationResult(BitSet roots, double[] residuals) {
+
+    /**
+     * Checks whether the candidate at the specified index satisfies the equation.
+     *
+     * @param index The index of the candidate.
+     * @return True if the candidate is a root, false otherwise.
+     */
+    public boolean isRoot(int index) {
+        return roots.get(index);
+    }
+
+}
@@ -0,0 +1,43 @@
+package org.vitaliistf.mathhelper.evaluation;
+
+/**
+ * An arithmetic operation applied to two operands.
+ *
+ * @param operator The arithmetic operator.
+ * @param left     The left operand.
+ * @param right    The right operand.
+ */
+public record BinaryOperation(Operator operator, Expression left, Expression right) implements Expression {
+
+    @Override
+    public double evaluate(double x) {
+        return operator.apply(left.evaluate(x), right.evaluate(x));
+    }
+
+    /**
+     * Supported arithmetic operators.
+     */
+    public enum Operator {
+        ADD,
+        SUBTRACT,
+        MULTIPLY,
+        DIVIDE;
+
+        /**
+         * Applies the operator to the specified operands.
+         *
+         * @param left  The left operand.
+         * @param right The right operand.
+         * @return The result of the operation.
+         */
+        public double apply(double left, double right) {
+            return switch (this) {
+                case ADD -> left + right;
+                case SUBTRACT -> left - right;
+                case MULTIPLY -> left * right;
+                case DIVIDE -> left / right;
+            };
+        }
+    }
+
+}
@@ -0,0 +1,116 @@
+package org.vitaliistf.mathhelper.evaluation;
+
+import org.objectweb.asm.ClassTooLargeException;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodTooLargeException;
+import org.objectweb.asm.MethodVisitor;
+import org.vitaliistf.mathhelper.metrics.Counter;
+import org.vitaliistf.mathhelper.metrics.Metrics;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Optional;
+import java.util.function.DoubleUnaryOperator;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Utility class for compiling equations into JVM bytecode.
+ * Every equation becomes a hidden class implementing {@link DoubleUnaryOperator}, whose single method
+ * computes the residual of the equation as straight-line arithmetic. Hidden classes are not
+ * referenced by their defining class loader, so they are unloaded once the equation is no longer used.
+ */
+public class BytecodeCompiler {
+
+    private static final String CLASS_NAME = "org/vitaliistf/mathhelper/evaluation/GeneratedEquation";
+    private static final String OPERATOR_NAME = "java/util/function/DoubleUnaryOperator";
+
+    /**
+     * Local variable slot of the 'x' argument of the generated method.
+     */
+    private static final int X_SLOT = 1;
+
+    private static final Counter FALLBACKS = Metrics.counter("evaluation.bytecode.fallbacks");
+
+    /**
+     * Compiles the given equation into a function computing its residual, the left side minus the right side.
+     * The function performs exactly the same double operations as the expression trees,
+     * so its results are bit-identical to the interpreted ones.
+     *
+     * @param equation The equation to compile.
+     * @return An Optional containing the compiled residual function, or empty if the bytecode could not be
+     * generated or loaded (for example, when the equation is too long for a single method).
+     * Such fallbacks to the interpreter are counted by the evaluation.bytecode.fallbacks counter.
+     */
+    public static Optional<DoubleUnaryOperator> compile(CompiledEquation equation) {
+        try {
+            byte[] bytes = generate(equation);
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+            Object operator = lookup.lookupClass().getDeclaredConstructor().newInstance();
+            return Optional.of((DoubleUnaryOperator) operator);
+        } catch (MethodTooLargeException | ClassTooLargeException | ReflectiveOperationException
+                 | LinkageError | IllegalArgumentException e) {
+            FALLBACKS.increment();
+            return Optional.empty();
+        }
+    }
+
+    private static byte[] generate(CompiledEquation equation) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(V17, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, CLASS_NAME, null,
+                "java/lang/Object", new String[]{OPERATOR_NAME});
+
+        MethodVisitor constructor = writer.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(ALOAD, 0);
+        constructor.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        constructor.visitInsn(RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        MethodVisitor method = writer.visitMethod(ACC_PUBLIC | ACC_FINAL, "applyAsDouble", "(D)D", null, null);
+        method.visitCode();
+        emit(method, equation.getLeft());
+        emit(method, equation.getRight());
+        method.visitInsn(DSUB);
+        method.visitInsn(DRETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    /**
+     * Emits instructions leaving the value of the expression on the operand stack.
+     */
+    private static void emit(MethodVisitor method, Expression expression) {
+        if (expression instanceof Constant constant) {
+            emitConstant(method, constant.value());
+        } else if (expression instanceof Variable) {
+            method.visitVarInsn(DLOAD, X_SLOT);
+        } else if (expression instanceof Negation negation) {
+            emit(method, negation.operand());
+            method.visitInsn(DNEG);
+        } else if (expression instanceof BinaryOperation operation) {
+            emit(method, operation.left());
+            emit(method, operation.right());
+            method.visitInsn(switch (operation.operator()) {
+                case ADD -> DADD;
+                case SUBTRACT -> DSUB;
+                case MULTIPLY -> DMUL;
+                case DIVIDE -> DDIV;
+            });
+        }
+    }
+
+    private static void emitConstant(MethodVisitor method, double value) {
+        if (Double.doubleToRawLongBits(value) == 0L) {
+            method.visitInsn(DCONST_0); // positive zero only, -0.0 goes through the constant pool
+        } else if (value == 1.0) {
+            method.visitInsn(DCONST_1);
+        } else {
+            method.visitLdcInsn(value);
+        }
+    }
+
+}
@@ -0,0 +1,100 @@
+package org.vitaliistf.mathhelper.evaluation;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * The canonical form of an equation: its residual, the left side minus the right side,
+ * written as a ratio of two polynomials.
+ *
+ * @param numerator   The numerator of the residual.
+ * @param denominator The denominator of the residual, one for polynomial equations.
+ */
+public record CanonicalForm(Polynomial numerator, Polynomial denominator) {
+
+    /**
+     * Number of significant digits of the coefficients in the canonical key,
+     * low enough to absorb rounding differences between algebraically identical expressions.
+     */
+    private static final MathContext KEY_PRECISION = new MathContext(12);
+
+    /**
+     * Checks whether the equation is polynomial, that is, 'x' never appears in a divisor.
+     *
+     * @return True if the denominator is a constant, false otherwise.
+     */
+    public boolean isPolynomial() {
+        return denominator.isConstant();
+    }
+
+    /**
+     * Evaluates the residual with Horner's method.
+     *
+     * @param x The value to substitute for 'x'.
+     * @return The value of the residual.
+     */
+    public double residual(double x) {
+        return numerator.evaluate(x) / denominator.evaluate(x);
+    }
+
+    /**
+     * Checks whether the specified value of 'x' satisfies the equation within {@link EquationEvaluator#PRECISION}.
+     *
+     * @param x The value to substitute for 'x'.
+     * @return True if the equation is satisfied, false otherwise.
+     */
+    public boolean isSatisfiedBy(double x) {
+        return Math.abs(residual(x)) < EquationEvaluator.PRECISION;
+    }
+
+    /**
+     * Solves the equation in closed form, if its numerator has degree four or less.
+     * Values at which the denominator vanishes are not roots, as the equation is undefined there.
+     *
+     * @return An Optional containing the distinct real roots in ascending order, or empty if the degree is
+     * too high or every value of 'x' satisfies the numerator.
+     */
+    public Optional<double[]> solve() {
+        return PolynomialSolver.solve(numerator).map(roots -> {
+            int count = 0;
+            for (double root : roots) {
+                if (denominator.evaluate(root) != 0) {
+                    roots[count++] = root;
+                }
+            }
+            return Arrays.copyOf(roots, count);
+        });
+    }
+
+    /**
+     * Returns a text key identifying the equation up to algebraic rewriting: equations whose residuals
+     * are the same rational function up to constant factors have the same key, so 'x*x/x=1' has the key of 'x=1'.
+     * The common factor of both polynomials is cancelled, both are scaled to be monic and their coefficients
+     * are rounded to 12 significant digits.
+     *
+     * @return The canonical key of the equation.
+     */
+    public String key() {
+        Polynomial common = numerator.gcd(denominator);
+        return format(numerator.divide(common).monic()) + "/" + format(denominator.divide(common).monic());
+    }
+
+    private static String format(Polynomial polynomial) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i <= polynomial.degree(); i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            double coefficient = polynomial.coefficient(i);
+            if (Double.isFinite(coefficient)) {
+                builder.append(new BigDecimal(coefficient).round(KEY_PRECISION).stripTrailingZeros());
+            } else {
+                builder.append(coefficient);
+            }
+        }
+        return builder.toString();
+    }
+
+}
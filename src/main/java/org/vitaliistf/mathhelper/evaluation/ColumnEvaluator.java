@@ -0,0 +1,143 @@
+package org.vitaliistf.mathhelper.evaluation;
+
+import java.util.Arrays;
+
+/**
+ * Evaluates the residual of an equation for many values of 'x' at once.
+ * The expression trees are flattened into a postfix program whose instructions operate on whole columns
+ * of values, so every instruction is a simple loop over arrays that the JIT compiler can vectorize.
+ */
+final class ColumnEvaluator {
+
+    /**
+     * Number of values processed by one pass of the program, small enough for the columns to stay in cache.
+     */
+    static final int CHUNK_SIZE = 512;
+
+    private static final int PUSH_CONSTANT = 0;
+    private static final int PUSH_VARIABLE = 1;
+    private static final int NEGATE = 2;
+    private static final int ADD = 3;
+    private static final int SUBTRACT = 4;
+    private static final int MULTIPLY = 5;
+    private static final int DIVIDE = 6;
+
+    private int[] instructions = new int[16];
+    private double[] constants = new double[16];
+    private int length;
+    private int depth;
+    private int maxDepth;
+
+    /**
+     * Constructs a column evaluator computing the residual of the specified equation.
+     *
+     * @param equation The equation to evaluate.
+     */
+    ColumnEvaluator(CompiledEquation equation) {
+        compile(equation.getLeft());
+        compile(equation.getRight());
+        append(SUBTRACT, 0);
+    }
+
+    /**
+     * Computes the residuals for the specified range of values.
+     *
+     * @param xs        The values to substitute for 'x'.
+     * @param residuals The array receiving the residuals at the same indexes as the values.
+     * @param from      The index of the first value, inclusive.
+     * @param to        The index of the last value, exclusive.
+     */
+    void evaluate(double[] xs, double[] residuals, int from, int to) {
+        double[][] stack = new double[maxDepth][Math.min(CHUNK_SIZE, to - from)];
+        for (int offset = from; offset < to; offset += CHUNK_SIZE) {
+            int size = Math.min(CHUNK_SIZE, to - offset);
+            run(stack, xs, offset, size);
+            System.arraycopy(stack[0], 0, residuals, offset, size);
+        }
+    }
+
+    private void run(double[][] stack, double[] xs, int offset, int size) {
+        int top = -1;
+        for (int pc = 0; pc < length; pc++) {
+            switch (instructions[pc]) {
+                case PUSH_CONSTANT -> Arrays.fill(stack[++top], 0, size, constants[pc]);
+                case PUSH_VARIABLE -> System.arraycopy(xs, offset, stack[++top], 0, size);
+                case NEGATE -> {
+                    double[] a = stack[top];
+                    for (int i = 0; i < size; i++) {
+                        a[i] = -a[i];
+                    }
+                }
+                case ADD -> {
+                    double[] a = stack[top - 1];
+                    double[] b = stack[top--];
+                    for (int i = 0; i < size; i++) {
+                        a[i] = a[i] + b[i];
+                    }
+                }
+                case SUBTRACT -> {
+                    double[] a = stack[top - 1];
+                    double[] b = stack[top--];
+                    for (int i = 0; i < size; i++) {
+                        a[i] = a[i] - b[i];
+                    }
+                }
+                case MULTIPLY -> {
+                    double[] a = stack[top - 1];
+                    double[] b = stack[top--];
+                    for (int i = 0; i < size; i++) {
+                        a[i] = a[i] * b[i];
+                    }
+                }
+                case DIVIDE -> {
+                    double[] a = stack[top - 1];
+                    double[] b = stack[top--];
+                    for (int i = 0; i < size; i++) {
+                        a[i] = a[i] / b[i];
+                    }
+                }
+                default -> throw new IllegalStateException("Unknown instruction: " + instructions[pc]);
+            }
+        }
+    }
+
+    /**
+     * Appends instructions computing the expression, operands first.
+     */
+    private void compile(Expression expression) {
+        if (expression instanceof Constant constant) {
+            append(PUSH_CONSTANT, constant.value());
+        } else if (expression instanceof Variable) {
+            append(PUSH_VARIABLE, 0);
+        } else if (expression instanceof Negation negation) {
+            compile(negation.operand());
+            append(NEGATE, 0);
+        } else if (expression instanceof BinaryOperation operation) {
+            compile(operation.left());
+            compile(operation.right());
+            append(switch (operation.operator()) {
+                case ADD -> ADD;
+                case SUBTRACT -> SUBTRACT;
+                case MULTIPLY -> MULTIPLY;
+                case DIVIDE -> DIVIDE;
+            }, 0);
+        }
+    }
+
+    private void append(int instruction, double constant) {
+        if (length == instructions.length) {
+            instructions = Arrays.copyOf(instructions, length * 2);
+            constants = Arrays.copyOf(constants, length * 2);
+        }
+        instructions[length] = instruction;
+        constants[length] = constant;
+        length++;
+
+        if (instruction == PUSH_CONSTANT || instruction == PUSH_VARIABLE) {
+            maxDepth = Math.max(maxDepth, ++depth);
+        } else if (instruction != NEGATE) {
+            depth--;
+        }
+    }
+
+}
@@ -0,0 +1,42 @@
+package org.vitaliistf.mathhelper.evaluation;
+
+import org.vitaliistf.mathhelper.validation.EquationError;
+
+/**
+ * The outcome of {@link EquationCompiler#compile(CharSequence)}: either a compiled equation or an error.
+ *
+ * @param equation The compiled equation, or null if the equation is not correct.
+ * @param error    The reason why the equation is not correct, or null if it was compiled.
+ */
+public record CompilationResult(CompiledEquation equation, EquationError error) {
+
+    /**
+     * Creates the result of a successful compilation.
+     *
+     * @param equation The compiled equation.
+     * @return The result.
+     */
+    public static CompilationResult success(CompiledEquation equation) {
+        return new CompilationResult(equation, null);
+    }
+
+    /**
+     * Creates the result of a failed compilation.
+     *
+     * @param error The reason why the equation is not correct.
+     * @return The result.
+     */
+    public static CompilationResult failure(EquationError error) {
+        return new CompilationResult(null, error);
+    }
+
+    /**
+     * Checks whether the equation was compiled.
+     *
+     * @return True if the equation is correct, false otherwise.
+     */
+    public boolean isSuccessful() {
+        return equation != null;
+    }
+
+}
@@ -0,0 +1,149 @@
+package org.vitaliistf.mathhelper.evaluation;
+
+import java.util.BitSet;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * An equation that has been parsed once into expression trees for both of its sides,
+ * so that it can be evaluated for any value of 'x' without any string processing.
+ * After {@link #COMPILE_THRESHOLD} evaluations the trees are replaced by generated bytecode,
+ * see {@link BytecodeCompiler}.
+ */
+public final class CompiledEquation {
+
+    /**
+     * Number of evaluations after which the equation is compiled into bytecode.
+     * A negative value disables bytecode compilation.
+     */
+    public static int COMPILE_THRESHOLD = Integer.getInteger("mathhelper.compileThreshold", 10_000);
+
+    private final Expression left;
+    private final Expression right;
+
+    /**
+     * The generated residual function, or null while the equation is interpreted.
+     */
+    private volatile DoubleUnaryOperator compiledResidual;
+    private volatile boolean compilationFailed;
+
+    /**
+     * Evaluation counter. Updates are deliberately unsynchronized: a lost increment only delays compilation.
+     */
+    private int invocations;
+
+    /**
+     * Constructs a compiled equation from its already parsed sides.
+     *
+     * @param left  The left side of the equation.
+     * @param right The right side of the equation.
+     */
+    public CompiledEquation(Expression left, Expression right) {
+        this.left = left;
+        this.right = right;
+    }
+
+    /**
+     * Parses the given mathematical equation.
+     *
+     * @param equation The mathematical equation in the form "leftExpression = rightExpression".
+     * @return The compiled equation.
+     * @throws IllegalArgumentException If the equation cannot be parsed.
+     */
+    public static CompiledEquation compile(String equation) {
+        String[] expressions = equation.split("=");
+        if (expressions.length < 2) {
+            throw new IllegalArgumentException("Equation has no right side: " + equation);
+        }
+        return new CompiledEquation(ExpressionParser.parse(expressions[0]), ExpressionParser.parse(expressions[1]));
+    }
+
+    /**
+     * Returns the left side of the equation.
+     *
+     * @return The left side expression.
+     */
+    public Expression getLeft() {
+        return left;
+    }
+
+    /**
+     * Returns the right side of the equation.
+     *
+     * @return The right side expression.
+     */
+    public Expression getRight() {
+        return right;
+    }
+
+    /**
+     * Computes the difference between the left and the right sides for the specified value of 'x'.
+     *
+     * @param x The value to substitute for 'x'.
+     * @return The value of the left side minus the value of the right side.
+     */
+    public double residual(double x) {
+        DoubleUnaryOperator compiled = compiledResidual;
+        if (compiled != null) {
+            return compiled.applyAsDouble(x);
+        }
+        if (COMPILE_THRESHOLD >= 0 && !compilationFailed && ++invocations >= COMPILE_THRESHOLD) {
+            compileBytecode();
+        }
+        return left.evaluate(x) - right.evaluate(x);
+    }
+
+    /**
+     * Checks whether the specified value of 'x' satisfies the equation within {@link EquationEvaluator#PRECISION}.
+     *
+     * @param x The value to substitute for 'x'.
+     * @return True if the equation is satisfied, false otherwise.
+     */
+    public boolean isSatisfiedBy(double x) {
+        return Math.abs(residual(x)) < EquationEvaluator.PRECISION;
+    }
+
+    /**
+     * Evaluates the equation for all the specified values of 'x'.
+     * The values are processed column-wise, one arithmetic operation over a block of values at a time,
+     * with the same {@link EquationEvaluator#PRECISION} semantics as {@link #isSatisfiedBy(double)}.
+     *
+     * @param xs The values to substitute for 'x'.
+     * @return The roots among the values and the residuals for every value.
+     */
+    public BatchEvaluationResult evaluateBatch(double[] xs) {
+        double[] residuals = new double[xs.length];
+        new ColumnEvaluator(this).evaluate(xs, residuals, 0, xs.length);
+
+        double precision = EquationEvaluator.PRECISION;
+        BitSet roots = new BitSet(xs.length);
+        for (int i = 0; i < residuals.length; i++) {
+            if (Math.abs(residuals[i]) < precision) {
+                roots.set(i);
+            }
+        }
+        return new BatchEvaluationResult(roots, residuals);
+    }
+
+    /**
+     * Checks whether the equation is evaluated by generated bytecode.
+     *
+     * @return True if the equation has been compiled into bytecode, false if it is interpreted.
+     */
+    public boolean isBytecodeCompiled() {
+        return compiledResidual != null;
+    }
+
+    /**
+     * Compiles the equation into bytecode, unless it is already compiled or the compilation has failed before.
+     * On failure the equation keeps being interpreted.
+     */
+    public synchronized void compileBytecode() {
+        if (compiledResidual == null && !compilationFailed) {
+            BytecodeCompiler.compile(this).ifPresentOrElse(
+                    compiled -> compiledResidual = compiled,
+                    () -> compilationFailed = true
+            );
+        }
+    }
+
+}
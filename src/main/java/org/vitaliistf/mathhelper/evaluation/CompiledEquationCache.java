@@ -0,0 +1,112 @@
+package org.vitaliistf.mathhelper.evaluation;
+
+import org.vitaliistf.mathhelper.cache.CacheStatistics;
+import org.vitaliistf.mathhelper.cache.LruCache;
+import org.vitaliistf.mathhelper.metrics.Metrics;
+
+/**
+ * A size-bounded, thread-safe cache of compiled equations keyed by their text without spaces.
+ * Equations coming back again and again are parsed once, and keep their evaluation counters,
+ * so that they also reach the bytecode tier of {@link CompiledEquation}.
+ * Equations only accepted by the lenient parser of {@link CompiledEquation#compile(String)} are kept apart,
+ * so that {@link #compile(String)} keeps rejecting them.
+ */
+public class CompiledEquationCache {
+
+    /**
+     * The maximum size of the shared cache, configurable with the mathhelper.equationCacheSize system property.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = Integer.getInteger("mathhelper.equationCacheSize", 1024);
+
+    private static final CompiledEquationCache SHARED = new CompiledEquationCache(DEFAULT_MAXIMUM_SIZE);
+
+    static {
+        Metrics.registerCache("evaluation.compiledEquations", SHARED::statistics);
+    }
+
+    private final LruCache<String, CompiledEquation> cache;
+    private final LruCache<String, CompiledEquation> lenientCache;
+
+    /**
+     * Constructs a cache holding at most the specified number of equations, and as many leniently parsed ones.
+     *
+     * @param maximumSize The maximum number of equations.
+     */
+    public CompiledEquationCache(int maximumSize) {
+        this.cache = new LruCache<>(maximumSize);
+        this.lenientCache = new LruCache<>(maximumSize);
+    }
+
+    /**
+     * Returns the cache shared by the whole application.
+     *
+     * @return The shared cache.
+     */
+    public static CompiledEquationCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Validates and compiles the equation, or returns the cached compiled equation.
+     * Only successfully compiled equations are cached.
+     *
+     * @param equation The mathematical equation; spaces are ignored.
+     * @return The compiled equation, or the position and the reason of the first error
+     * in the equation without spaces.
+     */
+    public CompilationResult compile(String equation) {
+        String key = removeSpaces(equation);
+        CompiledEquation cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return CompilationResult.success(cached);
+        }
+        CompilationResult result = EquationCompiler.compile(key);
+        if (result.isSuccessful()) {
+            cache.put(key, result.equation());
+        }
+        return result;
+    }
+
+    /**
+     * Compiles the equation like {@link #compile(String)}, falling back to the lenient parser of
+     * {@link CompiledEquation#compile(String)} for equations rejected by {@link EquationCompiler},
+     * such as "x(-2)=1" accepted by the older validation. Both results are cached,
+     * so such equations are not parsed twice on every call either.
+     *
+     * @param equation The mathematical equation; spaces are ignored.
+     * @return The compiled equation.
+     * @throws IllegalArgumentException If neither parser accepts the equation.
+     */
+    public CompiledEquation compileLeniently(String equation) {
+        String key = removeSpaces(equation);
+        CompiledEquation cached = cache.getIfPresent(key);
+        if (cached == null) {
+            cached = lenientCache.getIfPresent(key);
+        }
+        if (cached != null) {
+            return cached;
+        }
+        CompilationResult result = EquationCompiler.compile(key);
+        if (result.isSuccessful()) {
+            cache.put(key, result.equation());
+            return result.equation();
+        }
+        CompiledEquation lenient = CompiledEquation.compile(key);
+        lenientCache.put(key, lenient);
+        return lenient;
+    }
+
+    /**
+     * Returns the counters of the caches of validated and of leniently parsed equations added together.
+     *
+     * @return The statistics of the caches.
+     */
+    public CacheStatistics statistics() {
+        return cache.statistics().plus(lenientCache.statistics());
+    }
+
+    private static String removeSpaces(String equation) {
+        return equation.indexOf(' ') < 0 ? equation : equation.replace(" ", "");
+    }
+
+}
@@ -0,0 +1,15 @@
+package org.vitaliistf.mathhelper.evaluation;
+
+/**
+ * A numeric literal of an expression.
+ *
+ * @param value The value of the literal.
+ */
+public record Constant(double value) implements Expression {
+
+    @Override
+    public double evaluate(double x) {
+        return value;
+    }
+
+}
@@ -0,0 +1,48 @@
+package org.vitaliistf.mathhelper.evaluation;
+
+import org.vitaliistf.mathhelper.metrics.Counter;
+import org.vitaliistf.mathhelper.metrics.Metrics;
+import org.vitaliistf.mathhelper.metrics.ParseEvent;
+import org.vitaliistf.mathhelper.metrics.Timer;
+import org.vitaliistf.mathhelper.validation.EquationScanner;
+import org.vitaliistf.mathhelper.validation.EquationValidator;
+
+/**
+ * Utility class validating and parsing equations in a single pass over their characters.
+ * An equation is accepted only if it passes {@link EquationValidator} and can be fully parsed
+ * as "leftExpression = rightExpression", with exactly one '=' and nothing left over.
+ */
+public class EquationCompiler {
+
+    private static final Timer COMPILE = Metrics.timer("evaluation.compile");
+    private static final Counter REJECTED = Metrics.counter("evaluation.compile.rejected");
+
+    /**
+     * Validates and compiles the given mathematical equation.
+     *
+     * @param equation The mathematical equation in the form "leftExpression = rightExpression".
+     * @return The compiled equation, or the position and the reason of the first error.
+     */
+    public static CompilationResult compile(CharSequence equation) {
+        long start = COMPILE.start();
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        try {
+            CompilationResult result =
+                    CompilationResult.success(new ExpressionParser(equation, new EquationScanner()).parseEquation());
+            event.successful = true;
+            return result;
+        } catch (EquationSyntaxException e) {
+            REJECTED.increment();
+            return CompilationResult.failure(e.getError());
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.expressionLength = equation.length();
+                event.commit();
+            }
+            COMPILE.stop(start);
+        }
+    }
+
+}
@@ -1,5 +1,9 @@
 package org.vitaliistf.mathhelper.evaluation;
 
+import org.vitaliistf.mathhelper.metrics.EvaluateEvent;
+import org.vitaliistf.mathhelper.metrics.Metrics;
+import org.vitaliistf.mathhelper.metrics.Timer;
+
 /**
  * Utility class for evaluating mathematical equations.
  */
@@ -7,32 +11,68 @@ public class EquationEvaluator {
 
     public static double PRECISION = 1e-10;
 
+    private static final Timer EVALUATE = Metrics.timer("evaluation.evaluate");
+    private static final Timer EVALUATE_BATCH = Metrics.timer("evaluation.evaluateBatch");
+
     /**
      * Evaluates the given mathematical equation by substituting the specified value for 'x'.
+     * The compiled equation is taken from {@link CompiledEquationCache#shared()}, so repeated evaluations
+     * of the same equation do not parse it again.
      *
      * @param equation The mathematical equation in the form "leftExpression = rightExpression".
      * @param x        The value to substitute for 'x'.
      * @return True if the equation is satisfied, false otherwise.
      */
     public static boolean evaluate(String equation, double x) {
-        equation = equation.replaceAll("x", String.valueOf(x));
-        String[] expressions = equation.split("=");
-        double leftPart = evaluateExpression(expressions[0], x);
-        double rightPart = evaluateExpression(expressions[1], x);
-        return Math.abs(leftPart - rightPart) < PRECISION;
+        long start = EVALUATE.start();
+        EvaluateEvent event = new EvaluateEvent();
+        event.begin();
+        boolean satisfied = false;
+        try {
+            satisfied = compile(equation).isSatisfiedBy(x);
+            return satisfied;
+        } finally {
+            commit(event, equation, 1, satisfied ? 1 : 0);
+            EVALUATE.stop(start);
+        }
     }
 
     /**
-     * Evaluates a mathematical expression by substituting the specified value for 'x'.
+     * Evaluates the given mathematical equation for every value in the array, parsing the equation only once.
      *
-     * @param expression The mathematical expression to evaluate.
-     * @param x          The value to substitute for 'x'.
-     * @return The result of the expression evaluation.
+     * @param equation The mathematical equation in the form "leftExpression = rightExpression".
+     * @param xs       The values to substitute for 'x'.
+     * @return The roots among the values and the residuals for every value.
      */
-    private static double evaluateExpression(String expression, double x) {
-        expression = expression.replaceAll("x", String.valueOf(x));
-        return new StatefulEvaluationHelper(expression).parse();
+    public static BatchEvaluationResult evaluateBatch(String equation, double[] xs) {
+        long start = EVALUATE_BATCH.start();
+        EvaluateEvent event = new EvaluateEvent();
+        event.begin();
+        BatchEvaluationResult result = null;
+        try {
+            result = compile(equation).evaluateBatch(xs);
+            return result;
+        } finally {
+            commit(event, equation, xs.length, result != null ? result.roots().cardinality() : 0);
+            EVALUATE_BATCH.stop(start);
+        }
     }
 
-}
+    /**
+     * Commits the event if it took longer than its threshold; the fields are only filled in then.
+     */
+    private static void commit(EvaluateEvent event, String equation, int values, int roots) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.expressionLength = equation.length();
+            event.values = values;
+            event.roots = roots;
+            event.commit();
+        }
+    }
 
+    private static CompiledEquation compile(String equation) {
+        return CompiledEquationCache.shared().compileLeniently(equation);
+    }
+
+}
@@ -0,0 +1,95 @@
+package org.vitaliistf.mathhelper.evaluation;
+
+import java.util.Optional;
+
+/**
+ * Utility class for rewriting equations into their {@link CanonicalForm}.
+ */
+public class EquationNormalizer {
+
+    /**
+     * Maximum degree of the numerator and the denominator; equations of higher degree are not normalized.
+     */
+    public static final int MAX_DEGREE = 16;
+
+    /**
+     * Rewrites the equation "left = right" as a ratio of two polynomials equal to left - right.
+     *
+     * @param equation The equation to normalize.
+     * @return An Optional containing the canonical form, or empty if a polynomial exceeds {@link #MAX_DEGREE},
+     * a coefficient is not finite or the equation divides by zero.
+     */
+    public static Optional<CanonicalForm> normalize(CompiledEquation equation) {
+        CanonicalForm left = normalize(equation.getLeft());
+        CanonicalForm right = normalize(equation.getRight());
+        CanonicalForm residual = left == null || right == null ? null : subtract(left, right);
+        return Optional.ofNullable(residual);
+    }
+
+    /**
+     * Normalizes an expression, returning null if it cannot be represented.
+     */
+    private static CanonicalForm normalize(Expression expression) {
+        if (expression instanceof Constant constant) {
+            return checked(Polynomial.constant(constant.value()), Polynomial.ONE);
+        } else if (expression instanceof Variable) {
+            return new CanonicalForm(Polynomial.X, Polynomial.ONE);
+        } else if (expression instanceof Negation negation) {
+            CanonicalForm operand = normalize(negation.operand());
+            return operand == null ? null : new CanonicalForm(operand.numerator().negate(), operand.denominator());
+        } else if (expression instanceof BinaryOperation operation) {
+            CanonicalForm left = normalize(operation.left());
+            CanonicalForm right = normalize(operation.right());
+            if (left == null || right == null) {
+                return null;
+            }
+            return switch (operation.operator()) {
+                case ADD -> add(left, right);
+                case SUBTRACT -> subtract(left, right);
+                case MULTIPLY -> checked(left.numerator().multiply(right.numerator()),
+                        left.denominator().multiply(right.denominator()));
+                case DIVIDE -> right.numerator().isZero() ? null
+                        : checked(left.numerator().multiply(right.denominator()),
+                        left.denominator().multiply(right.numerator()));
+            };
+        }
+        return null;
+    }
+
+    private static CanonicalForm add(CanonicalForm left, CanonicalForm right) {
+        if (left.denominator().equals(right.denominator())) {
+            return checked(left.numerator().add(right.numerator()), left.denominator());
+        }
+        return checked(left.numerator().multiply(right.denominator()).add(right.numerator().multiply(left.denominator())),
+                left.denominator().multiply(right.denominator()));
+    }
+
+    private static CanonicalForm subtract(CanonicalForm left, CanonicalForm right) {
+        return add(left, new CanonicalForm(right.numerator().negate(), right.denominator()));
+    }
+
+    /**
+     * Creates a canonical form, or returns null if it exceeds the degree limit or has non-finite coefficients.
+     */
+    private static CanonicalForm checked(Polynomial numerator, Polynomial denominator) {
+        if (numerator.degree() > MAX_DEGREE || denominator.degree() > MAX_DEGREE
+                || !isFinite(numerator) || !isFinite(denominator)) {
+            return null;
+        }
+        if (denominator.isConstant() && denominator.coefficient(0) != 1) {
+            // keep polynomial equations over a unit denominator
+            return new CanonicalForm(numerator.scale(1 / denominator.coefficient(0)), Polynomial.ONE);
+        }
+        return new CanonicalForm(numerator, denominator);
+    }
+
+    private static boolean isFinite(Polynomial polynomial) {
+        for (int i = 0; i <= polynomial.degree(); i++) {
+            if (!Double.isFinite(polynomial.coefficient(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,33 @@
+package org.vitaliistf.mathhelper.evaluation;
+
+import org.vitaliistf.mathhelper.validation.EquationError;
+
+/**
+ * Thrown when an equation or an expression cannot be parsed.
+ */
+public class EquationSyntaxException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final EquationError error;
+
+    /**
+     * Constructs an EquationSyntaxException describing the specified error.
+     *
+     * @param error The position and the reason of the error.
+     */
+    public EquationSyntaxException(EquationError error) {
+        super(error.getMessage());
+        this.error = error;
+    }
+
+    /**
+     * Returns the position and the reason of the error.
+     *
+     * @return The error.
+     */
+    public EquationError getError() {
+        return error;
+    }
+
+}
@@ -0,0 +1,16 @@
+package org.vitaliistf.mathhelper.evaluation;
+
+/**
+ * An immutable node of a parsed mathematical expression in a single variable 'x'.
+ */
+public sealed interface Expression permits Constant, Variable, Negation, BinaryOperation {
+
+    /**
+     * Evaluates the expression for the specified value of 'x'.
+     *
+     * @param x The value to substitute for 'x'.
+     * @return The result of the expression evaluation.
+     */
+    double evaluate(double x);
+
+}
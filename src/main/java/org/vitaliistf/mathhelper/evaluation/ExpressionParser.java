@@ -0,0 +1,261 @@
+package org.vitaliistf.mathhelper.evaluation;
+
+import org.vitaliistf.mathhelper.evaluation.BinaryOperation.Operator;
+import org.vitaliistf.mathhelper.validation.EquationError;
+import org.vitaliistf.mathhelper.validation.EquationError.Reason;
+import org.vitaliistf.mathhelper.validation.EquationScanner;
+
+import java.util.function.Supplier;
+
+/**
+ * A parser that turns a mathematical expression into an immutable {@link Expression} tree.
+ * Follows the same grammar as {@link StatefulEvaluationHelper}, but keeps 'x' as a variable node
+ * instead of requiring it to be substituted into the text.
+ * When constructed with an {@link EquationScanner}, every character read by the parser is also validated,
+ * so a whole equation is validated and parsed in a single pass, see {@link EquationCompiler}.
+ */
+public class ExpressionParser {
+
+    /**
+     * The maximum number of binary operations in an expression or an equation. Expression trees are evaluated
+     * recursively, and a long chain like "x+x+...+x" is as deep as it has operations.
+     */
+    public static final int MAX_OPERATIONS = 4096;
+
+    private final CharSequence expression;
+    private final EquationScanner scanner;
+    private int pos = -1;
+    private int ch;
+    private int depth; // the number of parentheses and unary signs around the current factor
+    private int operations;
+
+    /**
+     * Constructs an ExpressionParser for the specified mathematical expression.
+     *
+     * @param expression The mathematical expression to parse.
+     */
+    public ExpressionParser(String expression) {
+        this(expression, null);
+    }
+
+    /**
+     * Constructs an ExpressionParser validating every character it reads.
+     *
+     * @param expression The mathematical expression or equation to parse.
+     * @param scanner    The scanner validating the characters, or null to parse without validation.
+     */
+    ExpressionParser(CharSequence expression, EquationScanner scanner) {
+        this.expression = expression;
+        this.scanner = scanner;
+    }
+
+    /**
+     * Parses the specified mathematical expression.
+     *
+     * @param expression The mathematical expression to parse.
+     * @return The root node of the parsed expression.
+     * @throws EquationSyntaxException If the expression cannot be parsed.
+     */
+    public static Expression parse(String expression) {
+        return new ExpressionParser(expression).parse();
+    }
+
+    /**
+     * Parses the mathematical expression and returns its tree.
+     *
+     * @return The root node of the parsed expression.
+     * @throws EquationSyntaxException If the expression cannot be parsed.
+     */
+    public Expression parse() {
+        nextChar();
+        return parseExpression();
+    }
+
+    /**
+     * Parses the whole input as an equation "leftExpression = rightExpression".
+     *
+     * @return The compiled equation.
+     * @throws EquationSyntaxException If the equation is not correct.
+     */
+    CompiledEquation parseEquation() {
+        if (expression.length() == 0) {
+            throw error(Reason.EMPTY_EQUATION);
+        }
+        nextChar();
+        Expression left = parseExpression();
+        if (!eat('=')) {
+            throw error(ch == -1 ? Reason.MISSING_EQUALS_SIGN : Reason.UNEXPECTED_CHARACTER);
+        }
+        Expression right = parseExpression();
+        if (!eat(-1)) {
+            throw error(ch == '=' ? Reason.EXTRA_EQUALS_SIGN : Reason.UNEXPECTED_CHARACTER);
+        }
+        if (scanner != null && scanner.finish() != null) {
+            throw error(scanner.finish());
+        }
+        return new CompiledEquation(left, right);
+    }
+
+    /**
+     * Moves to the next character in the expression, validating it if there is a scanner.
+     */
+    private void nextChar() {
+        ch = (++pos < expression.length()) ? expression.charAt(pos) : -1;
+        if (scanner != null && ch != -1) {
+            Reason reason = scanner.next((char) ch);
+            if (reason != null) {
+                throw error(reason);
+            }
+        }
+    }
+
+    /**
+     * Consumes whitespace and checks if the current character matches the specified one.
+     *
+     * @param charToEat The character to check for, or -1 for the end of the input.
+     * @return True if the character matches, false otherwise.
+     */
+    private boolean eat(int charToEat) {
+        while (ch == ' ') {
+            nextChar();
+        }
+        if (ch == charToEat) {
+            if (ch != -1) {
+                nextChar();
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Parses an expression and handles addition and subtraction operations.
+     *
+     * @return The parsed expression.
+     */
+    private Expression parseExpression() {
+        Expression x = parseTerm();
+        for (;;) {
+            if (eat('+')) {
+                x = binary(Operator.ADD, x, operand(this::parseTerm));
+            } else if (eat('-')) {
+                x = binary(Operator.SUBTRACT, x, operand(this::parseTerm));
+            } else {
+                return x;
+            }
+        }
+    }
+
+    /**
+     * Parses a term and handles multiplication and division operations.
+     *
+     * @return The parsed term.
+     */
+    private Expression parseTerm() {
+        Expression x = parseFactor();
+        for (;;) {
+            if (eat('*')) {
+                x = binary(Operator.MULTIPLY, x, operand(this::parseFactor));
+            } else if (eat('/')) {
+                x = binary(Operator.DIVIDE, x, operand(this::parseFactor));
+            } else {
+                return x;
+            }
+        }
+    }
+
+    /**
+     * Parses a factor, handling unary plus, unary minus, parentheses, numbers and the variable.
+     * Parentheses and unary signs may be nested up to {@link EquationScanner#MAX_DEPTH} levels.
+     *
+     * @return The parsed factor.
+     * @throws EquationSyntaxException If the factor is nested too deeply.
+     */
+    private Expression parseFactor() {
+        if (eat('+')) {
+            return nested(this::parseFactor); // unary plus
+        }
+        if (eat('-')) {
+            return negate(nested(this::parseFactor)); // unary minus
+        }
+
+        Expression x;
+        int startPos = this.pos;
+        if (eat('(')) {
+            x = nested(this::parseExpression);
+            eat(')');
+        } else if (ch == 'x') { // variable
+            nextChar();
+            x = Variable.X;
+        } else if ((ch >= '0' && ch <= '9') || ch == '.') { // numbers
+            int digits = 0;
+            int dots = 0;
+            while ((ch >= '0' && ch <= '9') || ch == '.') {
+                if (ch == '.') {
+                    dots++;
+                } else {
+                    digits++;
+                }
+                nextChar();
+            }
+            if (digits == 0 || dots > 1) {
+                throw new EquationSyntaxException(new EquationError(startPos, Reason.MALFORMED_NUMBER));
+            }
+            x = new Constant(Double.parseDouble(expression.subSequence(startPos, this.pos).toString()));
+        } else {
+            throw error(Reason.MISSING_OPERAND);
+        }
+
+        return x;
+    }
+
+    /**
+     * Parses the operand of the sign or the parenthesis just eaten one level deeper.
+     */
+    private Expression nested(Supplier<Expression> operand) {
+        if (depth == EquationScanner.MAX_DEPTH) {
+            throw new EquationSyntaxException(new EquationError(pos - 1, Reason.TOO_DEEPLY_NESTED));
+        }
+        depth++;
+        Expression x = operand.get();
+        depth--;
+        return x;
+    }
+
+    /**
+     * Parses the right operand of the binary operator just eaten.
+     */
+    private Expression operand(Supplier<Expression> operand) {
+        if (operations == MAX_OPERATIONS) {
+            throw new EquationSyntaxException(new EquationError(pos - 1, Reason.TOO_MANY_OPERATIONS));
+        }
+        operations++;
+        return operand.get();
+    }
+
+    private EquationSyntaxException error(Reason reason) {
+        return new EquationSyntaxException(new EquationError(Math.max(0, Math.min(pos, expression.length())), reason));
+    }
+
+    /**
+     * Creates a binary operation node, folding it into a constant when both operands are constants.
+     * Folding performs the same double arithmetic as evaluation, so results are not affected.
+     */
+    private static Expression binary(Operator operator, Expression left, Expression right) {
+        if (left instanceof Constant l && right instanceof Constant r) {
+            return new Constant(operator.apply(l.value(), r.value()));
+        }
+        return new BinaryOperation(operator, left, right);
+    }
+
+    /**
+     * Creates a negation node, folding it into a constant when the operand is a constant.
+     */
+    private static Expression negate(Expression operand) {
+        if (operand instanceof Constant c) {
+            return new Constant(-c.value());
+        }
+        return new Negation(operand);
+    }
+
+}
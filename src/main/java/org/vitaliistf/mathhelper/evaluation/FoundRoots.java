@@ -0,0 +1,35 @@
+package org.vitaliistf.mathhelper.evaluation;
+
+/**
+ * The roots of an equation found by a {@link RootFinder}.
+ *
+ * @param roots      The distinct roots in ascending order; empty if every value is a root.
+ * @param everyValue True if every value of 'x' at which the equation is defined satisfies it, as for 'x=x',
+ *                   in which case the roots cannot be listed.
+ * @param truncated  True if more than {@link RootFinder#MAX_ROOTS} roots were found and only the smallest ones
+ *                   are listed.
+ */
+public record FoundRoots(double[] roots, boolean everyValue, boolean truncated) {
+
+    private static final FoundRoots EVERY_VALUE = new FoundRoots(new double[0], true, false);
+
+    /**
+     * Returns the result for an equation satisfied by every value of 'x'.
+     *
+     * @return The result without listed roots.
+     */
+    public static FoundRoots ofEveryValue() {
+        return EVERY_VALUE;
+    }
+
+    /**
+     * Returns the result for the specified complete list of roots.
+     *
+     * @param roots The distinct roots in ascending order.
+     * @return The result listing the roots.
+     */
+    public static FoundRoots of(double[] roots) {
+        return new FoundRoots(roots, false, false);
+    }
+
+}
@@ -0,0 +1,15 @@
+package org.vitaliistf.mathhelper.evaluation;
+
+/**
+ * A unary minus applied to an operand.
+ *
+ * @param operand The negated expression.
+ */
+public record Negation(Expression operand) implements Expression {
+
+    @Override
+    public double evaluate(double x) {
+        return -operand.evaluate(x);
+    }
+
+}
@@ -0,0 +1,285 @@
+package org.vitaliistf.mathhelper.evaluation;
+
+import java.util.Arrays;
+
+/**
+ * An immutable polynomial in 'x' with double coefficients.
+ */
+public final class Polynomial {
+
+    public static final Polynomial ZERO = new Polynomial(new double[0]);
+    public static final Polynomial ONE = new Polynomial(new double[]{1});
+    public static final Polynomial X = new Polynomial(new double[]{0, 1});
+
+    /**
+     * Remainders whose coefficients are all below this fraction of the largest coefficient of the dividend
+     * are taken for zero by {@link #gcd(Polynomial)}, absorbing the rounding of the coefficients.
+     */
+    private static final double GCD_TOLERANCE = 1e-9;
+
+    /**
+     * Coefficients from the lowest to the highest degree, without trailing zeros.
+     */
+    private final double[] coefficients;
+
+    private Polynomial(double[] coefficients) {
+        this.coefficients = coefficients;
+    }
+
+    /**
+     * Creates a polynomial with the specified coefficients.
+     *
+     * @param coefficients The coefficients from the lowest to the highest degree.
+     * @return The polynomial.
+     */
+    public static Polynomial of(double... coefficients) {
+        int length = coefficients.length;
+        while (length > 0 && coefficients[length - 1] == 0) {
+            length--;
+        }
+        return new Polynomial(Arrays.copyOf(coefficients, length));
+    }
+
+    /**
+     * Creates a constant polynomial.
+     *
+     * @param value The value of the constant.
+     * @return The polynomial.
+     */
+    public static Polynomial constant(double value) {
+        return of(value);
+    }
+
+    /**
+     * Returns the degree of the polynomial; the zero polynomial has degree -1.
+     *
+     * @return The degree of the polynomial.
+     */
+    public int degree() {
+        return coefficients.length - 1;
+    }
+
+    /**
+     * Returns the coefficient of the specified power of 'x'.
+     *
+     * @param power The power of 'x'.
+     * @return The coefficient, zero for powers above the degree.
+     */
+    public double coefficient(int power) {
+        return power < coefficients.length ? coefficients[power] : 0;
+    }
+
+    /**
+     * Returns a copy of the coefficients from the lowest to the highest degree.
+     *
+     * @return The coefficients.
+     */
+    public double[] coefficients() {
+        return coefficients.clone();
+    }
+
+    /**
+     * Checks whether this is the zero polynomial.
+     *
+     * @return True if all the coefficients are zero, false otherwise.
+     */
+    public boolean isZero() {
+        return coefficients.length == 0;
+    }
+
+    /**
+     * Checks whether this polynomial is a constant.
+     *
+     * @return True if the degree is zero or less, false otherwise.
+     */
+    public boolean isConstant() {
+        return coefficients.length <= 1;
+    }
+
+    /**
+     * Evaluates the polynomial with Horner's method.
+     *
+     * @param x The value to substitute for 'x'.
+     * @return The value of the polynomial.
+     */
+    public double evaluate(double x) {
+        double result = 0;
+        for (int i = coefficients.length - 1; i >= 0; i--) {
+            result = result * x + coefficients[i];
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates the derivative of the polynomial with Horner's method.
+     *
+     * @param x The value to substitute for 'x'.
+     * @return The value of the derivative.
+     */
+    public double evaluateDerivative(double x) {
+        double result = 0;
+        for (int i = coefficients.length - 1; i >= 1; i--) {
+            result = result * x + i * coefficients[i];
+        }
+        return result;
+    }
+
+    /**
+     * Adds the specified polynomial to this one.
+     *
+     * @param other The polynomial to add.
+     * @return The sum of the polynomials.
+     */
+    public Polynomial add(Polynomial other) {
+        double[] result = new double[Math.max(coefficients.length, other.coefficients.length)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = coefficient(i) + other.coefficient(i);
+        }
+        return of(result);
+    }
+
+    /**
+     * Subtracts the specified polynomial from this one.
+     *
+     * @param other The polynomial to subtract.
+     * @return The difference of the polynomials.
+     */
+    public Polynomial subtract(Polynomial other) {
+        double[] result = new double[Math.max(coefficients.length, other.coefficients.length)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = coefficient(i) - other.coefficient(i);
+        }
+        return of(result);
+    }
+
+    /**
+     * Multiplies this polynomial by the specified one.
+     *
+     * @param other The polynomial to multiply by.
+     * @return The product of the polynomials.
+     */
+    public Polynomial multiply(Polynomial other) {
+        if (isZero() || other.isZero()) {
+            return ZERO;
+        }
+        double[] result = new double[coefficients.length + other.coefficients.length - 1];
+        for (int i = 0; i < coefficients.length; i++) {
+            for (int j = 0; j < other.coefficients.length; j++) {
+                result[i + j] += coefficients[i] * other.coefficients[j];
+            }
+        }
+        return of(result);
+    }
+
+    /**
+     * Divides this polynomial by the specified one with long division, dropping the remainder.
+     *
+     * @param divisor The polynomial to divide by.
+     * @return The quotient of the division.
+     * @throws ArithmeticException If the divisor is the zero polynomial.
+     */
+    public Polynomial divide(Polynomial divisor) {
+        return of(divideAndRemainder(divisor)[0]);
+    }
+
+    /**
+     * Finds the greatest common divisor of this polynomial and the specified one with Euclid's algorithm.
+     *
+     * @param other The other polynomial.
+     * @return The monic greatest common divisor, one if the polynomials have no common factor,
+     * or the zero polynomial if both are zero.
+     */
+    public Polynomial gcd(Polynomial other) {
+        Polynomial a = monic();
+        Polynomial b = other.monic();
+        while (!b.isZero()) {
+            double[] remainder = a.divideAndRemainder(b)[1];
+            double scale = 0;
+            for (double coefficient : a.coefficients) {
+                scale = Math.max(scale, Math.abs(coefficient));
+            }
+            for (int i = 0; i < remainder.length; i++) {
+                if (Math.abs(remainder[i]) <= GCD_TOLERANCE * scale) {
+                    remainder[i] = 0;
+                }
+            }
+            a = b;
+            b = of(remainder).monic();
+        }
+        return a;
+    }
+
+    /**
+     * Divides this polynomial by the specified one with long division.
+     *
+     * @return The coefficients of the quotient and of the remainder.
+     */
+    private double[][] divideAndRemainder(Polynomial divisor) {
+        if (divisor.isZero()) {
+            throw new ArithmeticException("Division by the zero polynomial");
+        }
+        int divisorDegree = divisor.degree();
+        if (degree() < divisorDegree) {
+            return new double[][]{new double[0], coefficients.clone()};
+        }
+        double[] remainder = coefficients.clone();
+        double[] quotient = new double[degree() - divisorDegree + 1];
+        double leading = divisor.coefficients[divisorDegree];
+        for (int k = quotient.length - 1; k >= 0; k--) {
+            quotient[k] = remainder[divisorDegree + k] / leading;
+            for (int j = 0; j < divisorDegree; j++) {
+                remainder[j + k] -= quotient[k] * divisor.coefficients[j];
+            }
+            remainder[divisorDegree + k] = 0;
+        }
+        return new double[][]{quotient, Arrays.copyOf(remainder, divisorDegree)};
+    }
+
+    /**
+     * Negates the polynomial.
+     *
+     * @return The polynomial with all the coefficients negated.
+     */
+    public Polynomial negate() {
+        return scale(-1);
+    }
+
+    /**
+     * Multiplies the polynomial by a constant.
+     *
+     * @param factor The constant to multiply by.
+     * @return The scaled polynomial.
+     */
+    public Polynomial scale(double factor) {
+        double[] result = new double[coefficients.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = coefficients[i] * factor;
+        }
+        return of(result);
+    }
+
+    /**
+     * Scales the polynomial so that its leading coefficient is one.
+     *
+     * @return The monic polynomial, or the zero polynomial itself.
+     */
+    public Polynomial monic() {
+        return isZero() ? this : scale(1 / coefficients[coefficients.length - 1]);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Polynomial polynomial && Arrays.equals(coefficients, polynomial.coefficients);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(coefficients);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(coefficients);
+    }
+
+}
@@ -0,0 +1,151 @@
+package org.vitaliistf.mathhelper.evaluation;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Utility class for solving polynomial equations of degree four or less in closed form.
+ */
+public class PolynomialSolver {
+
+    /**
+     * Maximum degree of the polynomials solved in closed form.
+     */
+    public static final int MAX_DEGREE = 4;
+
+    /**
+     * Number of Newton iterations polishing every closed-form root against the original coefficients.
+     */
+    private static final int POLISH_ITERATIONS = 3;
+
+    /**
+     * Finds the real roots of the polynomial.
+     *
+     * @param polynomial The polynomial to solve.
+     * @return An Optional containing the distinct real roots in ascending order, or empty if the degree is above
+     * {@link #MAX_DEGREE} or the polynomial is zero, so that every value is a root.
+     */
+    public static Optional<double[]> solve(Polynomial polynomial) {
+        if (polynomial.isZero() || polynomial.degree() > MAX_DEGREE) {
+            return Optional.empty();
+        }
+        Polynomial monic = polynomial.monic();
+        double[] roots = switch (monic.degree()) {
+            case 1 -> new double[]{-monic.coefficient(0)};
+            case 2 -> solveQuadratic(1, monic.coefficient(1), monic.coefficient(0));
+            case 3 -> solveCubic(monic.coefficient(2), monic.coefficient(1), monic.coefficient(0));
+            case 4 -> solveQuartic(monic.coefficient(3), monic.coefficient(2), monic.coefficient(1),
+                    monic.coefficient(0));
+            default -> new double[0];
+        };
+        for (int i = 0; i < roots.length; i++) {
+            roots[i] = polish(polynomial, roots[i]);
+        }
+        return Optional.of(distinct(roots));
+    }
+
+    /**
+     * Solves a*x^2 + b*x + c = 0 avoiding the cancellation of the textbook formula.
+     */
+    private static double[] solveQuadratic(double a, double b, double c) {
+        double discriminant = b * b - 4 * a * c;
+        if (Math.abs(discriminant) <= 4 * Math.ulp(Math.max(b * b, Math.abs(4 * a * c)))) {
+            discriminant = 0; // within rounding error of a double root
+        }
+        if (discriminant < 0) {
+            return new double[0];
+        }
+        if (discriminant == 0) {
+            return new double[]{-b / (2 * a)};
+        }
+        double q = -0.5 * (b + Math.copySign(Math.sqrt(discriminant), b));
+        return q == 0 ? new double[]{0} : new double[]{q / a, c / q};
+    }
+
+    /**
+     * Solves x^3 + a*x^2 + b*x + c = 0 with the trigonometric method or Cardano's formula.
+     */
+    private static double[] solveCubic(double a, double b, double c) {
+        double q = (a * a - 3 * b) / 9;
+        double r = (2 * a * a * a - 9 * a * b + 27 * c) / 54;
+        double shift = a / 3;
+        double q3 = q * q * q;
+        if (r * r < q3) { // three real roots
+            double theta = Math.acos(r / Math.sqrt(q3));
+            double scale = -2 * Math.sqrt(q);
+            return new double[]{
+                    scale * Math.cos(theta / 3) - shift,
+                    scale * Math.cos((theta + 2 * Math.PI) / 3) - shift,
+                    scale * Math.cos((theta - 2 * Math.PI) / 3) - shift
+            };
+        }
+        double u = -Math.copySign(Math.cbrt(Math.abs(r) + Math.sqrt(r * r - q3)), r);
+        double v = u == 0 ? 0 : q / u;
+        if (Math.abs(u - v) <= 1e-9 * Math.abs(u)) { // a double root next to a single one
+            return new double[]{u + v - shift, -u - shift};
+        }
+        return new double[]{u + v - shift};
+    }
+
+    /**
+     * Solves x^4 + a*x^3 + b*x^2 + c*x + d = 0 with Ferrari's method.
+     */
+    private static double[] solveQuartic(double a, double b, double c, double d) {
+        // depressed quartic y^4 + p*y^2 + q*y + r = 0 with x = y - a/4
+        double shift = a / 4;
+        double p = b - 6 * shift * shift;
+        double q = c - 2 * b * shift + 8 * shift * shift * shift;
+        double r = d - c * shift + b * shift * shift - 3 * shift * shift * shift * shift;
+
+        double[] ys;
+        if (Math.abs(q) <= 1e-14 * (1 + Math.abs(p) + Math.abs(r))) { // biquadratic
+            ys = Arrays.stream(solveQuadratic(1, p, r))
+                    .filter(z -> z >= 0)
+                    .flatMap(z -> Arrays.stream(new double[]{Math.sqrt(z), -Math.sqrt(z)}))
+                    .toArray();
+        } else {
+            // the resolvent cubic m^3 + p*m^2 + (p^2/4 - r)*m - q^2/8 = 0 has a positive root
+            double m = Arrays.stream(solveCubic(p, p * p / 4 - r, -q * q / 8)).max().orElse(0);
+            if (m <= 0) {
+                return new double[0];
+            }
+            double s = Math.sqrt(2 * m);
+            double[] first = solveQuadratic(1, -s, p / 2 + m + q / (2 * s));
+            double[] second = solveQuadratic(1, s, p / 2 + m - q / (2 * s));
+            ys = Arrays.copyOf(first, first.length + second.length);
+            System.arraycopy(second, 0, ys, first.length, second.length);
+        }
+        return Arrays.stream(ys).map(y -> y - shift).toArray();
+    }
+
+    /**
+     * Improves the accuracy of a root with Newton's method on the original polynomial.
+     */
+    private static double polish(Polynomial polynomial, double root) {
+        for (int i = 0; i < POLISH_ITERATIONS; i++) {
+            double value = polynomial.evaluate(root);
+            double derivative = polynomial.evaluateDerivative(root);
+            if (value == 0 || derivative == 0) {
+                break;
+            }
+            double polished = root - value / derivative;
+            if (!(Math.abs(polynomial.evaluate(polished)) < Math.abs(value))) {
+                break;
+            }
+            root = polished;
+        }
+        return root;
+    }
+
+    private static double[] distinct(double[] roots) {
+        Arrays.sort(roots);
+        int count = 0;
+        for (double root : roots) {
+            if (count == 0 || root - roots[count - 1] > 1e-9 * Math.max(1, Math.abs(root))) {
+                roots[count++] = root;
+            }
+        }
+        return Arrays.copyOf(roots, count);
+    }
+
+}
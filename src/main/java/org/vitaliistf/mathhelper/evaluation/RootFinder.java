@@ -0,0 +1,373 @@
+package org.vitaliistf.mathhelper.evaluation;
+
+import org.vitaliistf.mathhelper.metrics.Metrics;
+import org.vitaliistf.mathhelper.metrics.Timer;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Solver finding the real roots of an equation in an interval.
+ * Equations whose canonical form has a numerator of degree four or less are solved in closed form,
+ * see {@link CanonicalForm#solve()}. For the others, the interval is sampled on a uniform grid to bracket
+ * sign changes of the residual, every bracket is refined with Brent's method, and local minima of the absolute
+ * residual (roots of even multiplicity, which do not change sign) are refined with Newton's method using
+ * a numerically computed derivative.
+ * Sub-intervals are searched in parallel on a {@link ForkJoinPool}.
+ * Only the values satisfying the equation within {@link EquationEvaluator#PRECISION} are reported.
+ * Identities such as 'x=x', whose canonical numerator is zero or which are satisfied wherever defined on the grid,
+ * are reported as satisfied by every value instead of listing the points of the grid.
+ */
+public class RootFinder {
+
+    public static final double DEFAULT_LOWER_BOUND = -1000;
+    public static final double DEFAULT_UPPER_BOUND = 1000;
+    public static final int DEFAULT_SAMPLES = 200_000;
+    public static final int DEFAULT_MAX_ITERATIONS = 100;
+    public static final Duration DEFAULT_TIME_BUDGET = Duration.ofSeconds(1);
+
+    /**
+     * The minimum number of grid intervals; coarser grids could take a few roots for an identity.
+     */
+    public static final int MIN_SAMPLES = 16;
+
+    /**
+     * The maximum number of roots listed for an equation; further roots are not reported.
+     */
+    public static final int MAX_ROOTS = 1000;
+
+    /**
+     * Maximum number of grid intervals searched by a single fork/join task.
+     */
+    private static final int SAMPLES_PER_TASK = 4096;
+
+    /**
+     * Absolute tolerance of Brent's method, on top of its relative machine precision tolerance.
+     */
+    private static final double X_TOLERANCE = 1e-15;
+
+    /**
+     * Step of the numerical derivative relative to the magnitude of 'x'.
+     */
+    private static final double DERIVATIVE_STEP = Math.cbrt(Math.ulp(1.0));
+
+    private static final Timer FIND_ROOTS = Metrics.timer("evaluation.findRoots");
+
+    private final double lowerBound;
+    private final double upperBound;
+    private final int samples;
+    private final int maxIterations;
+    private final Duration timeBudget;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a RootFinder with the default interval, sampling density and budget,
+     * running on the common fork/join pool.
+     */
+    public RootFinder() {
+        this(DEFAULT_LOWER_BOUND, DEFAULT_UPPER_BOUND, DEFAULT_SAMPLES, DEFAULT_MAX_ITERATIONS,
+                DEFAULT_TIME_BUDGET, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a RootFinder with the specified configuration.
+     *
+     * @param lowerBound    The lower bound of the searched interval.
+     * @param upperBound    The upper bound of the searched interval.
+     * @param samples       The number of grid intervals the searched interval is divided into.
+     *                      Roots closer to each other than one grid interval may be missed.
+     * @param maxIterations The maximum number of refinement iterations per root.
+     * @param timeBudget    The maximum time spent on one equation; roots not found within it are not reported.
+     * @param pool          The pool running the search of sub-intervals.
+     * @throws IllegalArgumentException If the interval is empty or the number of samples is less than
+     *                                  {@link #MIN_SAMPLES}.
+     */
+    public RootFinder(double lowerBound, double upperBound, int samples, int maxIterations,
+                      Duration timeBudget, ForkJoinPool pool) {
+        if (!(lowerBound < upperBound) || samples < MIN_SAMPLES) {
+            throw new IllegalArgumentException("Invalid search interval or number of samples");
+        }
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        this.samples = samples;
+        this.maxIterations = maxIterations;
+        this.timeBudget = timeBudget;
+        this.pool = pool;
+    }
+
+    /**
+     * Finds the real roots of the equation in the configured interval.
+     *
+     * @param equation The equation to solve.
+     * @return The distinct roots in ascending order, or the result for an equation satisfied by every value.
+     */
+    public FoundRoots findRoots(CompiledEquation equation) {
+        long start = FIND_ROOTS.start();
+        try {
+            Optional<CanonicalForm> canonicalForm = EquationNormalizer.normalize(equation);
+            if (canonicalForm.isPresent() && canonicalForm.get().numerator().isZero()) {
+                return FoundRoots.ofEveryValue();
+            }
+            Optional<double[]> closedForm = canonicalForm.flatMap(CanonicalForm::solve);
+            if (closedForm.isPresent() && Arrays.stream(closedForm.get()).allMatch(equation::isSatisfiedBy)) {
+                return FoundRoots.of(Arrays.stream(closedForm.get())
+                        .filter(root -> root >= lowerBound && root <= upperBound)
+                        .toArray());
+            }
+            return findRootsNumerically(equation);
+        } finally {
+            FIND_ROOTS.stop(start);
+        }
+    }
+
+    /**
+     * Finds the real roots of the equation in the configured interval by sampling and refinement,
+     * without trying to solve it in closed form.
+     *
+     * An equation satisfied at every grid point where it is defined is reported as satisfied by every value,
+     * and of more than {@link #MAX_ROOTS} roots only the smallest ones are listed.
+     *
+     * @param equation The equation to solve.
+     * @return The distinct roots in ascending order, or the result for an equation satisfied by every value.
+     */
+    public FoundRoots findRootsNumerically(CompiledEquation equation) {
+        long deadline = System.nanoTime() + timeBudget.toNanos();
+        double[] roots = distinct(pool.invoke(new SearchTask(equation, 0, samples, deadline)));
+        if (roots.length > samples / 2 && isSatisfiedOnGrid(equation)) {
+            return FoundRoots.ofEveryValue();
+        }
+        if (roots.length > MAX_ROOTS) {
+            return new FoundRoots(Arrays.copyOf(roots, MAX_ROOTS), false, true);
+        }
+        return FoundRoots.of(roots);
+    }
+
+    /**
+     * Returns the grid point with the specified index; the last point is exactly the upper bound.
+     */
+    private double gridPoint(int index) {
+        return index == samples ? upperBound : lowerBound + (upperBound - lowerBound) * index / samples;
+    }
+
+    /**
+     * Checks whether the equation is satisfied at every grid point where it is defined,
+     * so that 'x/x=1' is an identity despite 'x=0'.
+     */
+    private boolean isSatisfiedOnGrid(CompiledEquation equation) {
+        for (int from = 0; from <= samples; from += SAMPLES_PER_TASK) {
+            double[] xs = new double[Math.min(SAMPLES_PER_TASK, samples + 1 - from)];
+            for (int i = 0; i < xs.length; i++) {
+                xs[i] = gridPoint(from + i);
+            }
+            BatchEvaluationResult sampled = equation.evaluateBatch(xs);
+            for (int i = 0; i < xs.length; i++) {
+                if (!sampled.isRoot(i) && !Double.isNaN(sampled.residuals()[i])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Searches the grid intervals between the specified points.
+     */
+    private double[] search(CompiledEquation equation, int from, int to, long deadline) {
+        // one extra point on each side is needed to recognize local minima at the edges
+        int first = Math.max(0, from - 1);
+        int last = Math.min(samples, to + 1);
+        double[] xs = new double[last - first + 1];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = gridPoint(first + i);
+        }
+        BatchEvaluationResult sampled = equation.evaluateBatch(xs);
+        double[] f = sampled.residuals();
+
+        double[] roots = new double[8];
+        int count = 0;
+        for (int k = from; k <= to && System.nanoTime() < deadline; k++) {
+            int i = k - first;
+            double root = Double.NaN;
+            if (sampled.isRoot(i)) {
+                if (k < to || k == samples) {
+                    root = xs[i];
+                }
+            } else if (k < to && isSignChange(f[i], f[i + 1]) && !sampled.isRoot(i + 1)) {
+                root = brent(equation, xs[i], xs[i + 1], f[i], f[i + 1], deadline);
+            } else if (k < to && i > 0 && isLocalMinimum(f[i - 1], f[i], f[i + 1])) {
+                root = newton(equation, xs[i], xs[i - 1], xs[i + 1], deadline);
+            }
+
+            if (!Double.isNaN(root) && equation.isSatisfiedBy(root)) {
+                if (count == roots.length) {
+                    roots = Arrays.copyOf(roots, count * 2);
+                }
+                roots[count++] = root;
+            }
+        }
+        return Arrays.copyOf(roots, count);
+    }
+
+    private static boolean isSignChange(double fa, double fb) {
+        return Double.isFinite(fa) && Double.isFinite(fb) && (fa < 0) != (fb < 0);
+    }
+
+    private static boolean isLocalMinimum(double previous, double current, double next) {
+        return Double.isFinite(previous) && Double.isFinite(current) && Double.isFinite(next)
+                && (previous < 0) == (current < 0) && (current < 0) == (next < 0)
+                && Math.abs(current) < Math.abs(previous) && Math.abs(current) < Math.abs(next);
+    }
+
+    /**
+     * Refines a root bracketed by [a, b] with Brent's method.
+     */
+    private double brent(CompiledEquation equation, double a, double b, double fa, double fb, long deadline) {
+        double c = b;
+        double fc = fb;
+        double d = b - a;
+        double e = d;
+        for (int iteration = 0; iteration < maxIterations && System.nanoTime() < deadline; iteration++) {
+            if ((fb > 0 && fc > 0) || (fb < 0 && fc < 0)) {
+                c = a;
+                fc = fa;
+                d = b - a;
+                e = d;
+            }
+            if (Math.abs(fc) < Math.abs(fb)) {
+                a = b;
+                b = c;
+                c = a;
+                fa = fb;
+                fb = fc;
+                fc = fa;
+            }
+            double tolerance = 2 * Math.ulp(1.0) * Math.abs(b) + 0.5 * X_TOLERANCE;
+            double middle = 0.5 * (c - b);
+            if (Math.abs(middle) <= tolerance || fb == 0) {
+                return b;
+            }
+            if (Math.abs(e) >= tolerance && Math.abs(fa) > Math.abs(fb)) {
+                double s = fb / fa;
+                double p;
+                double q;
+                if (a == c) { // secant step
+                    p = 2 * middle * s;
+                    q = 1 - s;
+                } else { // inverse quadratic interpolation
+                    q = fa / fc;
+                    double r = fb / fc;
+                    p = s * (2 * middle * q * (q - r) - (b - a) * (r - 1));
+                    q = (q - 1) * (r - 1) * (s - 1);
+                }
+                if (p > 0) {
+                    q = -q;
+                }
+                p = Math.abs(p);
+                if (2 * p < Math.min(3 * middle * q - Math.abs(tolerance * q), Math.abs(e * q))) {
+                    e = d;
+                    d = p / q;
+                } else { // bisection
+                    d = middle;
+                    e = d;
+                }
+            } else { // bisection
+                d = middle;
+                e = d;
+            }
+            a = b;
+            fa = fb;
+            b += Math.abs(d) > tolerance ? d : Math.copySign(tolerance, middle);
+            fb = equation.residual(b);
+        }
+        return b;
+    }
+
+    /**
+     * Refines a root near x with Newton's method, keeping the iterations within [min, max].
+     *
+     * @return The refined root, or NaN if the iterations left the interval or the derivative vanished.
+     */
+    private double newton(CompiledEquation equation, double x, double min, double max, long deadline) {
+        for (int iteration = 0; iteration < maxIterations && System.nanoTime() < deadline; iteration++) {
+            double fx = equation.residual(x);
+            if (fx == 0) {
+                return x;
+            }
+            double derivative = derivative(equation, x);
+            if (derivative == 0 || !Double.isFinite(derivative)) {
+                break;
+            }
+            double step = fx / derivative;
+            x -= step;
+            if (!(x >= min && x <= max)) {
+                return Double.NaN;
+            }
+            if (Math.abs(step) <= 2 * Math.ulp(x)) {
+                return x;
+            }
+        }
+        return x;
+    }
+
+    /**
+     * Computes the derivative of the residual with a central difference.
+     */
+    private static double derivative(CompiledEquation equation, double x) {
+        double h = DERIVATIVE_STEP * Math.max(1, Math.abs(x));
+        return (equation.residual(x + h) - equation.residual(x - h)) / (2 * h);
+    }
+
+    /**
+     * Sorts the roots and removes the ones found more than once.
+     */
+    private static double[] distinct(double[] roots) {
+        Arrays.sort(roots);
+        int count = 0;
+        for (double root : roots) {
+            if (count == 0 || root - roots[count - 1] > 1e-9 * Math.max(1, Math.abs(root))) {
+                roots[count++] = root;
+            }
+        }
+        return Arrays.copyOf(roots, count);
+    }
+
+    /**
+     * Fork/join task searching the grid intervals between two grid points.
+     */
+    private class SearchTask extends RecursiveTask<double[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final CompiledEquation equation;
+        private final int from;
+        private final int to;
+        private final long deadline;
+
+        SearchTask(CompiledEquation equation, int from, int to, long deadline) {
+            this.equation = equation;
+            this.from = from;
+            this.to = to;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (to - from <= SAMPLES_PER_TASK) {
+                return search(equation, from, to, deadline);
+            }
+            int middle = (from + to) >>> 1;
+            SearchTask left = new SearchTask(equation, from, middle, deadline);
+            left.fork();
+            double[] rightRoots = new SearchTask(equation, middle, to, deadline).compute();
+            double[] leftRoots = left.join();
+
+            double[] roots = Arrays.copyOf(leftRoots, leftRoots.length + rightRoots.length);
+            System.arraycopy(rightRoots, 0, roots, leftRoots.length, rightRoots.length);
+            return roots;
+        }
+    }
+
+}
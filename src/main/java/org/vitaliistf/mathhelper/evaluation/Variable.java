@@ -0,0 +1,18 @@
+package org.vitaliistf.mathhelper.evaluation;
+
+/**
+ * The variable 'x' of an expression.
+ */
+public record Variable() implements Expression {
+
+    /**
+     * The shared instance of the variable.
+     */
+    public static final Variable X = new Variable();
+
+    @Override
+    public double evaluate(double x) {
+        return x;
+    }
+
+}
@@ -0,0 +1,228 @@
+package org.vitaliistf.mathhelper.importer;
+
+import org.vitaliistf.mathhelper.entity.Equation;
+import org.vitaliistf.mathhelper.evaluation.CompilationResult;
+import org.vitaliistf.mathhelper.evaluation.CompiledEquation;
+import org.vitaliistf.mathhelper.repository.EquationRepository;
+import org.vitaliistf.mathhelper.service.EquationService;
+import org.vitaliistf.mathhelper.validation.RootConverter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Imports equations with their roots from a line-oriented input, one equation per line in the form
+ * "expression,root1,root2,...". Blank lines and lines starting with '#' are skipped.
+ * The input is read in chunks of lines: the lines of a chunk are validated and their roots checked in parallel,
+ * then the chunk is saved with {@link EquationRepository#saveAll(Iterable)}, so the memory used does not depend
+ * on the size of the input.
+ * For every line with an equation, a result line is written in the form "lineNumber,status,detail":
+ * <ul>
+ *     <li>SAVED,id[,"not roots: ...; equivalent to: id"] - the equation is saved, without the values that are
+ *     not its roots; an algebraically identical equation saved before is reported, but does not prevent the save</li>
+ *     <li>DUPLICATE,id - the same expression, ignoring spaces, is already saved with the identifier</li>
+ *     <li>INVALID,"message" - the equation or one of the roots is not correct</li>
+ * </ul>
+ */
+public class EquationImporter {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private final EquationService equationService;
+    private final EquationRepository equationRepository;
+    private final int chunkSize;
+
+    /**
+     * Constructs an EquationImporter with the default chunk size.
+     *
+     * @param equationService The service validating and saving the equations.
+     */
+    public EquationImporter(EquationService equationService) {
+        this(equationService, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructs an EquationImporter with the specified chunk size.
+     *
+     * @param equationService The service validating and saving the equations.
+     * @param chunkSize       The number of lines validated in parallel and saved in one transaction.
+     */
+    public EquationImporter(EquationService equationService, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.equationService = equationService;
+        this.equationRepository = equationService.getEquationRepository();
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports all the equations of the input.
+     *
+     * @param input   The input with one equation per line.
+     * @param results The output receiving one result line for every line with an equation.
+     * @return The numbers of saved, duplicate and invalid equations.
+     * @throws IOException If the input cannot be read or the results cannot be written.
+     */
+    public ImportReport importEquations(BufferedReader input, Writer results) throws IOException {
+        long start = System.nanoTime();
+        Counters counters = new Counters();
+        List<Line> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = 0;
+        String text;
+        while ((text = input.readLine()) != null) {
+            lineNumber++;
+            if (!text.isBlank() && !text.startsWith("#")) {
+                chunk.add(new Line(lineNumber, text));
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, results, counters);
+                    chunk.clear();
+                }
+            }
+        }
+        importChunk(chunk, results, counters);
+        results.flush();
+        return new ImportReport(counters.lines, counters.saved, counters.duplicates, counters.invalid,
+                counters.roots, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private void importChunk(List<Line> chunk, Writer results, Counters counters) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Parsed> parsed = chunk.parallelStream().map(this::parse).toList();
+
+        // saved equations with the same expression or canonical form are looked up once per chunk;
+        // of the equations of the chunk with the same expression only the first one is saved,
+        // while algebraically identical equations are all saved and reported as such
+        Set<String> expressions = new HashSet<>();
+        Set<String> canonicalForms = new HashSet<>();
+        for (Parsed line : parsed) {
+            if (line.equation != null) {
+                expressions.add(line.equation.getExpression());
+                if (line.equation.getCanonicalForm() != null) {
+                    canonicalForms.add(line.equation.getCanonicalForm());
+                }
+            }
+        }
+        Map<String, Long> savedIds = equationRepository.findEquationIdsByExpressions(expressions);
+        Map<String, Long> savedEquivalentIds = equationRepository.findEquationIdsByCanonicalForms(canonicalForms);
+
+        Map<String, Equation> chunkExpressions = new HashMap<>();
+        Map<String, Equation> chunkCanonicalForms = new HashMap<>();
+        Long[] duplicateIds = new Long[parsed.size()];
+        Equation[] duplicates = new Equation[parsed.size()];
+        Long[] equivalentIds = new Long[parsed.size()];
+        Equation[] equivalents = new Equation[parsed.size()];
+        List<Equation> toSave = new ArrayList<>();
+        for (int i = 0; i < parsed.size(); i++) {
+            Equation equation = parsed.get(i).equation;
+            if (equation == null) {
+                continue;
+            }
+            duplicateIds[i] = savedIds.get(equation.getExpression());
+            duplicates[i] = chunkExpressions.get(equation.getExpression());
+            if (duplicateIds[i] != null || duplicates[i] != null) {
+                continue;
+            }
+            chunkExpressions.put(equation.getExpression(), equation);
+            toSave.add(equation);
+            String canonicalForm = equation.getCanonicalForm();
+            if (canonicalForm != null) {
+                equivalentIds[i] = savedEquivalentIds.get(canonicalForm);
+                equivalents[i] = chunkCanonicalForms.putIfAbsent(canonicalForm, equation);
+            }
+        }
+        equationRepository.saveAll(toSave);
+
+        for (int i = 0; i < parsed.size(); i++) {
+            Parsed line = parsed.get(i);
+            counters.lines++;
+            StringBuilder result = new StringBuilder().append(line.number).append(',');
+            if (line.equation == null) {
+                counters.invalid++;
+                result.append("INVALID,").append(quote(line.message));
+            } else if (duplicateIds[i] != null || duplicates[i] != null) {
+                counters.duplicates++;
+                result.append("DUPLICATE,").append(duplicateIds[i] != null ? duplicateIds[i] : duplicates[i].getId());
+            } else {
+                counters.saved++;
+                counters.roots += line.equation.getRootCount();
+                result.append("SAVED,").append(line.equation.getId());
+                List<String> details = new ArrayList<>(2);
+                if (line.message != null) {
+                    details.add(line.message);
+                }
+                if (equivalentIds[i] != null || equivalents[i] != null) {
+                    Long equivalentId = equivalentIds[i] != null ? equivalentIds[i] : equivalents[i].getId();
+                    details.add("equivalent to: " + equivalentId);
+                }
+                if (!details.isEmpty()) {
+                    result.append(',').append(quote(String.join("; ", details)));
+                }
+            }
+            results.write(result.append('\n').toString());
+        }
+    }
+
+    /**
+     * Validates the equation of a line and checks its roots.
+     */
+    private Parsed parse(Line line) {
+        String[] fields = line.text.split(",");
+        CompilationResult compilation = equationService.compile(fields[0]);
+        if (!compilation.isSuccessful()) {
+            return new Parsed(line.number, null, "The equation is not correct: " + compilation.error().getMessage());
+        }
+        CompiledEquation compiledEquation = compilation.equation();
+        Equation equation = equationService.newEquation(fields[0], compiledEquation);
+
+        List<String> notRoots = new ArrayList<>();
+        for (int i = 1; i < fields.length; i++) {
+            String root = fields[i].trim();
+            Optional<Double> value = RootConverter.convert(root);
+            if (value.isEmpty()) {
+                return new Parsed(line.number, null, "Root " + root + " is not a number");
+            }
+            if (compiledEquation.isSatisfiedBy(value.get())) {
+                equation.addRoot(value.get());
+            } else {
+                notRoots.add(root);
+            }
+        }
+        String message = notRoots.isEmpty() ? null : "not roots: " + String.join(" ", notRoots);
+        return new Parsed(line.number, equation, message);
+    }
+
+    private static String quote(String message) {
+        return '"' + message.replace("\"", "\"\"") + '"';
+    }
+
+    private record Line(long number, String text) {
+    }
+
+    /**
+     * A validated line: either an equation with its roots, or the message explaining why it is not correct.
+     * The message of a correct line lists the values that are not roots of its equation.
+     */
+    private record Parsed(long number, Equation equation, String message) {
+    }
+
+    private static class Counters {
+        long lines;
+        long saved;
+        long duplicates;
+        long invalid;
+        long roots;
+    }
+
+}
@@ -0,0 +1,27 @@
+package org.vitaliistf.mathhelper.importer;
+
+import java.time.Duration;
+
+/**
+ * The outcome of importing equations.
+ *
+ * @param lines      The number of lines with an equation, not counting blank lines and comments.
+ * @param saved      The number of saved equations.
+ * @param duplicates The number of equations not saved because the same expression was already saved.
+ * @param invalid    The number of lines not saved because the equation or a root is not correct.
+ * @param roots      The number of saved roots.
+ * @param elapsed    The time spent importing.
+ */
+public record ImportReport(long lines, long saved, long duplicates, long invalid, long roots, Duration elapsed) {
+
+    /**
+     * Returns the number of imported lines per second.
+     *
+     * @return The throughput, or 0 if nothing was imported.
+     */
+    public double linesPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : lines * 1e9 / nanos;
+    }
+
+}
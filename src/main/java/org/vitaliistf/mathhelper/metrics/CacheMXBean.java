@@ -0,0 +1,18 @@
+package org.vitaliistf.mathhelper.metrics;
+
+/**
+ * The JMX view of the statistics of a cache registered with {@link Metrics#registerCache}.
+ */
+public interface CacheMXBean {
+
+    long getHits();
+
+    long getMisses();
+
+    long getEvictions();
+
+    long getSize();
+
+    double getHitRate();
+
+}
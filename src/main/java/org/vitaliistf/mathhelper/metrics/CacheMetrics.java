@@ -0,0 +1,63 @@
+package org.vitaliistf.mathhelper.metrics;
+
+import org.vitaliistf.mathhelper.cache.CacheStatistics;
+
+import java.util.function.Supplier;
+
+/**
+ * The statistics of a cache, read from the cache every time they are requested.
+ */
+public class CacheMetrics implements CacheMXBean {
+
+    private final String name;
+    private final Supplier<CacheStatistics> statistics;
+
+    CacheMetrics(String name, Supplier<CacheStatistics> statistics) {
+        this.name = name;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Returns the name of the cache.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the current statistics of the cache.
+     *
+     * @return The statistics.
+     */
+    public CacheStatistics statistics() {
+        return statistics.get();
+    }
+
+    @Override
+    public long getHits() {
+        return statistics().hits();
+    }
+
+    @Override
+    public long getMisses() {
+        return statistics().misses();
+    }
+
+    @Override
+    public long getEvictions() {
+        return statistics().evictions();
+    }
+
+    @Override
+    public long getSize() {
+        return statistics().size();
+    }
+
+    @Override
+    public double getHitRate() {
+        return statistics().hitRate();
+    }
+
+}
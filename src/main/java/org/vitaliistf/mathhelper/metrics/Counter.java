@@ -0,0 +1,56 @@
+package org.vitaliistf.mathhelper.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A counter of events, incremented without contention from any number of threads.
+ * Increments are ignored while the metrics are disabled.
+ */
+public class Counter implements CounterMXBean {
+
+    private final String name;
+    private final LongAdder count = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the name of the counter.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Counts one event.
+     */
+    public void increment() {
+        if (Metrics.isEnabled()) {
+            count.increment();
+        }
+    }
+
+    /**
+     * Counts the specified number of events.
+     *
+     * @param events The number of events.
+     */
+    public void add(long events) {
+        if (Metrics.isEnabled()) {
+            count.add(events);
+        }
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    void reset() {
+        count.reset();
+    }
+
+}
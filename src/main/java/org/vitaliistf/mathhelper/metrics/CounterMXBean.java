@@ -0,0 +1,10 @@
+package org.vitaliistf.mathhelper.metrics;
+
+/**
+ * The JMX view of a {@link Counter}.
+ */
+public interface CounterMXBean {
+
+    long getCount();
+
+}
@@ -0,0 +1,34 @@
+package org.vitaliistf.mathhelper.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A Flight Recorder event for evaluating an equation for one or more values of x,
+ * recorded when it takes longer than the threshold.
+ */
+@Name("org.vitaliistf.mathhelper.Evaluate")
+@Label("Equation Evaluation")
+@Description("Evaluating an equation for one or more values of x")
+@Category({"MathHelper", "Evaluation"})
+@Threshold("100 us")
+@StackTrace(false)
+public class EvaluateEvent extends Event {
+
+    @Label("Expression Length")
+    public int expressionLength;
+
+    @Label("Values")
+    @Description("The number of evaluated values of x")
+    public int values;
+
+    @Label("Roots")
+    @Description("The number of values satisfying the equation")
+    public int roots;
+
+}
@@ -0,0 +1,114 @@
+package org.vitaliistf.mathhelper.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * A thread-safe histogram of non-negative values with log-linear buckets, in the manner of HdrHistogram.
+ * Every power of two is split into {@value #SUB_BUCKETS} buckets of equal width, so any value up to
+ * {@link Long#MAX_VALUE} is recorded with a relative error below 1/{@value #SUB_BUCKETS}
+ * in a fixed number of buckets, and recording is a single atomic increment.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = bucketIndex(Long.MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a value.
+     *
+     * @param value The value; negative values are recorded as 0.
+     */
+    public void record(long value) {
+        long recorded = Math.max(value, 0);
+        counts.incrementAndGet(bucketIndex(recorded));
+        max.accumulate(recorded);
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return The count of values.
+     */
+    public long count() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return The maximum, or 0 if nothing was recorded.
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Returns the value below or at which the given percentage of the recorded values fall.
+     * The result is the upper bound of the bucket of that value, never above the maximum.
+     *
+     * @param percentile The percentage between 0 and 100.
+     * @return The value at the percentile, or 0 if nothing was recorded.
+     */
+    public long percentile(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max());
+            }
+        }
+        return max();
+    }
+
+    /**
+     * Discards all the recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        max.reset();
+    }
+
+    /**
+     * Returns the bucket of a value: values below 2 * SUB_BUCKETS have a bucket each, and every following
+     * power of two is split into SUB_BUCKETS buckets indexed by the highest bits of the value.
+     */
+    static int bucketIndex(long value) {
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    /**
+     * Returns the largest value of a bucket.
+     */
+    static long upperBound(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long subBucket = (index & (SUB_BUCKETS - 1)) + SUB_BUCKETS;
+        long bound = ((subBucket + 1) << shift) - 1;
+        return bound < 0 ? Long.MAX_VALUE : bound;
+    }
+
+}
@@ -0,0 +1,223 @@
+package org.vitaliistf.mathhelper.metrics;
+
+import org.vitaliistf.mathhelper.cache.CacheStatistics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The registry of the timers, counters and caches of the application.
+ * Metrics are created once by name, usually into static final fields of the measured classes,
+ * so measuring does not look anything up. They can be read through JMX after {@link #registerMBeans()},
+ * or as text with {@link #dump()}.
+ * The metrics are enabled unless the "mathhelper.metrics" system property is "false";
+ * when disabled, measuring costs a read of a volatile field.
+ */
+public class Metrics {
+
+    /**
+     * The JMX domain of the metrics.
+     */
+    public static final String DOMAIN = "org.vitaliistf.mathhelper";
+
+    private static volatile boolean enabled = Boolean.parseBoolean(System.getProperty("mathhelper.metrics", "true"));
+
+    private static final Map<String, Timer> TIMERS = new ConcurrentSkipListMap<>();
+    private static final Map<String, Counter> COUNTERS = new ConcurrentSkipListMap<>();
+    private static final Map<String, CacheMetrics> CACHES = new ConcurrentSkipListMap<>();
+
+    /**
+     * The server the metrics are registered with, or null until {@link #registerMBeans()} is called.
+     */
+    private static volatile MBeanServer mBeanServer;
+
+    /**
+     * Checks whether the metrics are recorded.
+     *
+     * @return True if the metrics are enabled.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables recording the metrics. Values recorded so far are kept.
+     *
+     * @param enabled True to record the metrics.
+     */
+    public static void setEnabled(boolean enabled) {
+        Metrics.enabled = enabled;
+    }
+
+    /**
+     * Returns the timer with the specified name, creating it if needed.
+     *
+     * @param name The name of the timer, e.g. "repository.findAll".
+     * @return The timer.
+     */
+    public static Timer timer(String name) {
+        return getOrCreate(TIMERS, "Timer", name, Timer::new);
+    }
+
+    /**
+     * Returns the counter with the specified name, creating it if needed.
+     *
+     * @param name The name of the counter, e.g. "validation.rejected".
+     * @return The counter.
+     */
+    public static Counter counter(String name) {
+        return getOrCreate(COUNTERS, "Counter", name, Counter::new);
+    }
+
+    /**
+     * Registers the statistics of a cache, replacing the cache previously registered with the same name.
+     *
+     * @param name       The name of the cache.
+     * @param statistics Reads the current statistics of the cache.
+     */
+    public static void registerCache(String name, Supplier<CacheStatistics> statistics) {
+        CacheMetrics cache = new CacheMetrics(name, statistics);
+        CacheMetrics previous = CACHES.put(name, cache);
+        if (previous != null) {
+            unregister("Cache", name);
+        }
+        register("Cache", name, cache);
+    }
+
+    /**
+     * Resets all the timers and counters.
+     */
+    public static void reset() {
+        TIMERS.values().forEach(Timer::reset);
+        COUNTERS.values().forEach(Counter::reset);
+    }
+
+    /**
+     * Registers the control of the metrics and every metric, including the ones created later,
+     * with the platform MBean server. Calling it again has no effect.
+     */
+    public static synchronized void registerMBeans() {
+        if (mBeanServer != null) {
+            return;
+        }
+        mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        register("Metrics", "control", new Control());
+        TIMERS.forEach((name, timer) -> register("Timer", name, timer));
+        COUNTERS.forEach((name, counter) -> register("Counter", name, counter));
+        CACHES.forEach((name, cache) -> register("Cache", name, cache));
+    }
+
+    /**
+     * Returns the recorded values of all the metrics as a text table, durations in microseconds.
+     * Timers and counters that have not recorded anything are left out.
+     *
+     * @return The text of the metrics.
+     */
+    public static String dump() {
+        StringBuilder text = new StringBuilder();
+        if (!enabled) {
+            text.append("Metrics are disabled.\n");
+        }
+        text.append(String.format("%-48s %10s %12s %10s %10s %10s %10s %10s%n",
+                "Timer", "count", "total ms", "mean us", "p50 us", "p90 us", "p99 us", "max us"));
+        TIMERS.forEach((name, timer) -> {
+            if (timer.getCount() > 0) {
+                text.append(String.format("%-48s %10d %12.1f %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                        name, timer.getCount(), timer.getTotalMillis(), timer.getMeanMicros(),
+                        timer.getP50Micros(), timer.getP90Micros(), timer.getP99Micros(), timer.getMaxMicros()));
+            }
+        });
+        text.append(String.format("%n%-48s %10s%n", "Counter", "count"));
+        COUNTERS.forEach((name, counter) -> {
+            if (counter.getCount() > 0) {
+                text.append(String.format("%-48s %10d%n", name, counter.getCount()));
+            }
+        });
+        text.append(String.format("%n%-48s %10s %10s %10s %10s %10s%n",
+                "Cache", "hits", "misses", "hit rate", "evictions", "size"));
+        CACHES.forEach((name, cache) -> {
+            CacheStatistics statistics = cache.statistics();
+            text.append(String.format("%-48s %10d %10d %9.1f%% %10d %10d%n", name, statistics.hits(),
+                    statistics.misses(), statistics.hitRate() * 100, statistics.evictions(), statistics.size()));
+        });
+        return text.toString();
+    }
+
+    private static <T> T getOrCreate(Map<String, T> metrics, String type, String name, Function<String, T> factory) {
+        T metric = metrics.get(name);
+        if (metric == null) {
+            T created = factory.apply(name);
+            metric = metrics.putIfAbsent(name, created);
+            if (metric == null) {
+                metric = register(type, name, created);
+            }
+        }
+        return metric;
+    }
+
+    private static <T> T register(String type, String name, T bean) {
+        MBeanServer server = mBeanServer;
+        if (server != null) {
+            try {
+                server.registerMBean(bean, objectName(type, name));
+            } catch (InstanceAlreadyExistsException e) {
+                // registered by registerMBeans() concurrently
+            } catch (JMException e) {
+                throw new IllegalStateException("Cannot register the " + type + " " + name + " with JMX", e);
+            }
+        }
+        return bean;
+    }
+
+    private static void unregister(String type, String name) {
+        MBeanServer server = mBeanServer;
+        if (server != null) {
+            try {
+                server.unregisterMBean(objectName(type, name));
+            } catch (InstanceNotFoundException e) {
+                // not registered yet
+            } catch (JMException e) {
+                throw new IllegalStateException("Cannot unregister the " + type + " " + name + " from JMX", e);
+            }
+        }
+    }
+
+    private static ObjectName objectName(String type, String name) throws JMException {
+        return new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+    }
+
+    /**
+     * The MBean controlling the metrics.
+     */
+    private static class Control implements MetricsMXBean {
+
+        @Override
+        public boolean isEnabled() {
+            return Metrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled) {
+            Metrics.setEnabled(enabled);
+        }
+
+        @Override
+        public void reset() {
+            Metrics.reset();
+        }
+
+        @Override
+        public String dump() {
+            return Metrics.dump();
+        }
+    }
+
+}
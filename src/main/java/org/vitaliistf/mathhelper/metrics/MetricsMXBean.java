@@ -0,0 +1,16 @@
+package org.vitaliistf.mathhelper.metrics;
+
+/**
+ * The JMX control of the metrics: switching them on and off, resetting them and dumping them as text.
+ */
+public interface MetricsMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    void reset();
+
+    String dump();
+
+}
@@ -0,0 +1,28 @@
+package org.vitaliistf.mathhelper.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A Flight Recorder event for compiling an equation, recorded when it takes longer than the threshold.
+ */
+@Name("org.vitaliistf.mathhelper.Parse")
+@Label("Equation Parse")
+@Description("Validating and parsing an equation into expression trees")
+@Category({"MathHelper", "Evaluation"})
+@Threshold("100 us")
+@StackTrace(false)
+public class ParseEvent extends Event {
+
+    @Label("Expression Length")
+    public int expressionLength;
+
+    @Label("Successful")
+    public boolean successful;
+
+}
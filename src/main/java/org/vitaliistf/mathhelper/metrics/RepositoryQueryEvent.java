@@ -0,0 +1,72 @@
+package org.vitaliistf.mathhelper.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+import java.util.Collection;
+
+/**
+ * A Flight Recorder event for a method of the equation repository, recorded when it takes longer
+ * than the threshold. The stack trace shows the caller of the slow query.
+ * Used as:
+ * <pre>{@code
+ * RepositoryQueryEvent event = RepositoryQueryEvent.start("findAll");
+ * try {
+ *     return event.rows(query.list());
+ * } finally {
+ *     event.commit();
+ * }
+ * }</pre>
+ */
+@Name("org.vitaliistf.mathhelper.RepositoryQuery")
+@Label("Repository Query")
+@Description("A read or a write of equations in the database")
+@Category({"MathHelper", "Repository"})
+@Threshold("10 ms")
+public class RepositoryQueryEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Rows")
+    @Description("The number of equations read or written")
+    public int rows;
+
+    @Label("Roots")
+    @Description("The number of roots searched for or written")
+    public int roots;
+
+    @Label("Expression Length")
+    @Description("The length of the searched expression, if any")
+    public int expressionLength;
+
+    /**
+     * Creates an event for the operation and starts timing it.
+     *
+     * @param operation The name of the repository method.
+     * @return The started event.
+     */
+    public static RepositoryQueryEvent start(String operation) {
+        RepositoryQueryEvent event = new RepositoryQueryEvent();
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Records the number of rows of a query result.
+     *
+     * @param result The equations read.
+     * @param <T>    The type of the result.
+     * @return The result.
+     */
+    public <T extends Collection<?>> T rows(T result) {
+        rows = result.size();
+        return result;
+    }
+
+}
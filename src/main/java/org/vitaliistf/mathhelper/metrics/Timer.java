@@ -0,0 +1,127 @@
+package org.vitaliistf.mathhelper.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures the duration of an operation, keeping the number of calls, their total time
+ * and a {@link LatencyHistogram} of their durations in nanoseconds.
+ * Timed code follows the pattern:
+ * <pre>{@code
+ * long start = TIMER.start();
+ * try {
+ *     ...
+ * } finally {
+ *     TIMER.stop(start);
+ * }
+ * }</pre>
+ * While the metrics are disabled, {@link #start()} does not read the clock and {@link #stop(long)} records nothing.
+ */
+public class Timer implements TimerMXBean {
+
+    /**
+     * Returned by {@link #start()} while the metrics are disabled.
+     */
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+
+    private final String name;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    Timer(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the name of the timer.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Starts measuring an operation.
+     *
+     * @return The value to pass to {@link #stop(long)} when the operation ends.
+     */
+    public long start() {
+        return Metrics.isEnabled() ? System.nanoTime() : NOT_STARTED;
+    }
+
+    /**
+     * Records the duration of an operation.
+     *
+     * @param start The value returned by {@link #start()} when the operation started.
+     */
+    public void stop(long start) {
+        if (start != NOT_STARTED) {
+            record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records the duration of an operation measured by the caller.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        histogram.record(nanos);
+    }
+
+    /**
+     * Returns the duration at the given percentile.
+     *
+     * @param percentile The percentage between 0 and 100.
+     * @return The duration in nanoseconds.
+     */
+    public long percentileNanos(double percentile) {
+        return histogram.percentile(percentile);
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public double getTotalMillis() {
+        return totalNanos.sum() / 1e6;
+    }
+
+    @Override
+    public double getMeanMicros() {
+        long calls = count.sum();
+        return calls == 0 ? 0 : totalNanos.sum() / 1e3 / calls;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return histogram.percentile(50) / 1e3;
+    }
+
+    @Override
+    public double getP90Micros() {
+        return histogram.percentile(90) / 1e3;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return histogram.percentile(99) / 1e3;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return histogram.max() / 1e3;
+    }
+
+    void reset() {
+        count.reset();
+        totalNanos.reset();
+        histogram.reset();
+    }
+
+}
@@ -0,0 +1,22 @@
+package org.vitaliistf.mathhelper.metrics;
+
+/**
+ * The JMX view of a {@link Timer}, with durations in microseconds.
+ */
+public interface TimerMXBean {
+
+    long getCount();
+
+    double getTotalMillis();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP90Micros();
+
+    double getP99Micros();
+
+    double getMaxMicros();
+
+}
@@ -0,0 +1,28 @@
+package org.vitaliistf.mathhelper.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A Flight Recorder event for validating an equation, recorded when it takes longer than the threshold.
+ */
+@Name("org.vitaliistf.mathhelper.Validate")
+@Label("Equation Validation")
+@Description("Checking the characters of an equation")
+@Category({"MathHelper", "Validation"})
+@Threshold("50 us")
+@StackTrace(false)
+public class ValidateEvent extends Event {
+
+    @Label("Expression Length")
+    public int expressionLength;
+
+    @Label("Valid")
+    public boolean valid;
+
+}
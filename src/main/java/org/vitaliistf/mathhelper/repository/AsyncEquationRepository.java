@@ -0,0 +1,250 @@
+package org.vitaliistf.mathhelper.repository;
+
+import org.hibernate.SessionFactory;
+import org.vitaliistf.mathhelper.concurrent.VirtualThreads;
+import org.vitaliistf.mathhelper.entity.Equation;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous facade of an {@link EquationRepository}, running every call on an executor and returning
+ * a CompletableFuture of its result.
+ * On Java 21 and later, every call runs on its own virtual thread, so thousands of calls can be waiting
+ * without holding a platform thread each; on older versions the calls run on a fixed pool of platform threads.
+ * The number of calls running at once is limited to the size of the connection pool, so that the waiting
+ * calls queue on a semaphore instead of on the pool.
+ */
+public class AsyncEquationRepository implements AutoCloseable {
+
+    private final EquationRepository repository;
+    private final Semaphore permits;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+
+    /**
+     * Constructs an AsyncEquationRepository running at most as many calls at once as the SessionFactory
+     * has pooled connections.
+     *
+     * @param repository     The repository to call.
+     * @param sessionFactory The SessionFactory used by the repository.
+     */
+    public AsyncEquationRepository(EquationRepository repository, SessionFactory sessionFactory) {
+        this(repository, DatabaseConfiguration.maximumPoolSize(sessionFactory));
+    }
+
+    /**
+     * Constructs an AsyncEquationRepository running at most the specified number of calls at once.
+     *
+     * @param repository     The repository to call.
+     * @param maxConcurrency The maximum number of calls running at once.
+     * @throws IllegalArgumentException If the maximum number of calls is not positive.
+     */
+    public AsyncEquationRepository(EquationRepository repository, int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Maximum concurrency must be positive: " + maxConcurrency);
+        }
+        this.repository = repository;
+        this.permits = new Semaphore(maxConcurrency, true);
+        Optional<ExecutorService> virtualThreadExecutor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+        this.virtualThreads = virtualThreadExecutor.isPresent();
+        this.executor = virtualThreadExecutor.orElseGet(
+                () -> Executors.newFixedThreadPool(maxConcurrency, new RepositoryThreadFactory()));
+    }
+
+    /**
+     * Checks whether the calls run on virtual threads.
+     *
+     * @return True on Java 21 and later, false otherwise.
+     */
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Finds an equation by its unique identifier, see {@link EquationRepository#findEquationById(Long)}.
+     *
+     * @param equationId The identifier of the equation to find.
+     * @return A future of the Equation entity, or of null if not found.
+     */
+    public CompletableFuture<Equation> findEquationById(Long equationId) {
+        return submit(() -> repository.findEquationById(equationId));
+    }
+
+    /**
+     * Finds an equation by its mathematical expression, see {@link EquationRepository#findEquationByExpression}.
+     *
+     * @param expression The mathematical expression of the equation to find.
+     * @return A future of the Equation entity, or of null if not found.
+     */
+    public CompletableFuture<Equation> findEquationByExpression(String expression) {
+        return submit(() -> repository.findEquationByExpression(expression));
+    }
+
+    /**
+     * Retrieves all equations, see {@link EquationRepository#findAll()}.
+     *
+     * @return A future of the list of all Equation entities.
+     */
+    public CompletableFuture<List<Equation>> findAll() {
+        return submit(repository::findAll);
+    }
+
+    /**
+     * Finds equations having a stored root within the tolerance of every given root,
+     * see {@link EquationRepository#findEquationsByRoots(List, double)}.
+     *
+     * @param roots     List of root values.
+     * @param tolerance The exclusive maximum absolute difference between a given and a stored root.
+     * @return A future of the list of matching Equation entities.
+     */
+    public CompletableFuture<List<Equation>> findEquationsByRoots(List<Double> roots, double tolerance) {
+        return submit(() -> repository.findEquationsByRoots(roots, tolerance));
+    }
+
+    /**
+     * Finds the summaries of equations having a stored root within the tolerance of every given root,
+     * see {@link EquationRepository#findEquationSummariesByRoots(List, double)}.
+     *
+     * @param roots     List of root values.
+     * @param tolerance The exclusive maximum absolute difference between a given and a stored root.
+     * @return A future of the list of summaries of matching equations.
+     */
+    public CompletableFuture<List<EquationSummary>> findEquationSummariesByRoots(List<Double> roots,
+                                                                                double tolerance) {
+        return submit(() -> repository.findEquationSummariesByRoots(roots, tolerance));
+    }
+
+    /**
+     * Finds equations with a single root, see {@link EquationRepository#findEquationsWithSingleRoot()}.
+     *
+     * @return A future of the list of Equation entities with a single root.
+     */
+    public CompletableFuture<List<Equation>> findEquationsWithSingleRoot() {
+        return submit(repository::findEquationsWithSingleRoot);
+    }
+
+    /**
+     * Finds equations with the specified number of roots, see {@link EquationRepository#findEquationsWithRootCount(int)}.
+     *
+     * @param rootCount The number of roots.
+     * @return A future of the list of Equation entities with that number of roots.
+     */
+    public CompletableFuture<List<Equation>> findEquationsWithRootCount(int rootCount) {
+        return submit(() -> repository.findEquationsWithRootCount(rootCount));
+    }
+
+    /**
+     * Saves an equation, see {@link EquationRepository#save(Equation)}.
+     *
+     * @param equation The Equation entity to be saved.
+     * @return A future completed when the equation is saved.
+     */
+    public CompletableFuture<Void> save(Equation equation) {
+        return submit(() -> {
+            repository.save(equation);
+            return null;
+        });
+    }
+
+    /**
+     * Saves many equations at once, see {@link EquationRepository#saveAll(Iterable)}.
+     *
+     * @param equations The Equation entities to be saved.
+     * @return A future of the report of the saved equations and roots.
+     */
+    public CompletableFuture<BulkSaveReport> saveAll(Iterable<Equation> equations) {
+        return submit(() -> repository.saveAll(equations));
+    }
+
+    /**
+     * Deletes an equation by its unique identifier, see {@link EquationRepository#deleteEquationById(Long)}.
+     *
+     * @param equationId The identifier of the equation to delete.
+     * @return A future completed when the equation is deleted.
+     */
+    public CompletableFuture<Void> deleteEquationById(Long equationId) {
+        return submit(() -> {
+            repository.deleteEquationById(equationId);
+            return null;
+        });
+    }
+
+    /**
+     * Deletes equations by their identifiers, see {@link EquationRepository#deleteByIds(Collection)}.
+     *
+     * @param equationIds The identifiers of the equations to delete.
+     * @return A future completed with the number of deleted equations and roots.
+     */
+    public CompletableFuture<BulkDeleteReport> deleteByIds(Collection<Long> equationIds) {
+        return submit(() -> repository.deleteByIds(equationIds));
+    }
+
+    /**
+     * Deletes equations by their expressions, see {@link EquationRepository#deleteByExpressions(Collection)}.
+     *
+     * @param expressions The expressions of the equations to delete.
+     * @return A future completed with the number of deleted equations and roots.
+     */
+    public CompletableFuture<BulkDeleteReport> deleteByExpressions(Collection<String> expressions) {
+        return submit(() -> repository.deleteByExpressions(expressions));
+    }
+
+    /**
+     * Stops accepting calls and waits for the submitted ones to finish.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                // keep waiting for the submitted calls, as ExecutorService.close does
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                return call.get();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    /**
+     * Creates the daemon platform threads used when virtual threads are not available.
+     */
+    private static class RepositoryThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "equation-repository-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+}
@@ -0,0 +1,26 @@
+package org.vitaliistf.mathhelper.repository;
+
+/**
+ * The outcome of deleting many equations at once.
+ *
+ * @param equations The number of deleted equations.
+ * @param roots     The number of deleted roots.
+ */
+public record BulkDeleteReport(int equations, int roots) {
+
+    /**
+     * An empty report, for deletes matching no equations.
+     */
+    public static final BulkDeleteReport NONE = new BulkDeleteReport(0, 0);
+
+    /**
+     * Adds the counts of another delete to these ones.
+     *
+     * @param other The report of the other delete.
+     * @return The report with the counts added together.
+     */
+    public BulkDeleteReport plus(BulkDeleteReport other) {
+        return new BulkDeleteReport(equations + other.equations, roots + other.roots);
+    }
+
+}
@@ -0,0 +1,33 @@
+package org.vitaliistf.mathhelper.repository;
+
+import java.time.Duration;
+
+/**
+ * The outcome of saving many equations at once.
+ *
+ * @param equations The number of saved equations.
+ * @param roots     The number of saved roots.
+ * @param elapsed   The time spent saving.
+ */
+public record BulkSaveReport(int equations, long roots, Duration elapsed) {
+
+    /**
+     * Returns the number of inserted rows, equations and roots together.
+     *
+     * @return The number of rows.
+     */
+    public long rows() {
+        return equations + roots;
+    }
+
+    /**
+     * Returns the number of inserted rows per second.
+     *
+     * @return The throughput, or 0 if nothing was saved.
+     */
+    public double rowsPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : rows() * 1e9 / nanos;
+    }
+
+}
@@ -0,0 +1,229 @@
+package org.vitaliistf.mathhelper.repository;
+
+import org.hibernate.SessionFactory;
+import org.vitaliistf.mathhelper.cache.CacheStatistics;
+import org.vitaliistf.mathhelper.cache.LruCache;
+import org.vitaliistf.mathhelper.entity.Equation;
+import org.vitaliistf.mathhelper.metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Repository serving the reads of equations from memory once they have been loaded from the database.
+ * Equations found by identifier, by expression, and the results of {@link #findAll()} and
+ * {@link #findEquationsWithSingleRoot()} are cached; every save or delete invalidates all the cached values,
+ * since equations are rarely changed once saved.
+ * The cached equations are shared between callers and must not be modified.
+ */
+public class CachingEquationRepository extends EquationRepository {
+
+    /**
+     * The default maximum number of equations cached by identifier and by expression,
+     * configurable with the "mathhelper.repositoryCacheSize" system property.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = Integer.getInteger("mathhelper.repositoryCacheSize", 4096);
+
+    private static final String ALL_EQUATIONS = "findAll";
+    private static final String SINGLE_ROOT_EQUATIONS = "findEquationsWithSingleRoot";
+
+    private final LruCache<Long, Equation> equationsById;
+    private final LruCache<String, Equation> equationsByExpression;
+    private final LruCache<String, List<Equation>> queryResults = new LruCache<>(2);
+
+    /**
+     * Incremented on every write, so that values loaded before a write are not left in the caches.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Constructs a CachingEquationRepository with the specified SessionFactory and the default cache size.
+     *
+     * @param sessionFactory The Hibernate SessionFactory.
+     */
+    public CachingEquationRepository(SessionFactory sessionFactory) {
+        this(sessionFactory, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Constructs a CachingEquationRepository with the specified SessionFactory and cache size.
+     * Its caches are registered with {@link Metrics}, replacing the ones of a previously constructed repository.
+     *
+     * @param sessionFactory The Hibernate SessionFactory.
+     * @param maximumSize    The maximum number of equations cached by identifier and by expression.
+     */
+    public CachingEquationRepository(SessionFactory sessionFactory, int maximumSize) {
+        super(sessionFactory);
+        this.equationsById = new LruCache<>(maximumSize);
+        this.equationsByExpression = new LruCache<>(maximumSize);
+        Metrics.registerCache("repository.equationsById", equationsById::statistics);
+        Metrics.registerCache("repository.equationsByExpression", equationsByExpression::statistics);
+        Metrics.registerCache("repository.queryResults", queryResults::statistics);
+    }
+
+    @Override
+    public Equation findEquationById(Long equationId) {
+        return read(equationsById, equationId, super::findEquationById);
+    }
+
+    /**
+     * Finds equations by their unique identifiers, loading only the ones not cached yet.
+     *
+     * @param equationIds The identifiers of the equations to find.
+     * @return List of the found Equation entities ordered by identifier.
+     */
+    @Override
+    public List<Equation> findEquationsByIds(Collection<Long> equationIds) {
+        List<Equation> equations = new ArrayList<>(equationIds.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long equationId : equationIds) {
+            Equation equation = equationsById.getIfPresent(equationId);
+            if (equation != null) {
+                equations.add(equation);
+            } else {
+                missingIds.add(equationId);
+            }
+        }
+        if (!missingIds.isEmpty()) {
+            long loadedGeneration = generation.get();
+            List<Equation> loaded = super.findEquationsByIds(missingIds);
+            loaded.forEach(equation -> cache(equationsById, equation.getId(), equation, loadedGeneration));
+            equations.addAll(loaded);
+            equations.sort(Comparator.comparing(Equation::getId));
+        }
+        return equations;
+    }
+
+    @Override
+    public Equation findEquationByExpression(String expression) {
+        return read(equationsByExpression, expression, super::findEquationByExpression);
+    }
+
+    @Override
+    public List<Equation> findAll() {
+        return read(queryResults, ALL_EQUATIONS, key -> List.copyOf(super.findAll()));
+    }
+
+    @Override
+    public List<Equation> findEquationsWithSingleRoot() {
+        return read(queryResults, SINGLE_ROOT_EQUATIONS, key -> List.copyOf(super.findEquationsWithSingleRoot()));
+    }
+
+    /**
+     * Streams all equations from the cached result of {@link #findAll()} if there is one,
+     * or from the database otherwise, without caching them.
+     *
+     * @return Stream of all Equation entities, which must be closed.
+     */
+    @Override
+    public Stream<Equation> streamAll() {
+        List<Equation> cached = queryResults.getIfPresent(ALL_EQUATIONS);
+        return cached != null ? cached.stream() : super.streamAll();
+    }
+
+    /**
+     * Streams equations with a single root from the cached result of {@link #findEquationsWithSingleRoot()}
+     * if there is one, or from the database otherwise, without caching them.
+     *
+     * @return Stream of Equation entities with a single root, which must be closed.
+     */
+    @Override
+    public Stream<Equation> streamEquationsWithSingleRoot() {
+        List<Equation> cached = queryResults.getIfPresent(SINGLE_ROOT_EQUATIONS);
+        return cached != null ? cached.stream() : super.streamEquationsWithSingleRoot();
+    }
+
+    @Override
+    public void save(Equation equation) {
+        super.save(equation);
+        invalidateAll();
+    }
+
+    @Override
+    public BulkSaveReport saveAll(Iterable<Equation> equations, int batchSize) {
+        BulkSaveReport report = super.saveAll(equations, batchSize);
+        invalidateAll();
+        return report;
+    }
+
+    @Override
+    public BulkDeleteReport deleteByIds(Collection<Long> equationIds) {
+        BulkDeleteReport report = super.deleteByIds(equationIds);
+        invalidateAll();
+        return report;
+    }
+
+    @Override
+    public BulkDeleteReport deleteByExpressions(Collection<String> expressions) {
+        BulkDeleteReport report = super.deleteByExpressions(expressions);
+        invalidateAll();
+        return report;
+    }
+
+    @Override
+    public int recountRoots() {
+        int updated = super.recountRoots();
+        invalidateAll();
+        return updated;
+    }
+
+    @Override
+    public int packRoots() {
+        int updated = super.packRoots();
+        invalidateAll();
+        return updated;
+    }
+
+    /**
+     * Removes all the cached equations and query results.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        equationsById.invalidateAll();
+        equationsByExpression.invalidateAll();
+        queryResults.invalidateAll();
+    }
+
+    /**
+     * Returns the counters of all the caches of the repository added together.
+     *
+     * @return The statistics of the caches.
+     */
+    public CacheStatistics statistics() {
+        return equationsById.statistics()
+                .plus(equationsByExpression.statistics())
+                .plus(queryResults.statistics());
+    }
+
+    /**
+     * Returns the cached value for the key, loading and caching it on a miss.
+     */
+    private <K, V> V read(LruCache<K, V> cache, K key, Function<K, V> loader) {
+        V value = cache.getIfPresent(key);
+        if (value == null) {
+            long loadedGeneration = generation.get();
+            value = loader.apply(key);
+            if (value != null) {
+                cache(cache, key, value, loadedGeneration);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Caches the value, unless a write happened since it was loaded and the value may be outdated.
+     */
+    private <K, V> void cache(LruCache<K, V> cache, K key, V value, long loadedGeneration) {
+        cache.put(key, value);
+        // checked after putting, so a write racing with the put cannot leave the value behind
+        if (generation.get() != loadedGeneration) {
+            cache.invalidate(key);
+        }
+    }
+
+}
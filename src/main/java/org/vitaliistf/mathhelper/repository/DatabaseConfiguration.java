@@ -0,0 +1,94 @@
+package org.vitaliistf.mathhelper.repository;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.sequence.SequenceSupport;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.vitaliistf.mathhelper.entity.Equation;
+import org.vitaliistf.mathhelper.entity.Root;
+
+/**
+ * Utility class for building the Hibernate SessionFactory of the application.
+ * Connection settings and the connection pool are configured in hibernate.properties; connections are pooled
+ * by HikariCP when "hibernate.connection.provider_class" names its Hibernate connection provider.
+ */
+public class DatabaseConfiguration {
+
+    /**
+     * The property holding the maximum number of pooled connections.
+     */
+    public static final String MAXIMUM_POOL_SIZE = "hibernate.hikari.maximumPoolSize";
+
+    /**
+     * The maximum number of connections assumed when the pool size is not configured, matching HikariCP.
+     */
+    public static final int DEFAULT_MAXIMUM_POOL_SIZE = 10;
+
+    /**
+     * Builds a SessionFactory mapping all the entities of the application, and seeds the identifier sequences
+     * with {@link #seedSequences(SessionFactory)}.
+     * A SessionFactory is thread-safe and expensive to build, so one should be shared by all the repositories.
+     *
+     * @return The SessionFactory.
+     */
+    public static SessionFactory buildSessionFactory() {
+        SessionFactory sessionFactory = new Configuration()
+                .addAnnotatedClass(Equation.class)
+                .addAnnotatedClass(Root.class)
+                .buildSessionFactory();
+        seedSequences(sessionFactory);
+        return sessionFactory;
+    }
+
+    /**
+     * Moves the sequences generating the equation and root identifiers past the identifiers already stored.
+     * Databases created before the identifiers were generated from sequences have rows, while the sequences
+     * created for them by "hbm2ddl.auto=update" start at 1, so the first inserts would collide with them.
+     * On databases without sequences, such as MySQL, the sequences are tables holding their next value.
+     * Sequences already past the stored identifiers are left alone, so this can run on every start.
+     *
+     * @param sessionFactory The SessionFactory mapping the entities.
+     */
+    public static void seedSequences(SessionFactory sessionFactory) {
+        Dialect dialect = ((SessionFactoryImplementor) sessionFactory).getJdbcServices().getDialect();
+        sessionFactory.inTransaction(session -> {
+            seedSequence(session, dialect.getSequenceSupport(), "equation_sequence", "Equation");
+            seedSequence(session, dialect.getSequenceSupport(), "root_sequence", "Root");
+        });
+    }
+
+    private static void seedSequence(Session session, SequenceSupport sequences, String sequence, String entity) {
+        Long maxId = session.createQuery("SELECT MAX(e.id) FROM " + entity + " e", Long.class).uniqueResult();
+        if (maxId == null) {
+            return;
+        }
+        // a pooled sequence value is the last identifier of a block of ID_ALLOCATION_SIZE identifiers
+        long next = maxId + Equation.ID_ALLOCATION_SIZE + 1;
+        if (sequences.supportsSequences()) {
+            Long current = session.createNativeQuery(sequences.getSequenceNextValString(sequence), Long.class)
+                    .getSingleResult();
+            if (current < next) {
+                session.createNativeMutationQuery("ALTER SEQUENCE " + sequence + " RESTART WITH " + next)
+                        .executeUpdate();
+            }
+        } else {
+            session.createNativeMutationQuery("UPDATE " + sequence + " SET next_val = :next WHERE next_val < :next")
+                    .setParameter("next", next)
+                    .executeUpdate();
+        }
+    }
+
+    /**
+     * Returns the maximum number of connections that the SessionFactory can use at the same time.
+     *
+     * @param sessionFactory The SessionFactory.
+     * @return The configured maximum pool size, or the HikariCP default if it is not configured.
+     */
+    public static int maximumPoolSize(SessionFactory sessionFactory) {
+        Object value = sessionFactory.getProperties().get(MAXIMUM_POOL_SIZE);
+        return value != null ? Integer.parseInt(value.toString().trim()) : DEFAULT_MAXIMUM_POOL_SIZE;
+    }
+
+}
@@ -0,0 +1,35 @@
+package org.vitaliistf.mathhelper.repository;
+
+/**
+ * Thrown when an equation cannot be saved because the same expression, ignoring spaces, is already saved.
+ */
+public class DuplicateEquationException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String expression;
+
+    /**
+     * Constructs a DuplicateEquationException for the specified expression.
+     *
+     * @param expression The expression that is already saved, or null if it is not known.
+     * @param cause      The violation of the unique index reported by the database,
+     *                   or null if the expression was found saved before inserting it.
+     */
+    public DuplicateEquationException(String expression, Throwable cause) {
+        super(expression != null
+                ? "Equation " + expression + " is already saved"
+                : "One of the equations is already saved", cause);
+        this.expression = expression;
+    }
+
+    /**
+     * Returns the expression that is already saved.
+     *
+     * @return The expression, or null if it is not known.
+     */
+    public String getExpression() {
+        return expression;
+    }
+
+}
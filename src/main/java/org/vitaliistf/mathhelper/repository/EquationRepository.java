@@ -3,17 +3,80 @@ package org.vitaliistf.mathhelper.repository;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
+import org.hibernate.exception.ConstraintViolationException;
 import org.hibernate.query.Query;
 import org.vitaliistf.mathhelper.entity.Equation;
+import org.vitaliistf.mathhelper.entity.ExpressionHash;
+import org.vitaliistf.mathhelper.entity.PackedRoots;
+import org.vitaliistf.mathhelper.metrics.Metrics;
+import org.vitaliistf.mathhelper.metrics.RepositoryQueryEvent;
+import org.vitaliistf.mathhelper.metrics.Timer;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Repository class for performing database operations related to Equation entities.
  */
 public class EquationRepository {
 
+    /**
+     * The default number of equations persisted between two flushes of the session in {@link #saveAll(Iterable)}.
+     */
+    public static final int DEFAULT_BATCH_SIZE = Equation.ID_ALLOCATION_SIZE;
+
+    /**
+     * The default number of rows fetched from the database at once when streaming equations,
+     * configurable with the "mathhelper.fetchSize" system property.
+     * With MySQL, the rows are only fetched in chunks if "useCursorFetch=true" is set in the connection URL.
+     */
+    public static final int DEFAULT_FETCH_SIZE = Integer.getInteger("mathhelper.fetchSize", 100);
+
+    /**
+     * The maximum number of identifiers or expressions bound to a single bulk delete statement,
+     * well below the limit of 65535 parameters of a MySQL prepared statement.
+     */
+    public static final int DELETE_CHUNK_SIZE = 10_000;
+
+    private static final Timer FIND_BY_ID = Metrics.timer("repository.findEquationById");
+    private static final Timer FIND_BY_IDS = Metrics.timer("repository.findEquationsByIds");
+    private static final Timer FIND_BY_EXPRESSION = Metrics.timer("repository.findEquationByExpression");
+    private static final Timer FIND_BY_CANONICAL_FORM = Metrics.timer("repository.findEquationsByCanonicalForm");
+    private static final Timer FIND_IDS_BY_CANONICAL_FORMS =
+            Metrics.timer("repository.findEquationIdsByCanonicalForms");
+    private static final Timer FIND_IDS_BY_EXPRESSIONS = Metrics.timer("repository.findEquationIdsByExpressions");
+    private static final Timer FIND_ALL = Metrics.timer("repository.findAll");
+    private static final Timer FIND_ALL_SUMMARIES = Metrics.timer("repository.findAllSummaries");
+    private static final Timer FIND_ALL_PACKED = Metrics.timer("repository.findAllPacked");
+    private static final Timer FIND_ALL_AFTER = Metrics.timer("repository.findAllAfter");
+    private static final Timer FIND_SUMMARIES_AFTER = Metrics.timer("repository.findSummariesAfter");
+    private static final Timer STREAM = Metrics.timer("repository.stream");
+    private static final Timer SAVE = Metrics.timer("repository.save");
+    private static final Timer SAVE_ALL = Metrics.timer("repository.saveAll");
+    private static final Timer FIND_BY_ROOTS = Metrics.timer("repository.findEquationsByRoots");
+    private static final Timer FIND_BY_ROOTS_WITHIN_TOLERANCE =
+            Metrics.timer("repository.findEquationsByRootsWithinTolerance");
+    private static final Timer FIND_SUMMARIES_BY_ROOTS = Metrics.timer("repository.findEquationSummariesByRoots");
+    private static final Timer FIND_PACKED_BY_ROOTS = Metrics.timer("repository.findPackedEquationsByRoots");
+    private static final Timer FIND_WITH_ROOT_COUNT = Metrics.timer("repository.findEquationsWithRootCount");
+    private static final Timer RECOUNT_ROOTS = Metrics.timer("repository.recountRoots");
+    private static final Timer HASH_EXPRESSIONS = Metrics.timer("repository.hashExpressions");
+    private static final Timer PACK_ROOTS = Metrics.timer("repository.packRoots");
+    private static final Timer DELETE_BY_IDS = Metrics.timer("repository.deleteByIds");
+    private static final Timer DELETE_BY_EXPRESSIONS = Metrics.timer("repository.deleteByExpressions");
+
     private final SessionFactory sessionFactory;
+    private final RootIndex rootIndex;
+    private final int fetchSize;
 
     /**
      * Constructs an EquationRepository with the specified SessionFactory.
@@ -21,7 +84,19 @@ public class EquationRepository {
      * @param sessionFactory The Hibernate SessionFactory.
      */
     public EquationRepository(SessionFactory sessionFactory) {
+        this(sessionFactory, DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Constructs an EquationRepository with the specified SessionFactory and streaming fetch size.
+     *
+     * @param sessionFactory The Hibernate SessionFactory.
+     * @param fetchSize      The number of rows fetched from the database at once when streaming equations.
+     */
+    public EquationRepository(SessionFactory sessionFactory, int fetchSize) {
         this.sessionFactory = sessionFactory;
+        this.rootIndex = new RootIndex(sessionFactory);
+        this.fetchSize = fetchSize;
     }
 
     /**
@@ -31,24 +106,130 @@ public class EquationRepository {
      * @return The Equation entity if found, or null if not found.
      */
     public Equation findEquationById(Long equationId) {
-        try (Session session = sessionFactory.openSession()) {
-            return session.get(Equation.class, equationId);
+        return timed(FIND_BY_ID, "findEquationById", event -> {
+            try (Session session = sessionFactory.openSession()) {
+                Equation equation = session.get(Equation.class, equationId);
+                event.rows = equation != null ? 1 : 0;
+                return equation;
+            }
+        });
+    }
+
+    /**
+     * Finds equations by their unique identifiers.
+     *
+     * @param equationIds The identifiers of the equations to find.
+     * @return List of the found Equation entities ordered by identifier.
+     */
+    public List<Equation> findEquationsByIds(Collection<Long> equationIds) {
+        if (equationIds.isEmpty()) {
+            return List.of();
         }
+        return timed(FIND_BY_IDS, "findEquationsByIds", event -> {
+            try (Session session = sessionFactory.openSession()) {
+                String hql = "SELECT e FROM Equation e LEFT JOIN FETCH e.roots WHERE e.id IN :ids ORDER BY e.id";
+                Query<Equation> query = session.createQuery(hql, Equation.class);
+                query.setParameterList("ids", equationIds);
+                return event.rows(query.list());
+            }
+        });
     }
 
     /**
      * Finds an equation by its mathematical expression.
+     * The equation is looked up through the index on the {@link ExpressionHash} of its expression,
+     * then the expression itself is compared.
      *
      * @param expression The mathematical expression of the equation to find.
      * @return The Equation entity if found, or null if not found.
      */
     public Equation findEquationByExpression(String expression) {
-        try (Session session = sessionFactory.openSession()) {
-            String hql = "FROM Equation e WHERE e.expression = :expression";
-            Query<Equation> query = session.createQuery(hql, Equation.class);
-            query.setParameter("expression", expression);
-            return query.uniqueResult();
+        return timed(FIND_BY_EXPRESSION, "findEquationByExpression", event -> {
+            event.expressionLength = expression.length();
+            try (Session session = sessionFactory.openSession()) {
+                String hql = "SELECT e FROM Equation e LEFT JOIN FETCH e.roots " +
+                        "WHERE e.expressionHash = :expressionHash AND e.expression = :expression";
+                Query<Equation> query = session.createQuery(hql, Equation.class);
+                query.setParameter("expressionHash", ExpressionHash.of(expression));
+                query.setParameter("expression", expression);
+                Equation equation = query.uniqueResult();
+                event.rows = equation != null ? 1 : 0;
+                return equation;
+            }
+        });
+    }
+
+    /**
+     * Finds equations by the key of their canonical form, that is, equations algebraically identical
+     * to the one with the given key.
+     *
+     * @param canonicalForm The canonical form key.
+     * @return List of Equation entities with the given canonical form.
+     */
+    public List<Equation> findEquationsByCanonicalForm(String canonicalForm) {
+        return timed(FIND_BY_CANONICAL_FORM, "findEquationsByCanonicalForm", event -> {
+            try (Session session = sessionFactory.openSession()) {
+                String hql = "SELECT e FROM Equation e LEFT JOIN FETCH e.roots WHERE e.canonicalForm = :canonicalForm";
+                Query<Equation> query = session.createQuery(hql, Equation.class);
+                query.setParameter("canonicalForm", canonicalForm);
+                return event.rows(query.list());
+            }
+        });
+    }
+
+    /**
+     * Finds which of the given canonical form keys already belong to saved equations.
+     *
+     * @param canonicalForms The canonical form keys.
+     * @return Map from every key that is already saved to the smallest identifier of an equation with it.
+     */
+    public Map<String, Long> findEquationIdsByCanonicalForms(Collection<String> canonicalForms) {
+        if (canonicalForms.isEmpty()) {
+            return Map.of();
         }
+        return timed(FIND_IDS_BY_CANONICAL_FORMS, "findEquationIdsByCanonicalForms", event -> {
+            try (Session session = sessionFactory.openSession()) {
+                String hql = "SELECT e.canonicalForm, MIN(e.id) FROM Equation e " +
+                        "WHERE e.canonicalForm IN :canonicalForms GROUP BY e.canonicalForm";
+                Query<Object[]> query = session.createQuery(hql, Object[].class);
+                query.setParameterList("canonicalForms", canonicalForms);
+                Map<String, Long> equationIds = new HashMap<>();
+                for (Object[] row : query.list()) {
+                    equationIds.put((String) row[0], (Long) row[1]);
+                }
+                event.rows = equationIds.size();
+                return equationIds;
+            }
+        });
+    }
+
+    /**
+     * Finds which of the given expressions are already saved, through the index on their hashes.
+     *
+     * @param expressions The expressions.
+     * @return Map from every expression that is already saved to the identifier of its equation.
+     */
+    public Map<String, Long> findEquationIdsByExpressions(Collection<String> expressions) {
+        if (expressions.isEmpty()) {
+            return Map.of();
+        }
+        return timed(FIND_IDS_BY_EXPRESSIONS, "findEquationIdsByExpressions", event -> {
+            try (Session session = sessionFactory.openSession()) {
+                Set<String> expressionSet = expressions instanceof Set<String> set ? set : new HashSet<>(expressions);
+                String hql = "SELECT e.expression, e.id FROM Equation e WHERE e.expressionHash IN :expressionHashes";
+                Query<Object[]> query = session.createQuery(hql, Object[].class);
+                query.setParameterList("expressionHashes", expressionSet.stream().map(ExpressionHash::of).toList());
+                Map<String, Long> equationIds = new HashMap<>();
+                for (Object[] row : query.list()) {
+                    // equal hashes of distinct expressions are not impossible, so the expressions are compared
+                    if (expressionSet.contains((String) row[0])) {
+                        equationIds.put((String) row[0], (Long) row[1]);
+                    }
+                }
+                event.rows = equationIds.size();
+                return equationIds;
+            }
+        });
     }
 
     /**
@@ -57,10 +238,146 @@ public class EquationRepository {
      * @return List of all Equation entities.
      */
     public List<Equation> findAll() {
-        try (Session session = sessionFactory.openSession()) {
-            String hql = "FROM Equation";
+        return timed(FIND_ALL, "findAll", event -> {
+            try (Session session = sessionFactory.openSession()) {
+                String hql = "SELECT e FROM Equation e LEFT JOIN FETCH e.roots ORDER BY e.id";
+                Query<Equation> query = session.createQuery(hql, Equation.class);
+                return event.rows(query.list());
+            }
+        });
+    }
+
+    /**
+     * Retrieves the identifiers and expressions of all equations, without their roots.
+     *
+     * @return List of the summaries of all equations ordered by identifier.
+     */
+    public List<EquationSummary> findAllSummaries() {
+        return timed(FIND_ALL_SUMMARIES, "findAllSummaries", event -> {
+            try (Session session = sessionFactory.openSession()) {
+                String hql = "SELECT new org.vitaliistf.mathhelper.repository.EquationSummary(e.id, e.expression) " +
+                        "FROM Equation e ORDER BY e.id";
+                Query<EquationSummary> query = session.createQuery(hql, EquationSummary.class);
+                return event.rows(query.list());
+            }
+        });
+    }
+
+    /**
+     * Retrieves all equations with their root values read from the packed roots column, one row per equation,
+     * without loading a Root entity for every root. Suited to read-mostly workloads over many roots.
+     *
+     * @return List of all equations with their root values ordered by identifier.
+     */
+    public List<PackedEquation> findAllPacked() {
+        return timed(FIND_ALL_PACKED, "findAllPacked", event -> {
+            try (Session session = sessionFactory.openSession()) {
+                String hql = "SELECT new org.vitaliistf.mathhelper.repository.PackedEquation(" +
+                        "e.id, e.expression, e.packedRoots) FROM Equation e ORDER BY e.id";
+                Query<PackedEquation> query = session.createQuery(hql, PackedEquation.class);
+                query.setFetchSize(fetchSize);
+                return event.rows(query.list());
+            }
+        });
+    }
+
+    /**
+     * Retrieves a page of equations ordered by identifier, starting after the specified identifier.
+     * Unlike an offset, the identifier of the last equation of a page is found through the primary key index,
+     * so every page takes the same time no matter how far it is.
+     *
+     * @param lastId The identifier of the last equation of the previous page, or null for the first page.
+     * @param limit  The maximum number of equations in the page.
+     * @return List of at most limit Equation entities.
+     */
+    public List<Equation> findAllAfter(Long lastId, int limit) {
+        return timed(FIND_ALL_AFTER, "findAllAfter", event -> {
+            List<Long> equationIds;
+            try (Session session = sessionFactory.openSession()) {
+                // the page is limited on identifiers, since a limit on rows joined with roots would cut equations
+                String hql = "SELECT e.id FROM Equation e WHERE e.id > :lastId ORDER BY e.id";
+                Query<Long> query = session.createQuery(hql, Long.class);
+                query.setParameter("lastId", lastId != null ? lastId : Long.MIN_VALUE);
+                query.setMaxResults(limit);
+                equationIds = query.list();
+            }
+            return event.rows(findEquationsByIds(equationIds));
+        });
+    }
+
+    /**
+     * Retrieves a page of the identifiers and expressions of equations ordered by identifier, without their roots,
+     * starting after the specified identifier in the same way as {@link #findAllAfter(Long, int)}.
+     *
+     * @param lastId The identifier of the last equation of the previous page, or null for the first page.
+     * @param limit  The maximum number of equations in the page.
+     * @return List of the summaries of at most limit equations.
+     */
+    public List<EquationSummary> findSummariesAfter(Long lastId, int limit) {
+        return timed(FIND_SUMMARIES_AFTER, "findSummariesAfter", event -> {
+            try (Session session = sessionFactory.openSession()) {
+                String hql = "SELECT new org.vitaliistf.mathhelper.repository.EquationSummary(e.id, e.expression) " +
+                        "FROM Equation e WHERE e.id > :lastId ORDER BY e.id";
+                Query<EquationSummary> query = session.createQuery(hql, EquationSummary.class);
+                query.setParameter("lastId", lastId != null ? lastId : Long.MIN_VALUE);
+                query.setMaxResults(limit);
+                query.setFetchSize(Math.min(limit, fetchSize));
+                return event.rows(query.list());
+            }
+        });
+    }
+
+    /**
+     * Streams all equations from the database ordered by identifier.
+     * Equations are read with a forward-only cursor and detached as soon as they are read, so the memory used
+     * does not depend on the number of equations. The stream holds a database connection and must be closed.
+     *
+     * @return Stream of all Equation entities.
+     */
+    public Stream<Equation> streamAll() {
+        return stream("SELECT e FROM Equation e LEFT JOIN FETCH e.roots ORDER BY e.id");
+    }
+
+    /**
+     * Streams equations with a single root ordered by identifier, in the same way as {@link #streamAll()}.
+     * The stream holds a database connection and must be closed.
+     *
+     * @return Stream of Equation entities with a single root.
+     */
+    public Stream<Equation> streamEquationsWithSingleRoot() {
+        return stream("SELECT e FROM Equation e LEFT JOIN FETCH e.roots WHERE e.rootCount = 1 ORDER BY e.id");
+    }
+
+    /**
+     * Opens the stream; its timer and event measure the time until the stream is closed.
+     */
+    private Stream<Equation> stream(String hql) {
+        long start = STREAM.start();
+        RepositoryQueryEvent event = RepositoryQueryEvent.start("stream");
+        Session session = sessionFactory.openSession();
+        try {
+            session.setDefaultReadOnly(true);
+            // the transaction keeps the connection, and so the cursor, open while the roots are loaded
+            Transaction transaction = session.beginTransaction();
             Query<Equation> query = session.createQuery(hql, Equation.class);
-            return query.list();
+            query.setReadOnly(true);
+            query.setFetchSize(fetchSize);
+            return query.stream()
+                    .peek(equation -> {
+                        session.detach(equation);
+                        event.rows++;
+                    })
+                    .onClose(() -> {
+                        transaction.rollback();
+                        session.close();
+                        event.commit();
+                        STREAM.stop(start);
+                    });
+        } catch (RuntimeException e) {
+            session.close();
+            event.commit();
+            STREAM.stop(start);
+            throw e;
         }
     }
 
@@ -68,12 +385,120 @@ public class EquationRepository {
      * Saves an equation to the database.
      *
      * @param equation The Equation entity to be saved.
+     * @throws DuplicateEquationException If the same expression, ignoring spaces, is already saved.
      */
     public void save(Equation equation) {
-        try (Session session = sessionFactory.openSession()) {
-            Transaction transaction = session.beginTransaction();
+        timed(SAVE, "save", event -> {
+            event.rows = 1;
+            event.roots = equation.getRoots().size();
+            try (Session session = sessionFactory.openSession()) {
+                Transaction transaction = session.beginTransaction();
+                rejectSavedExpressions(session, List.of(equation));
+                session.persist(equation);
+                transaction.commit();
+                return equation;
+            } catch (RuntimeException e) {
+                throw duplicateOr(e, equation.getExpression());
+            }
+        });
+        RootIndex.Roots roots = new RootIndex.Roots();
+        roots.add(equation.getId(), equation.getRootValues());
+        rootIndex.add(roots);
+    }
+
+    /**
+     * Saves many equations with their roots in a single transaction, using the default batch size.
+     *
+     * @param equations The Equation entities to be saved.
+     * @return The number of saved equations and roots and the time it took.
+     */
+    public BulkSaveReport saveAll(Iterable<Equation> equations) {
+        return saveAll(equations, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Saves many equations with their roots in a single transaction.
+     * Inserts are sent to the database in JDBC batches, and the session is flushed and cleared after every
+     * batch of equations, so the equations are not kept in memory and may be produced lazily by the iterable.
+     *
+     * @param equations The Equation entities to be saved.
+     * @param batchSize The number of equations persisted between two flushes of the session.
+     * @return The number of saved equations and roots and the time it took.
+     * @throws DuplicateEquationException If one of the expressions is already saved, or given twice;
+     *                                    none of the equations are saved then.
+     */
+    public BulkSaveReport saveAll(Iterable<Equation> equations, int batchSize) {
+        long start = System.nanoTime();
+        RootIndex.Roots roots = new RootIndex.Roots();
+        BulkSaveReport report = timed(SAVE_ALL, "saveAll", event -> {
+            int equationCount = 0;
+            long rootCount = 0;
+            try (Session session = sessionFactory.openSession()) {
+                session.setJdbcBatchSize(batchSize);
+                Transaction transaction = session.beginTransaction();
+                List<Equation> batch = new ArrayList<>(batchSize);
+                for (Equation equation : equations) {
+                    batch.add(equation);
+                    equationCount++;
+                    rootCount += equation.getRoots().size();
+                    if (batch.size() == batchSize) {
+                        persistBatch(session, batch, roots);
+                    }
+                }
+                persistBatch(session, batch, roots);
+                transaction.commit();
+            } catch (RuntimeException e) {
+                throw duplicateOr(e, null);
+            } finally {
+                event.rows = equationCount;
+                event.roots = (int) Math.min(rootCount, Integer.MAX_VALUE);
+            }
+            return new BulkSaveReport(equationCount, rootCount, Duration.ofNanos(System.nanoTime() - start));
+        });
+        rootIndex.add(roots);
+        return report;
+    }
+
+    /**
+     * Checks and persists a batch of equations, then flushes and clears the session,
+     * so that the next batch is checked against this one. The roots of the batch are collected for the root index.
+     */
+    private static void persistBatch(Session session, List<Equation> batch, RootIndex.Roots roots) {
+        rejectSavedExpressions(session, batch);
+        for (Equation equation : batch) {
             session.persist(equation);
-            transaction.commit();
+            roots.add(equation.getId(), equation.getRootValues());
+        }
+        session.flush();
+        session.clear();
+        batch.clear();
+    }
+
+    /**
+     * Throws a DuplicateEquationException if one of the expressions, ignoring whitespace, is already saved
+     * or given twice. The saved expressions are found through the index on their hashes and then compared,
+     * so distinct expressions with the same hash are never taken for duplicates; the same expression saved
+     * concurrently is still rejected by the unique index on the expression.
+     */
+    private static void rejectSavedExpressions(Session session, List<Equation> equations) {
+        if (equations.isEmpty()) {
+            return;
+        }
+        Map<String, String> expressions = new HashMap<>();
+        for (Equation equation : equations) {
+            String expression = equation.getExpression();
+            if (expressions.put(ExpressionHash.removeWhitespace(expression), expression) != null) {
+                throw new DuplicateEquationException(expression, null);
+            }
+        }
+        String hql = "SELECT e.expression FROM Equation e WHERE e.expressionHash IN :expressionHashes";
+        Query<String> query = session.createQuery(hql, String.class);
+        query.setParameterList("expressionHashes", equations.stream().map(Equation::getExpressionHash).toList());
+        for (String saved : query.list()) {
+            String expression = expressions.get(ExpressionHash.removeWhitespace(saved));
+            if (expression != null) {
+                throw new DuplicateEquationException(expression, null);
+            }
         }
     }
 
@@ -84,14 +509,86 @@ public class EquationRepository {
      * @return List of Equation entities that match the root values.
      */
     public List<Equation> findEquationsByRoots(List<Double> roots) {
-        try (Session session = sessionFactory.openSession()) {
-            String hql = "SELECT e FROM Equation e JOIN e.roots r WHERE r.value IN :roots " +
-                    "GROUP BY e HAVING COUNT(DISTINCT r.value) = :rootsCount";
-            Query<Equation> query = session.createQuery(hql, Equation.class);
-            query.setParameterList("roots", roots);
-            query.setParameter("rootsCount", roots.size());
-            return query.list();
-        }
+        return timed(FIND_BY_ROOTS, "findEquationsByRoots", event -> {
+            event.roots = roots.size();
+            try (Session session = sessionFactory.openSession()) {
+                String hql = "SELECT e FROM Equation e LEFT JOIN FETCH e.roots WHERE e.id IN (" +
+                        "SELECT r.equation.id FROM Root r WHERE r.value IN :roots " +
+                        "GROUP BY r.equation.id HAVING COUNT(DISTINCT r.value) = :rootsCount) ORDER BY e.id";
+                Query<Equation> query = session.createQuery(hql, Equation.class);
+                query.setParameterList("roots", roots);
+                query.setParameter("rootsCount", roots.size());
+                return event.rows(query.list());
+            }
+        });
+    }
+
+    /**
+     * Finds equations having a stored root within the tolerance of every given root.
+     * Unlike {@link #findEquationsByRoots(List)}, roots do not have to be stored exactly,
+     * so 2.00000000005 is found when searching for 2 with a tolerance of 1e-10.
+     * The search runs over an in-memory {@link RootIndex} rather than in SQL.
+     *
+     * @param roots     List of root values.
+     * @param tolerance The exclusive maximum absolute difference between a given and a stored root.
+     * @return List of Equation entities that match the root values.
+     */
+    public List<Equation> findEquationsByRoots(List<Double> roots, double tolerance) {
+        return timed(FIND_BY_ROOTS_WITHIN_TOLERANCE, "findEquationsByRootsWithinTolerance", event -> {
+            event.roots = roots.size();
+            Set<Long> equationIds = rootIndex.findEquationIds(roots, tolerance);
+            return event.rows(findEquationsByIds(equationIds));
+        });
+    }
+
+    /**
+     * Finds the identifiers and expressions of equations having a stored root within the tolerance
+     * of every given root, without loading their roots.
+     *
+     * @param roots     List of root values.
+     * @param tolerance The exclusive maximum absolute difference between a given and a stored root.
+     * @return List of the summaries of the matching equations ordered by identifier.
+     */
+    public List<EquationSummary> findEquationSummariesByRoots(List<Double> roots, double tolerance) {
+        return timed(FIND_SUMMARIES_BY_ROOTS, "findEquationSummariesByRoots", event -> {
+            event.roots = roots.size();
+            Set<Long> equationIds = rootIndex.findEquationIds(roots, tolerance);
+            if (equationIds.isEmpty()) {
+                return List.of();
+            }
+            try (Session session = sessionFactory.openSession()) {
+                String hql = "SELECT new org.vitaliistf.mathhelper.repository.EquationSummary(e.id, e.expression) " +
+                        "FROM Equation e WHERE e.id IN :ids ORDER BY e.id";
+                Query<EquationSummary> query = session.createQuery(hql, EquationSummary.class);
+                query.setParameterList("ids", equationIds);
+                return event.rows(query.list());
+            }
+        });
+    }
+
+    /**
+     * Finds equations having a stored root within the tolerance of every given root, in the same way as
+     * {@link #findEquationsByRoots(List, double)}, with their root values read from the packed roots column.
+     *
+     * @param roots     List of root values.
+     * @param tolerance The exclusive maximum absolute difference between a given and a stored root.
+     * @return List of the matching equations with their root values ordered by identifier.
+     */
+    public List<PackedEquation> findPackedEquationsByRoots(List<Double> roots, double tolerance) {
+        return timed(FIND_PACKED_BY_ROOTS, "findPackedEquationsByRoots", event -> {
+            event.roots = roots.size();
+            Set<Long> equationIds = rootIndex.findEquationIds(roots, tolerance);
+            if (equationIds.isEmpty()) {
+                return List.of();
+            }
+            try (Session session = sessionFactory.openSession()) {
+                String hql = "SELECT new org.vitaliistf.mathhelper.repository.PackedEquation(" +
+                        "e.id, e.expression, e.packedRoots) FROM Equation e WHERE e.id IN :ids ORDER BY e.id";
+                Query<PackedEquation> query = session.createQuery(hql, PackedEquation.class);
+                query.setParameterList("ids", equationIds);
+                return event.rows(query.list());
+            }
+        });
     }
 
     /**
@@ -100,27 +597,234 @@ public class EquationRepository {
      * @return List of Equation entities with a single root.
      */
     public List<Equation> findEquationsWithSingleRoot() {
-        try (Session session = sessionFactory.openSession()) {
-            String hql = "SELECT e FROM Equation e WHERE size(e.roots) = 1";
-            Query<Equation> query = session.createQuery(hql, Equation.class);
-            return query.list();
-        }
+        return findEquationsWithRootCount(1);
+    }
+
+    /**
+     * Finds equations with exactly the specified number of roots, through the index on their root count.
+     *
+     * @param rootCount The number of roots.
+     * @return List of Equation entities with that number of roots ordered by identifier.
+     */
+    public List<Equation> findEquationsWithRootCount(int rootCount) {
+        return timed(FIND_WITH_ROOT_COUNT, "findEquationsWithRootCount", event -> {
+            event.roots = rootCount;
+            try (Session session = sessionFactory.openSession()) {
+                String hql = "SELECT e FROM Equation e LEFT JOIN FETCH e.roots " +
+                        "WHERE e.rootCount = :rootCount ORDER BY e.id";
+                Query<Equation> query = session.createQuery(hql, Equation.class);
+                query.setParameter("rootCount", rootCount);
+                return event.rows(query.list());
+            }
+        });
+    }
+
+    /**
+     * Sets the root count of every equation to the number of its stored roots.
+     * Only needed once for equations saved before the root count was stored, or changed outside the application.
+     *
+     * @return The number of updated equations.
+     */
+    public int recountRoots() {
+        return timed(RECOUNT_ROOTS, "recountRoots", event -> {
+            try (Session session = sessionFactory.openSession()) {
+                Transaction transaction = session.beginTransaction();
+                String hql = "UPDATE Equation e SET e.rootCount = " +
+                        "(SELECT COUNT(r) FROM Root r WHERE r.equation = e) " +
+                        "WHERE e.rootCount <> (SELECT COUNT(r) FROM Root r WHERE r.equation = e)";
+                int updated = session.createMutationQuery(hql).executeUpdate();
+                transaction.commit();
+                event.rows = updated;
+                return updated;
+            }
+        });
     }
 
     /**
-     * Deletes an equation by its unique identifier.
+     * Deletes an equation by its unique identifier, see {@link #deleteByIds(Collection)}.
      *
      * @param equationId The identifier of the equation to delete.
      */
     public void deleteEquationById(Long equationId) {
-        try (Session session = sessionFactory.openSession()) {
-            Transaction transaction = session.beginTransaction();
-            Equation equation = session.get(Equation.class, equationId);
-            if (equation != null) {
-                session.remove(equation);
+        deleteByIds(List.of(equationId));
+    }
+
+    /**
+     * Deletes equations with their roots by their identifiers in a single transaction, without loading them.
+     * The roots and then the equations are deleted with one bulk statement each for up to
+     * {@link #DELETE_CHUNK_SIZE} identifiers.
+     *
+     * @param equationIds The identifiers of the equations to delete; unknown identifiers are ignored.
+     * @return The number of deleted equations and roots.
+     */
+    public BulkDeleteReport deleteByIds(Collection<Long> equationIds) {
+        if (equationIds.isEmpty()) {
+            return BulkDeleteReport.NONE;
+        }
+        return timed(DELETE_BY_IDS, "deleteByIds", event -> {
+            BulkDeleteReport report = BulkDeleteReport.NONE;
+            try (Session session = sessionFactory.openSession()) {
+                Transaction transaction = session.beginTransaction();
+                for (List<Long> chunk : chunks(equationIds)) {
+                    report = report.plus(deleteChunk(session, chunk));
+                }
+                transaction.commit();
+                rootIndex.remove(equationIds);
+                event.rows = report.equations();
+                event.roots = report.roots();
+                return report;
+            }
+        });
+    }
+
+    /**
+     * Deletes equations with their roots by their expressions in a single transaction, without loading them,
+     * in the same way as {@link #deleteByIds(Collection)}. The identifiers of the equations are first found
+     * through the index on their expression hashes, then by their expressions.
+     *
+     * @param expressions The expressions of the equations to delete; unknown expressions are ignored.
+     * @return The number of deleted equations and roots.
+     */
+    public BulkDeleteReport deleteByExpressions(Collection<String> expressions) {
+        if (expressions.isEmpty()) {
+            return BulkDeleteReport.NONE;
+        }
+        return timed(DELETE_BY_EXPRESSIONS, "deleteByExpressions", event -> {
+            BulkDeleteReport report = BulkDeleteReport.NONE;
+            try (Session session = sessionFactory.openSession()) {
+                Transaction transaction = session.beginTransaction();
+                String hql = "SELECT e.id FROM Equation e " +
+                        "WHERE e.expressionHash IN :expressionHashes AND e.expression IN :expressions";
+                List<Long> equationIds = new ArrayList<>();
+                for (List<String> chunk : chunks(expressions)) {
+                    List<Long> ids = session.createQuery(hql, Long.class)
+                            .setParameterList("expressionHashes", chunk.stream().map(ExpressionHash::of).toList())
+                            .setParameterList("expressions", chunk)
+                            .list();
+                    if (!ids.isEmpty()) {
+                        report = report.plus(deleteChunk(session, ids));
+                        equationIds.addAll(ids);
+                    }
+                }
+                transaction.commit();
+                rootIndex.remove(equationIds);
+                event.rows = report.equations();
+                event.roots = report.roots();
+                return report;
+            }
+        });
+    }
+
+    /**
+     * Runs a repository operation, recording its duration in the timer and a {@link RepositoryQueryEvent}
+     * whether it succeeds or throws.
+     *
+     * @param timer     The timer of the operation.
+     * @param operation The name of the repository method, recorded in the event.
+     * @param query     The operation, filling in the event.
+     * @param <T>       The type of the result.
+     * @return The result of the operation.
+     */
+    private static <T> T timed(Timer timer, String operation, Function<RepositoryQueryEvent, T> query) {
+        long start = timer.start();
+        RepositoryQueryEvent event = RepositoryQueryEvent.start(operation);
+        try {
+            return query.apply(event);
+        } finally {
+            event.commit();
+            timer.stop(start);
+        }
+    }
+
+    private static BulkDeleteReport deleteChunk(Session session, List<Long> equationIds) {
+        int roots = session.createMutationQuery("DELETE FROM Root r WHERE r.equation.id IN :ids")
+                .setParameterList("ids", equationIds)
+                .executeUpdate();
+        int equations = session.createMutationQuery("DELETE FROM Equation e WHERE e.id IN :ids")
+                .setParameterList("ids", equationIds)
+                .executeUpdate();
+        return new BulkDeleteReport(equations, roots);
+    }
+
+    private static <T> List<List<T>> chunks(Collection<T> values) {
+        List<T> list = List.copyOf(values);
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += DELETE_CHUNK_SIZE) {
+            chunks.add(list.subList(from, Math.min(from + DELETE_CHUNK_SIZE, list.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Sets the expression hash of the equations saved before it was stored, which is needed for them
+     * to be found by expression.
+     *
+     * @return The number of updated equations.
+     */
+    public int hashExpressions() {
+        return timed(HASH_EXPRESSIONS, "hashExpressions", event -> {
+            try (Session session = sessionFactory.openSession()) {
+                Transaction transaction = session.beginTransaction();
+                String hql = "SELECT e.id, e.expression FROM Equation e WHERE e.expressionHash IS NULL";
+                List<Object[]> rows = session.createQuery(hql, Object[].class).list();
+                String update = "UPDATE Equation e SET e.expressionHash = :expressionHash WHERE e.id = :id";
+                for (Object[] row : rows) {
+                    session.createMutationQuery(update)
+                            .setParameter("expressionHash", ExpressionHash.of((String) row[1]))
+                            .setParameter("id", row[0])
+                            .executeUpdate();
+                }
+                transaction.commit();
+                event.rows = rows.size();
+                return rows.size();
+            }
+        });
+    }
+
+    /**
+     * Packs the roots of the equations saved before the packed roots were stored, which is needed for their
+     * roots to be read by {@link #findAllPacked()} and {@link #findPackedEquationsByRoots(List, double)}.
+     *
+     * @return The number of updated equations.
+     */
+    public int packRoots() {
+        return timed(PACK_ROOTS, "packRoots", event -> {
+            try (Session session = sessionFactory.openSession()) {
+                Transaction transaction = session.beginTransaction();
+                session.setDefaultReadOnly(true);
+                String hql = "SELECT e FROM Equation e LEFT JOIN FETCH e.roots WHERE e.packedRoots IS NULL";
+                List<Equation> equations = session.createQuery(hql, Equation.class).list();
+                String update = "UPDATE Equation e SET e.packedRoots = :packedRoots WHERE e.id = :id";
+                for (Equation equation : equations) {
+                    session.createMutationQuery(update)
+                            .setParameter("packedRoots", PackedRoots.pack(equation.getRoots()))
+                            .setParameter("id", equation.getId())
+                            .executeUpdate();
+                }
+                transaction.commit();
+                event.rows = equations.size();
+                return equations.size();
+            }
+        });
+    }
+
+    /**
+     * Returns a DuplicateEquationException if the exception was caused by the unique index on the expression,
+     * or the exception itself otherwise.
+     */
+    private static RuntimeException duplicateOr(RuntimeException exception, String expression) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String constraint = violation.getConstraintName() != null
+                        ? violation.getConstraintName()
+                        : violation.getSQLException().getMessage();
+                if (constraint != null
+                        && constraint.toLowerCase(Locale.ROOT).contains(Equation.EXPRESSION_INDEX)) {
+                    return new DuplicateEquationException(expression, exception);
+                }
             }
-            transaction.commit();
         }
+        return exception;
     }
 
 }
@@ -0,0 +1,10 @@
+package org.vitaliistf.mathhelper.repository;
+
+/**
+ * The identifier and the expression of an equation, read without its roots.
+ *
+ * @param id         The unique identifier of the equation.
+ * @param expression The mathematical expression of the equation.
+ */
+public record EquationSummary(Long id, String expression) {
+}
@@ -0,0 +1,27 @@
+package org.vitaliistf.mathhelper.repository;
+
+import org.vitaliistf.mathhelper.entity.PackedRoots;
+
+/**
+ * The identifier, the expression and the root values of an equation, read from its packed roots
+ * without loading a Root entity for every root. The root values can be checked directly with
+ * {@link org.vitaliistf.mathhelper.evaluation.CompiledEquation#evaluateBatch(double[])}.
+ *
+ * @param id         The unique identifier of the equation.
+ * @param expression The mathematical expression of the equation.
+ * @param roots      The root values of the equation.
+ */
+public record PackedEquation(Long id, String expression, double[] roots) {
+
+    /**
+     * Constructs a PackedEquation from the packed roots of an equation.
+     *
+     * @param id          The unique identifier of the equation.
+     * @param expression  The mathematical expression of the equation.
+     * @param packedRoots The roots packed by {@link PackedRoots}, or null for no roots.
+     */
+    public PackedEquation(Long id, String expression, byte[] packedRoots) {
+        this(id, expression, PackedRoots.unpack(packedRoots));
+    }
+
+}
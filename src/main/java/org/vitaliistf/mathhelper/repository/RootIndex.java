@@ -0,0 +1,367 @@
+package org.vitaliistf.mathhelper.repository;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.Query;
+import org.vitaliistf.mathhelper.metrics.Metrics;
+import org.vitaliistf.mathhelper.metrics.Timer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * An in-memory index of all the stored roots, used to find equations by roots within a tolerance.
+ * The root values are kept in a sorted primitive array next to the identifiers of their equations,
+ * so every searched root is a binary search followed by a scan of the matching range.
+ * The index is loaded from the Root table on first use; equations saved and deleted through the repository
+ * are then applied to it as a small sorted list of added roots and a set of removed equations, which are merged
+ * into the sorted arrays once they grow past a fraction of them.
+ * Changes made by other processes sharing the database are only seen when the index is reloaded, which happens
+ * in the background on the first search after the refresh interval, while the previous snapshot keeps serving
+ * searches. Searches may thus miss such changes for up to the refresh interval and the time of a reload.
+ */
+public class RootIndex {
+
+    private static final Timer LOAD = Metrics.timer("repository.rootIndex.load");
+    private static final Timer MERGE = Metrics.timer("repository.rootIndex.merge");
+
+    /**
+     * The number of pending changes always allowed before they are merged into the sorted arrays.
+     */
+    private static final int MIN_PENDING_CHANGES = 1024;
+
+    /**
+     * The default time after which the index is reloaded, configurable in milliseconds
+     * with the "mathhelper.rootIndexRefreshMillis" system property.
+     */
+    public static final Duration DEFAULT_REFRESH_INTERVAL =
+            Duration.ofMillis(Long.getLong("mathhelper.rootIndexRefreshMillis", 10_000));
+
+    private final SessionFactory sessionFactory;
+    private final long refreshNanos;
+    private volatile Snapshot snapshot;
+    private volatile long loadedAt;
+
+    /**
+     * The changes applied since a background reload started, replayed on the reloaded snapshot;
+     * null while no reload is running. Guarded by this index.
+     */
+    private List<UnaryOperator<Snapshot>> changesDuringReload;
+
+    /**
+     * Constructs a RootIndex loading roots with the specified SessionFactory and the default refresh interval.
+     *
+     * @param sessionFactory The Hibernate SessionFactory.
+     */
+    public RootIndex(SessionFactory sessionFactory) {
+        this(sessionFactory, DEFAULT_REFRESH_INTERVAL);
+    }
+
+    /**
+     * Constructs a RootIndex loading roots with the specified SessionFactory.
+     *
+     * @param sessionFactory  The Hibernate SessionFactory.
+     * @param refreshInterval The time after which the index is reloaded to see changes made by other processes.
+     */
+    public RootIndex(SessionFactory sessionFactory, Duration refreshInterval) {
+        this.sessionFactory = sessionFactory;
+        this.refreshNanos = refreshInterval.toNanos();
+    }
+
+    /**
+     * Adds the roots of committed equations to the index.
+     * An equation may be indexed twice if it was committed while the index was loaded,
+     * which does not change any search result.
+     *
+     * @param roots The roots of the saved equations.
+     */
+    public synchronized void add(Roots roots) {
+        if (roots.size > 0) {
+            apply(current -> current.plus(roots));
+        }
+    }
+
+    /**
+     * Removes all the roots of deleted equations from the index.
+     *
+     * @param equationIds The identifiers of the deleted equations.
+     */
+    public synchronized void remove(Collection<Long> equationIds) {
+        if (!equationIds.isEmpty()) {
+            apply(current -> current.minus(equationIds));
+        }
+    }
+
+    private void apply(UnaryOperator<Snapshot> change) {
+        Snapshot current = snapshot;
+        if (current != null) {
+            snapshot = change.apply(current).mergedIfLarge();
+        }
+        if (changesDuringReload != null) {
+            changesDuringReload.add(change);
+        }
+    }
+
+    /**
+     * Finds the identifiers of the equations having a stored root within the tolerance of every given root,
+     * that is whose absolute difference from it is strictly less than the tolerance.
+     *
+     * @param roots     List of root values.
+     * @param tolerance The exclusive maximum absolute difference between a given and a stored root.
+     * @return The identifiers of the matching equations, empty if no roots are given.
+     */
+    public Set<Long> findEquationIds(List<Double> roots, double tolerance) {
+        if (roots.isEmpty()) {
+            return Set.of();
+        }
+        Snapshot current = currentSnapshot();
+
+        Set<Long> result = null;
+        for (double root : roots) {
+            Set<Long> matching = current.findEquationIds(root, tolerance);
+            if (result == null) {
+                result = matching;
+            } else {
+                result.retainAll(matching);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            if (System.nanoTime() - loadedAt > refreshNanos) {
+                reloadInBackground();
+            }
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                loadedAt = System.nanoTime();
+                snapshot = load();
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Reloads the index on the common pool unless a reload is already running. The changes applied while
+     * the Root table is read are replayed on the reloaded snapshot, since the read may not include them.
+     */
+    private void reloadInBackground() {
+        synchronized (this) {
+            if (changesDuringReload != null) {
+                return;
+            }
+            changesDuringReload = new ArrayList<>();
+        }
+        ForkJoinPool.commonPool().execute(() -> {
+            long startedAt = System.nanoTime();
+            Snapshot reloaded = null;
+            try {
+                reloaded = load();
+            } finally {
+                synchronized (this) {
+                    if (reloaded != null) {
+                        for (UnaryOperator<Snapshot> change : changesDuringReload) {
+                            reloaded = change.apply(reloaded);
+                        }
+                        snapshot = reloaded.mergedIfLarge();
+                    }
+                    // a failed reload is retried after another refresh interval
+                    loadedAt = startedAt;
+                    changesDuringReload = null;
+                }
+            }
+        });
+    }
+
+    private Snapshot load() {
+        long start = LOAD.start();
+        Roots roots = new Roots();
+        try (Session session = sessionFactory.openSession()) {
+            String hql = "SELECT r.value, r.equation.id FROM Root r ORDER BY r.value";
+            Query<Object[]> query = session.createQuery(hql, Object[].class);
+            try (ScrollableResults<Object[]> results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                while (results.next()) {
+                    Object[] row = results.get();
+                    roots.add((Long) row[1], (Double) row[0]);
+                }
+            }
+        }
+        LOAD.stop(start);
+        return new Snapshot(roots.values(), roots.equationIds(), new double[0], new long[0], Set.of());
+    }
+
+    /**
+     * Root values with the identifiers of their equations at the same indexes, collected to be added to the index.
+     */
+    public static class Roots {
+
+        private double[] values = new double[1024];
+        private long[] equationIds = new long[1024];
+        private int size;
+
+        /**
+         * Collects the roots of an equation.
+         *
+         * @param equationId The identifier of the equation.
+         * @param values     The root values of the equation.
+         */
+        public void add(long equationId, double[] values) {
+            for (double value : values) {
+                add(equationId, value);
+            }
+        }
+
+        private void add(long equationId, double value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+                equationIds = Arrays.copyOf(equationIds, size * 2);
+            }
+            values[size] = value;
+            equationIds[size] = equationId;
+            size++;
+        }
+
+        private double[] values() {
+            return Arrays.copyOf(values, size);
+        }
+
+        private long[] equationIds() {
+            return Arrays.copyOf(equationIds, size);
+        }
+
+        /**
+         * Returns the indexes of the collected roots in the order of their values.
+         */
+        private int[] sortedOrder() {
+            return IntStream.range(0, size).boxed()
+                    .sorted((left, right) -> Double.compare(values[left], values[right]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+    }
+
+    /**
+     * Immutable sorted root values with the identifiers of their equations at the same indexes,
+     * followed by the roots added and the equations removed since the values were last merged.
+     */
+    private record Snapshot(double[] values, long[] equationIds,
+                            double[] addedValues, long[] addedEquationIds, Set<Long> removedEquationIds) {
+
+        Set<Long> findEquationIds(double root, double tolerance) {
+            Set<Long> ids = new HashSet<>();
+            for (int i = lowerBound(values, root - tolerance); i < values.length; i++) {
+                if (values[i] > root + tolerance) {
+                    break;
+                }
+                if (Math.abs(values[i] - root) < tolerance && !removedEquationIds.contains(equationIds[i])) {
+                    ids.add(equationIds[i]);
+                }
+            }
+            for (int i = lowerBound(addedValues, root - tolerance); i < addedValues.length; i++) {
+                if (addedValues[i] > root + tolerance) {
+                    break;
+                }
+                if (Math.abs(addedValues[i] - root) < tolerance) {
+                    ids.add(addedEquationIds[i]);
+                }
+            }
+            return ids;
+        }
+
+        Snapshot plus(Roots roots) {
+            int[] order = roots.sortedOrder();
+            double[] sortedValues = new double[order.length];
+            long[] sortedEquationIds = new long[order.length];
+            for (int i = 0; i < order.length; i++) {
+                sortedValues[i] = roots.values[order[i]];
+                sortedEquationIds[i] = roots.equationIds[order[i]];
+            }
+            Merged added = merge(addedValues, addedEquationIds, Set.of(), sortedValues, sortedEquationIds);
+            return new Snapshot(values, equationIds, added.values, added.equationIds, removedEquationIds);
+        }
+
+        Snapshot minus(Collection<Long> equationIds) {
+            Set<Long> removed = new HashSet<>(removedEquationIds);
+            removed.addAll(equationIds);
+            Merged added = merge(addedValues, addedEquationIds, removed, new double[0], new long[0]);
+            return new Snapshot(values, this.equationIds, added.values, added.equationIds, Set.copyOf(removed));
+        }
+
+        /**
+         * Merges the pending changes into the sorted arrays once there are more of them than
+         * {@link #MIN_PENDING_CHANGES} and an eighth of the values.
+         */
+        Snapshot mergedIfLarge() {
+            int pending = addedValues.length + removedEquationIds.size();
+            if (pending <= Math.max(MIN_PENDING_CHANGES, values.length / 8)) {
+                return this;
+            }
+            long start = MERGE.start();
+            Merged merged = merge(values, equationIds, removedEquationIds, addedValues, addedEquationIds);
+            MERGE.stop(start);
+            return new Snapshot(merged.values, merged.equationIds, new double[0], new long[0], Set.of());
+        }
+
+        /**
+         * Merges two sorted arrays of roots, leaving out the roots of the removed equations.
+         */
+        private static Merged merge(double[] leftValues, long[] leftIds, Set<Long> removed,
+                                    double[] rightValues, long[] rightIds) {
+            double[] values = new double[leftValues.length + rightValues.length];
+            long[] ids = new long[values.length];
+            int size = 0;
+            int left = 0;
+            int right = 0;
+            while (left < leftValues.length || right < rightValues.length) {
+                boolean takeLeft = right == rightValues.length
+                        || left < leftValues.length && leftValues[left] <= rightValues[right];
+                double value = takeLeft ? leftValues[left] : rightValues[right];
+                long id = takeLeft ? leftIds[left++] : rightIds[right++];
+                if (!removed.contains(id)) {
+                    values[size] = value;
+                    ids[size] = id;
+                    size++;
+                }
+            }
+            return new Merged(Arrays.copyOf(values, size), Arrays.copyOf(ids, size));
+        }
+
+        /**
+         * Returns the index of the first value not less than the specified one.
+         */
+        private static int lowerBound(double[] values, double value) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (values[middle] < value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    private record Merged(double[] values, long[] equationIds) {
+    }
+
+}
@@ -0,0 +1,174 @@
+package org.vitaliistf.mathhelper.search;
+
+import org.vitaliistf.mathhelper.evaluation.CompiledEquation;
+import org.vitaliistf.mathhelper.evaluation.CompiledEquationCache;
+import org.vitaliistf.mathhelper.evaluation.EquationEvaluator;
+import org.vitaliistf.mathhelper.metrics.Metrics;
+import org.vitaliistf.mathhelper.metrics.Timer;
+import org.vitaliistf.mathhelper.repository.EquationRepository;
+import org.vitaliistf.mathhelper.repository.EquationSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Finds the stored equations satisfied by given roots by evaluating every equation, unlike the search
+ * of {@link EquationRepository#findEquationsByRoots(List, double)}, which only finds the roots saved with them.
+ * The equations are read page by page with {@link EquationRepository#findSummariesAfter(Long, int)}, and every
+ * page is checked on a work-stealing {@link ForkJoinPool} while the next page is read, so the memory used
+ * does not depend on the number of equations. The compiled equations are kept in a cache of their own,
+ * so that repeated searches neither parse the equations again nor evict the equations of the shared cache.
+ */
+public class ReverseSearch {
+
+    /**
+     * The number of equations read from the repository at once.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 4096;
+
+    /**
+     * The maximum number of compiled equations kept between searches, configurable with the
+     * mathhelper.reverseSearchCacheSize system property.
+     */
+    public static final int DEFAULT_CACHE_SIZE = Integer.getInteger("mathhelper.reverseSearchCacheSize", 16_384);
+
+    /**
+     * The number of equations below which a task checks its equations itself instead of splitting them.
+     */
+    static final int SPLIT_THRESHOLD = 64;
+
+    private static final Timer SEARCH = Metrics.timer("search.reverse");
+
+    private final EquationRepository equationRepository;
+    private final ForkJoinPool pool;
+    private final int pageSize;
+    private final CompiledEquationCache compiledEquations = new CompiledEquationCache(DEFAULT_CACHE_SIZE);
+
+    /**
+     * Constructs a ReverseSearch checking equations on the common pool.
+     *
+     * @param equationRepository The repository of the equations.
+     */
+    public ReverseSearch(EquationRepository equationRepository) {
+        this(equationRepository, ForkJoinPool.commonPool(), DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Constructs a ReverseSearch checking equations on the specified pool.
+     *
+     * @param equationRepository The repository of the equations.
+     * @param pool               The pool checking the equations.
+     * @param pageSize           The number of equations read from the repository at once.
+     * @throws IllegalArgumentException If the page size is not positive.
+     */
+    public ReverseSearch(EquationRepository equationRepository, ForkJoinPool pool, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        this.equationRepository = equationRepository;
+        this.pool = pool;
+        this.pageSize = pageSize;
+        Metrics.registerCache("search.compiledEquations", compiledEquations::statistics);
+    }
+
+    /**
+     * Finds the stored equations satisfied by every given root within {@link EquationEvaluator#PRECISION}.
+     *
+     * @param roots The roots.
+     * @return The summaries of the satisfied equations ordered by identifier, empty if no roots are given.
+     */
+    public List<EquationSummary> findEquationsSatisfiedBy(double[] roots) {
+        if (roots.length == 0) {
+            return List.of();
+        }
+        long start = SEARCH.start();
+        try {
+            List<EquationSummary> satisfied = new ArrayList<>();
+            ForkJoinTask<List<EquationSummary>> pending = null;
+            Long lastId = null;
+            List<EquationSummary> page;
+            do {
+                page = equationRepository.findSummariesAfter(lastId, pageSize);
+                ForkJoinTask<List<EquationSummary>> task = null;
+                if (!page.isEmpty()) {
+                    task = pool.submit(new CheckTask(page, 0, page.size(), roots));
+                    lastId = page.get(page.size() - 1).id();
+                }
+                // the previous page is checked while this one is read
+                if (pending != null) {
+                    satisfied.addAll(pending.join());
+                }
+                pending = task;
+            } while (page.size() == pageSize);
+            if (pending != null) {
+                satisfied.addAll(pending.join());
+            }
+            return satisfied;
+        } finally {
+            SEARCH.stop(start);
+        }
+    }
+
+    private boolean isSatisfied(EquationSummary equation, double[] roots) {
+        CompiledEquation compiled;
+        try {
+            compiled = compiledEquations.compileLeniently(equation.expression());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        for (double root : roots) {
+            if (!compiled.isSatisfiedBy(root)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks a range of a page of equations, splitting it in halves until it is small enough.
+     * The satisfied equations are returned in the order of the page.
+     */
+    private class CheckTask extends RecursiveTask<List<EquationSummary>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<EquationSummary> equations;
+        private final int from;
+        private final int to;
+        private final double[] roots;
+
+        CheckTask(List<EquationSummary> equations, int from, int to, double[] roots) {
+            this.equations = equations;
+            this.from = from;
+            this.to = to;
+            this.roots = roots;
+        }
+
+        @Override
+        protected List<EquationSummary> compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                List<EquationSummary> satisfied = new ArrayList<>();
+                for (int i = from; i < to; i++) {
+                    if (isSatisfied(equations.get(i), roots)) {
+                        satisfied.add(equations.get(i));
+                    }
+                }
+                return satisfied;
+            }
+            int middle = (from + to) >>> 1;
+            CheckTask left = new CheckTask(equations, from, middle, roots);
+            left.fork();
+            List<EquationSummary> right = new CheckTask(equations, middle, to, roots).compute();
+            List<EquationSummary> satisfied = left.join();
+            if (satisfied.isEmpty()) {
+                return right;
+            }
+            satisfied.addAll(right);
+            return satisfied;
+        }
+    }
+
+}
@@ -0,0 +1,10 @@
+package org.vitaliistf.mathhelper.server;
+
+/**
+ * The status and the body of a response of the HTTP API.
+ *
+ * @param status The HTTP status code.
+ * @param body   The object written as the JSON body, or null for an empty body.
+ */
+public record ApiResponse(int status, Object body) {
+}
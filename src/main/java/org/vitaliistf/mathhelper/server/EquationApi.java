@@ -0,0 +1,273 @@
+package org.vitaliistf.mathhelper.server;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.node.NullNode;
+import org.vitaliistf.mathhelper.entity.Equation;
+import org.vitaliistf.mathhelper.evaluation.CompilationResult;
+import org.vitaliistf.mathhelper.evaluation.CompiledEquation;
+import org.vitaliistf.mathhelper.evaluation.EquationEvaluator;
+import org.vitaliistf.mathhelper.evaluation.FoundRoots;
+import org.vitaliistf.mathhelper.repository.DuplicateEquationException;
+import org.vitaliistf.mathhelper.repository.EquationRepository;
+import org.vitaliistf.mathhelper.server.dto.BatchOperation;
+import org.vitaliistf.mathhelper.server.dto.BatchResult;
+import org.vitaliistf.mathhelper.server.dto.DeleteRequest;
+import org.vitaliistf.mathhelper.server.dto.EquationRequest;
+import org.vitaliistf.mathhelper.server.dto.EquationResponse;
+import org.vitaliistf.mathhelper.server.dto.ErrorResponse;
+import org.vitaliistf.mathhelper.server.dto.SearchRequest;
+import org.vitaliistf.mathhelper.server.dto.VerifyRequest;
+import org.vitaliistf.mathhelper.server.dto.VerifyResponse;
+import org.vitaliistf.mathhelper.service.EquationService;
+import org.vitaliistf.mathhelper.validation.EquationError;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The operations of the console menu exposed as a JSON API, independent of the HTTP server running it.
+ * <ul>
+ *     <li>POST /equations - saves an equation with the given or automatically found roots</li>
+ *     <li>POST /equations/verify - checks which values are roots of an equation without saving it</li>
+ *     <li>POST /equations/search - finds the equations having all the given roots</li>
+ *     <li>GET /equations - lists all equations, or only the ones with a single root with "?singleRoot=true",
+ *     or with N roots with "?rootCount=N"</li>
+ *     <li>GET /equations/{id} - finds an equation by its identifier</li>
+ *     <li>DELETE /equations/{id} - deletes an equation by its identifier</li>
+ *     <li>POST /equations/delete - deletes the equations with the given expressions</li>
+ *     <li>POST /batch - runs a list of up to {@link #MAX_BATCH_SIZE} of the operations above in order
+ *     and returns all their results</li>
+ * </ul>
+ */
+public class EquationApi {
+
+    /**
+     * The maximum number of operations in a batch, configurable with the "mathhelper.maxBatchSize"
+     * system property; larger batches are answered with 413.
+     */
+    public static final int MAX_BATCH_SIZE = Integer.getInteger("mathhelper.maxBatchSize", 1000);
+
+    private static final Pattern EQUATION_PATH = Pattern.compile("/equations/(\\d{1,18})");
+    private static final Pattern ROOT_COUNT_QUERY = Pattern.compile("rootCount=(\\d{1,9})");
+
+    private final EquationService equationService;
+    private final EquationRepository equationRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructs an EquationApi performing the operations with the specified service.
+     *
+     * @param equationService The service performing the operations.
+     * @param objectMapper    The mapper converting request bodies.
+     */
+    public EquationApi(EquationService equationService, ObjectMapper objectMapper) {
+        this.equationService = equationService;
+        this.equationRepository = equationService.getEquationRepository();
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Handles a request.
+     *
+     * @param method The HTTP method.
+     * @param path   The path, optionally followed by a query.
+     * @param body   The JSON body, or null if there is none.
+     * @return The response.
+     */
+    public ApiResponse handle(String method, String path, JsonNode body) {
+        int queryStart = path.indexOf('?');
+        String query = queryStart >= 0 ? path.substring(queryStart + 1) : "";
+        path = queryStart >= 0 ? path.substring(0, queryStart) : path;
+
+        try {
+            switch (path) {
+                case "/equations" -> {
+                    return switch (method) {
+                        case "GET" -> listEquations(query);
+                        case "POST" -> createEquation(read(body, EquationRequest.class));
+                        default -> methodNotAllowed();
+                    };
+                }
+                case "/equations/verify" -> {
+                    return method.equals("POST") ? verifyRoots(read(body, VerifyRequest.class)) : methodNotAllowed();
+                }
+                case "/equations/search" -> {
+                    return method.equals("POST") ? searchByRoots(read(body, SearchRequest.class)) : methodNotAllowed();
+                }
+                case "/equations/delete" -> {
+                    return method.equals("POST")
+                            ? deleteEquations(read(body, DeleteRequest.class))
+                            : methodNotAllowed();
+                }
+                case "/batch" -> {
+                    return method.equals("POST") ? batch(read(body, BatchOperation[].class)) : methodNotAllowed();
+                }
+                default -> {
+                    Matcher matcher = EQUATION_PATH.matcher(path);
+                    if (!matcher.matches()) {
+                        return new ApiResponse(404, ErrorResponse.of("Not found"));
+                    }
+                    long id = Long.parseLong(matcher.group(1));
+                    return switch (method) {
+                        case "GET" -> getEquation(id);
+                        case "DELETE" -> deleteEquation(id);
+                        default -> methodNotAllowed();
+                    };
+                }
+            }
+        } catch (JsonProcessingException e) {
+            return badRequest("Malformed request body");
+        }
+    }
+
+    private ApiResponse createEquation(EquationRequest request) {
+        if (request.expression() == null) {
+            return badRequest("The expression is missing");
+        }
+        CompilationResult compilation = equationService.compile(request.expression());
+        if (!compilation.isSuccessful()) {
+            return incorrectEquation(compilation.error());
+        }
+        CompiledEquation compiledEquation = compilation.equation();
+        Optional<Equation> equivalent = equationService.findEquivalent(compiledEquation);
+
+        Equation equation = equationService.newEquation(request.expression(), compiledEquation);
+        List<Double> rejectedRoots = new ArrayList<>();
+        FoundRoots found = null;
+        if (request.findRoots()) {
+            found = equationService.findRoots(compiledEquation);
+            for (double root : found.roots()) {
+                equation.addRoot(root);
+            }
+        } else if (request.roots() != null) {
+            for (Double root : request.roots()) {
+                if (root != null && compiledEquation.isSatisfiedBy(root)) {
+                    equation.addRoot(root);
+                } else {
+                    rejectedRoots.add(root);
+                }
+            }
+        }
+        try {
+            equationRepository.save(equation);
+        } catch (DuplicateEquationException e) {
+            Equation saved = equationRepository.findEquationByExpression(equation.getExpression());
+            return new ApiResponse(409, new ErrorResponse("The equation is already saved",
+                    null, saved != null ? saved.getId() : null));
+        }
+        EquationResponse response = found != null
+                ? EquationResponse.of(equation, found)
+                : EquationResponse.of(equation, rejectedRoots);
+        return new ApiResponse(201, response.withEquivalentId(equivalent.map(Equation::getId).orElse(null)));
+    }
+
+    private ApiResponse verifyRoots(VerifyRequest request) {
+        if (request.expression() == null || request.roots() == null) {
+            return badRequest("The expression or the roots are missing");
+        }
+        CompilationResult compilation = equationService.compile(request.expression());
+        if (!compilation.isSuccessful()) {
+            return incorrectEquation(compilation.error());
+        }
+        List<Double> validRoots = new ArrayList<>();
+        List<Double> invalidRoots = new ArrayList<>();
+        for (Double root : request.roots()) {
+            if (root != null && compilation.equation().isSatisfiedBy(root)) {
+                validRoots.add(root);
+            } else {
+                invalidRoots.add(root);
+            }
+        }
+        return new ApiResponse(200, new VerifyResponse(request.expression(), validRoots, invalidRoots));
+    }
+
+    private ApiResponse searchByRoots(SearchRequest request) {
+        if (request.roots() == null || request.roots().isEmpty() || request.roots().contains(null)) {
+            return badRequest("The roots are missing");
+        }
+        double tolerance = request.tolerance() != null ? request.tolerance() : EquationEvaluator.PRECISION;
+        return new ApiResponse(200, equationRepository.findEquationSummariesByRoots(request.roots(), tolerance));
+    }
+
+    private ApiResponse listEquations(String query) {
+        Matcher rootCount = ROOT_COUNT_QUERY.matcher(query);
+        List<Equation> equations;
+        if (query.equals("singleRoot=true")) {
+            equations = equationRepository.findEquationsWithSingleRoot();
+        } else if (rootCount.matches()) {
+            equations = equationRepository.findEquationsWithRootCount(Integer.parseInt(rootCount.group(1)));
+        } else {
+            equations = equationRepository.findAll();
+        }
+        return new ApiResponse(200, equations.stream().map(EquationResponse::of).toList());
+    }
+
+    private ApiResponse getEquation(long id) {
+        Equation equation = equationRepository.findEquationById(id);
+        return equation != null
+                ? new ApiResponse(200, EquationResponse.of(equation))
+                : new ApiResponse(404, ErrorResponse.of("Equation with such ID is not present in the database"));
+    }
+
+    private ApiResponse deleteEquation(long id) {
+        if (equationRepository.deleteByIds(List.of(id)).equations() == 0) {
+            return new ApiResponse(404, ErrorResponse.of("Equation with such ID is not present in the database"));
+        }
+        return new ApiResponse(204, null);
+    }
+
+    private ApiResponse deleteEquations(DeleteRequest request) {
+        if (request.expressions() == null || request.expressions().contains(null)) {
+            return badRequest("The expressions are missing");
+        }
+        return new ApiResponse(200, equationRepository.deleteByExpressions(request.expressions()));
+    }
+
+    /**
+     * Runs the operations one after another, so that every operation sees the changes made by the previous ones.
+     */
+    private ApiResponse batch(BatchOperation[] operations) {
+        if (operations.length > MAX_BATCH_SIZE) {
+            return new ApiResponse(413, ErrorResponse.of("The batch has more than " + MAX_BATCH_SIZE + " operations"));
+        }
+        List<BatchResult> results = new ArrayList<>(operations.length);
+        for (BatchOperation operation : operations) {
+            if (operation == null || operation.method() == null || operation.path() == null) {
+                results.add(new BatchResult(400, ErrorResponse.of("The method or the path is missing")));
+            } else if (operation.path().startsWith("/batch")) {
+                results.add(new BatchResult(400, ErrorResponse.of("Batches cannot be nested")));
+            } else {
+                ApiResponse response = handle(operation.method(), operation.path(), operation.body());
+                results.add(new BatchResult(response.status(), response.body()));
+            }
+        }
+        return new ApiResponse(200, results);
+    }
+
+    private <T> T read(JsonNode body, Class<T> type) throws JsonProcessingException {
+        if (body == null || body instanceof NullNode) {
+            throw MismatchedInputException.from(null, type, "The request body is missing");
+        }
+        return objectMapper.treeToValue(body, type);
+    }
+
+    private static ApiResponse incorrectEquation(EquationError error) {
+        return new ApiResponse(400, new ErrorResponse("The equation is not correct: " + error.getMessage(),
+                error.position(), null));
+    }
+
+    private static ApiResponse badRequest(String message) {
+        return new ApiResponse(400, ErrorResponse.of(message));
+    }
+
+    private static ApiResponse methodNotAllowed() {
+        return new ApiResponse(405, ErrorResponse.of("Method not allowed"));
+    }
+
+}
@@ -0,0 +1,139 @@
+package org.vitaliistf.mathhelper.server;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.vitaliistf.mathhelper.concurrent.VirtualThreads;
+import org.vitaliistf.mathhelper.server.dto.ErrorResponse;
+import org.vitaliistf.mathhelper.service.EquationService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HTTP server exposing the {@link EquationApi} with JSON request and response bodies.
+ * Requests are handled on virtual threads on Java 21 and later, and on a fixed pool of platform threads otherwise.
+ * Every response has a known length, so clients can keep a connection alive and reuse it for many requests;
+ * many operations can also be sent in a single request to POST /batch.
+ */
+public class EquationServer implements AutoCloseable {
+
+    public static final int DEFAULT_PORT = 8080;
+
+    /**
+     * The maximum size of a request body in bytes, configurable with the "mathhelper.maxRequestBodySize"
+     * system property; larger requests are answered with 413.
+     */
+    public static final int MAX_REQUEST_BODY_SIZE = Integer.getInteger("mathhelper.maxRequestBodySize", 1 << 20);
+
+    private static final System.Logger LOGGER = System.getLogger(EquationServer.class.getName());
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final EquationApi api;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Constructs an EquationServer listening on the specified port; the server is not started.
+     *
+     * @param equationService The service performing the operations.
+     * @param port            The port to listen on, or 0 for any free port.
+     * @throws IOException If the port cannot be bound.
+     */
+    public EquationServer(EquationService equationService, int port) throws IOException {
+        this.api = new EquationApi(equationService, objectMapper);
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = VirtualThreads.newVirtualThreadPerTaskExecutor()
+                .orElseGet(() -> Executors.newFixedThreadPool(2 * Runtime.getRuntime().availableProcessors()));
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * Starts accepting requests in background threads.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return The port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the server, letting the requests being handled finish for up to a second.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    /**
+     * Handles a request, always answering it with a status code: errors thrown while handling it,
+     * including errors like StackOverflowError, are logged and answered with 500.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            int status;
+            byte[] responseBody;
+            try {
+                ApiResponse response = respond(exchange);
+                status = response.status();
+                responseBody = response.body() != null ? objectMapper.writeValueAsBytes(response.body()) : null;
+            } catch (IOException | RuntimeException | Error e) {
+                LOGGER.log(System.Logger.Level.ERROR, "Failed to handle " + exchange.getRequestMethod() + " "
+                        + exchange.getRequestURI(), e);
+                status = 500;
+                responseBody = objectMapper.writeValueAsBytes(ErrorResponse.of("Internal server error"));
+            }
+            send(exchange, status, responseBody);
+        }
+    }
+
+    private ApiResponse respond(HttpExchange exchange) throws IOException {
+        byte[] requestBody;
+        try (InputStream input = exchange.getRequestBody()) {
+            requestBody = input.readNBytes(MAX_REQUEST_BODY_SIZE + 1);
+        }
+        if (requestBody.length > MAX_REQUEST_BODY_SIZE) {
+            return tooLarge();
+        }
+        JsonNode body;
+        try {
+            body = requestBody.length > 0 ? objectMapper.readTree(requestBody) : null;
+        } catch (JsonProcessingException e) {
+            return new ApiResponse(400, ErrorResponse.of("Malformed request body"));
+        }
+        return api.handle(exchange.getRequestMethod(), exchange.getRequestURI().toString(), body);
+    }
+
+    private static ApiResponse tooLarge() {
+        return new ApiResponse(413, ErrorResponse.of("The request body is larger than "
+                + MAX_REQUEST_BODY_SIZE + " bytes"));
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] responseBody) throws IOException {
+        if (responseBody == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, responseBody.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(responseBody);
+        }
+    }
+
+}
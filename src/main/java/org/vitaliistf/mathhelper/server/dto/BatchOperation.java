@@ -0,0 +1,13 @@
+package org.vitaliistf.mathhelper.server.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * One of the operations of a batch request, described as a separate HTTP request would be.
+ *
+ * @param method The HTTP method.
+ * @param path   The path, optionally with a query.
+ * @param body   The JSON body, or null for none.
+ */
+public record BatchOperation(String method, String path, JsonNode body) {
+}
@@ -0,0 +1,13 @@
+package org.vitaliistf.mathhelper.server.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The result of one of the operations of a batch request.
+ *
+ * @param status The HTTP status the operation would have as a separate request.
+ * @param body   The response body, or null for none.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchResult(int status, Object body) {
+}
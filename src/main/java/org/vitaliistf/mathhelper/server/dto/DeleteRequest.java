@@ -0,0 +1,11 @@
+package org.vitaliistf.mathhelper.server.dto;
+
+import java.util.List;
+
+/**
+ * A request to delete the equations with the given expressions.
+ *
+ * @param expressions The expressions of the equations, matched exactly as they were saved.
+ */
+public record DeleteRequest(List<String> expressions) {
+}
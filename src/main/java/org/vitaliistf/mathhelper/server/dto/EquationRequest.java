@@ -0,0 +1,13 @@
+package org.vitaliistf.mathhelper.server.dto;
+
+import java.util.List;
+
+/**
+ * A request to save an equation.
+ *
+ * @param expression The equation.
+ * @param roots      The roots to save with the equation; values that are not roots are rejected. May be null.
+ * @param findRoots  Whether the roots should be found automatically instead.
+ */
+public record EquationRequest(String expression, List<Double> roots, boolean findRoots) {
+}
@@ -0,0 +1,74 @@
+package org.vitaliistf.mathhelper.server.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.vitaliistf.mathhelper.entity.Equation;
+import org.vitaliistf.mathhelper.entity.Root;
+import org.vitaliistf.mathhelper.evaluation.FoundRoots;
+
+import java.util.List;
+
+/**
+ * A saved equation with its roots.
+ *
+ * @param id            The identifier of the equation.
+ * @param expression    The equation.
+ * @param roots         The saved roots.
+ * @param rejectedRoots The requested roots that were not saved because they are not roots of the equation;
+ *                      only present in the response to saving an equation.
+ * @param everyValue    True if the roots were to be found and every value is a root, so none were saved;
+ *                      only present in that case.
+ * @param truncated     True if the roots were to be found and only the first ones were saved;
+ *                      only present in that case.
+ * @param equivalentId  The identifier of an algebraically identical equation saved before;
+ *                      only present in the response to saving an equation that has one.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record EquationResponse(Long id, String expression, List<Double> roots, List<Double> rejectedRoots,
+                               Boolean everyValue, Boolean truncated, Long equivalentId) {
+
+    /**
+     * Creates the response for a saved equation.
+     *
+     * @param equation The Equation entity.
+     * @return The response.
+     */
+    public static EquationResponse of(Equation equation) {
+        return of(equation, (List<Double>) null);
+    }
+
+    /**
+     * Creates the response for a saved equation with the roots that were rejected when saving it.
+     *
+     * @param equation      The Equation entity.
+     * @param rejectedRoots The rejected roots.
+     * @return The response.
+     */
+    public static EquationResponse of(Equation equation, List<Double> rejectedRoots) {
+        List<Double> roots = equation.getRoots().stream().map(Root::getValue).toList();
+        return new EquationResponse(equation.getId(), equation.getExpression(), roots, rejectedRoots, null, null,
+                null);
+    }
+
+    /**
+     * Creates the response for a saved equation with the roots found for it.
+     *
+     * @param equation The Equation entity.
+     * @param found    The roots found for the equation.
+     * @return The response.
+     */
+    public static EquationResponse of(Equation equation, FoundRoots found) {
+        List<Double> roots = equation.getRoots().stream().map(Root::getValue).toList();
+        return new EquationResponse(equation.getId(), equation.getExpression(), roots, null,
+                found.everyValue() ? true : null, found.truncated() ? true : null, null);
+    }
+
+    /**
+     * Returns this response with the identifier of an algebraically identical equation saved before.
+     *
+     * @param equivalentId The identifier of the equivalent equation, or null if there is none.
+     * @return The response.
+     */
+    public EquationResponse withEquivalentId(Long equivalentId) {
+        return new EquationResponse(id, expression, roots, rejectedRoots, everyValue, truncated, equivalentId);
+    }
+}
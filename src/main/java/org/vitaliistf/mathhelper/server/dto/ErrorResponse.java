@@ -0,0 +1,24 @@
+package org.vitaliistf.mathhelper.server.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The description of a rejected request.
+ *
+ * @param error        The message describing the error.
+ * @param position     The position of the error in the equation, if the equation is not correct.
+ * @param equivalentId The identifier of an equivalent saved equation, if the equation is already saved.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ErrorResponse(String error, Integer position, Long equivalentId) {
+
+    /**
+     * Creates an error response with only a message.
+     *
+     * @param error The message describing the error.
+     * @return The response.
+     */
+    public static ErrorResponse of(String error) {
+        return new ErrorResponse(error, null, null);
+    }
+}
@@ -0,0 +1,12 @@
+package org.vitaliistf.mathhelper.server.dto;
+
+import java.util.List;
+
+/**
+ * A request to find the equations having all the given roots.
+ *
+ * @param roots     The roots.
+ * @param tolerance The maximum difference between a given and a stored root, or null for the default precision.
+ */
+public record SearchRequest(List<Double> roots, Double tolerance) {
+}
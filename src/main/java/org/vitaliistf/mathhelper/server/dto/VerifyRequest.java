@@ -0,0 +1,12 @@
+package org.vitaliistf.mathhelper.server.dto;
+
+import java.util.List;
+
+/**
+ * A request to check which values are roots of an equation.
+ *
+ * @param expression The equation.
+ * @param roots      The values to check.
+ */
+public record VerifyRequest(String expression, List<Double> roots) {
+}
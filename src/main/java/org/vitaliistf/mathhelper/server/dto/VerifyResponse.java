@@ -0,0 +1,13 @@
+package org.vitaliistf.mathhelper.server.dto;
+
+import java.util.List;
+
+/**
+ * The values that are and are not roots of an equation.
+ *
+ * @param expression   The equation.
+ * @param validRoots   The values that are roots of the equation.
+ * @param invalidRoots The values that are not roots of the equation.
+ */
+public record VerifyResponse(String expression, List<Double> validRoots, List<Double> invalidRoots) {
+}
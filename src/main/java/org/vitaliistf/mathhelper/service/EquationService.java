@@ -0,0 +1,106 @@
+package org.vitaliistf.mathhelper.service;
+
+import org.vitaliistf.mathhelper.entity.Equation;
+import org.vitaliistf.mathhelper.evaluation.CanonicalForm;
+import org.vitaliistf.mathhelper.evaluation.CompilationResult;
+import org.vitaliistf.mathhelper.evaluation.CompiledEquation;
+import org.vitaliistf.mathhelper.evaluation.CompiledEquationCache;
+import org.vitaliistf.mathhelper.evaluation.EquationNormalizer;
+import org.vitaliistf.mathhelper.evaluation.FoundRoots;
+import org.vitaliistf.mathhelper.evaluation.RootFinder;
+import org.vitaliistf.mathhelper.repository.EquationRepository;
+
+import java.util.Optional;
+
+/**
+ * Operations on equations shared by the console and the HTTP front ends.
+ */
+public class EquationService {
+
+    private final EquationRepository equationRepository;
+    private final RootFinder rootFinder;
+
+    /**
+     * Constructs an EquationService with the default RootFinder.
+     *
+     * @param equationRepository The repository storing the equations.
+     */
+    public EquationService(EquationRepository equationRepository) {
+        this(equationRepository, new RootFinder());
+    }
+
+    /**
+     * Constructs an EquationService with the specified RootFinder.
+     *
+     * @param equationRepository The repository storing the equations.
+     * @param rootFinder         The solver used to find roots automatically.
+     */
+    public EquationService(EquationRepository equationRepository, RootFinder rootFinder) {
+        this.equationRepository = equationRepository;
+        this.rootFinder = rootFinder;
+    }
+
+    /**
+     * Returns the repository storing the equations.
+     *
+     * @return The EquationRepository.
+     */
+    public EquationRepository getEquationRepository() {
+        return equationRepository;
+    }
+
+    /**
+     * Validates and compiles an equation, ignoring spaces.
+     *
+     * @param expression The equation entered by the user.
+     * @return The compiled equation, or the first error in it.
+     */
+    public CompilationResult compile(String expression) {
+        return CompiledEquationCache.shared().compile(removeSpaces(expression));
+    }
+
+    /**
+     * Finds a saved equation algebraically identical to the specified one.
+     *
+     * @param equation The compiled equation.
+     * @return The first equivalent saved equation, or empty if there is none.
+     */
+    public Optional<Equation> findEquivalent(CompiledEquation equation) {
+        return canonicalFormOf(equation)
+                .flatMap(key -> equationRepository.findEquationsByCanonicalForm(key).stream().findFirst());
+    }
+
+    /**
+     * Creates a new, unsaved equation entity with its canonical form.
+     *
+     * @param expression The equation entered by the user.
+     * @param equation   The compiled equation.
+     * @return The Equation entity without roots.
+     */
+    public Equation newEquation(String expression, CompiledEquation equation) {
+        Equation entity = new Equation(removeSpaces(expression));
+        entity.setCanonicalForm(canonicalFormOf(equation).orElse(null));
+        return entity;
+    }
+
+    /**
+     * Finds the roots of the equation in the default interval of the RootFinder.
+     *
+     * @param equation The compiled equation.
+     * @return The distinct roots in ascending order, or the result for an equation satisfied by every value.
+     */
+    public FoundRoots findRoots(CompiledEquation equation) {
+        return rootFinder.findRoots(equation);
+    }
+
+    private static Optional<String> canonicalFormOf(CompiledEquation equation) {
+        return EquationNormalizer.normalize(equation)
+                .map(CanonicalForm::key)
+                .filter(key -> key.length() <= Equation.CANONICAL_FORM_LENGTH);
+    }
+
+    private static String removeSpaces(String input) {
+        return input.replaceAll(" ", "");
+    }
+
+}
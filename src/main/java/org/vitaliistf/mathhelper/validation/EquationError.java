@@ -0,0 +1,54 @@
+package org.vitaliistf.mathhelper.validation;
+
+/**
+ * Describes why an equation is not correct and where the problem is.
+ *
+ * @param position The zero-based index of the offending character, or the length of the equation
+ *                 if the problem is at its end.
+ * @param reason   The reason why the equation is not correct.
+ */
+public record EquationError(int position, Reason reason) {
+
+    /**
+     * Returns a human-readable description of the error with a one-based position.
+     *
+     * @return The error message.
+     */
+    public String getMessage() {
+        return reason.getDescription() + " at position " + (position + 1);
+    }
+
+    /**
+     * Reasons why an equation is not correct.
+     */
+    public enum Reason {
+        EMPTY_EQUATION("The equation is empty"),
+        UNEXPECTED_CHARACTER("Unexpected character"),
+        CONSECUTIVE_OPERATORS("Two operators in a row"),
+        MISSING_OPERATOR("Missing operator next to x"),
+        UNMATCHED_PARENTHESIS("Closing parenthesis without an opening one"),
+        UNCLOSED_PARENTHESIS("Opening parenthesis is not closed"),
+        MISSING_OPERAND("Expected a number, x or an opening parenthesis"),
+        MALFORMED_NUMBER("Malformed number"),
+        MISSING_EQUALS_SIGN("Expected '='"),
+        EXTRA_EQUALS_SIGN("More than one '='"),
+        TOO_DEEPLY_NESTED("Parentheses or signs are nested too deeply"),
+        TOO_MANY_OPERATIONS("Too many operations");
+
+        private final String description;
+
+        Reason(String description) {
+            this.description = description;
+        }
+
+        /**
+         * Returns a human-readable description of the reason.
+         *
+         * @return The description.
+         */
+        public String getDescription() {
+            return description;
+        }
+    }
+
+}
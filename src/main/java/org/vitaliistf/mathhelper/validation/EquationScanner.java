@@ -0,0 +1,98 @@
+package org.vitaliistf.mathhelper.validation;
+
+import org.vitaliistf.mathhelper.validation.EquationError.Reason;
+
+/**
+ * A state machine checking the characters of an equation one by one.
+ * It remembers the kind of the last significant character and the depth of the open parentheses,
+ * so an equation can be checked in the same pass that parses it.
+ */
+public class EquationScanner {
+
+    /**
+     * The maximum depth of nested parentheses, so that equations can be parsed and evaluated recursively
+     * without overflowing the stack.
+     */
+    public static final int MAX_DEPTH = 256;
+
+    /**
+     * Kinds of characters: '+', '*', '/' and '=' are operators, while '-' may also be a unary minus.
+     */
+    private static final int OPERATOR = 0;
+    private static final int MINUS = 1;
+    private static final int DOT = 2;
+    private static final int VARIABLE = 3;
+    private static final int DIGIT = 4;
+
+    private int last = OPERATOR; // the equation is checked as if it followed '='
+    private int depth;
+
+    /**
+     * Checks the next character of the equation.
+     *
+     * @param ch The next character.
+     * @return The reason why the character is not allowed at this place, or null if it is allowed.
+     */
+    public Reason next(char ch) {
+        int current;
+        switch (ch) {
+            case ' ' -> {
+                return null;
+            }
+            case '(' -> {
+                if (depth == MAX_DEPTH) {
+                    return Reason.TOO_DEEPLY_NESTED;
+                }
+                depth++;
+                return null;
+            }
+            case ')' -> {
+                if (depth == 0) {
+                    return Reason.UNMATCHED_PARENTHESIS;
+                }
+                depth--;
+                return null;
+            }
+            case '+', '*', '/', '=' -> current = OPERATOR;
+            case '-' -> current = MINUS;
+            case '.' -> current = DOT;
+            case 'x' -> current = VARIABLE;
+            default -> {
+                if (ch < '0' || ch > '9') {
+                    return Reason.UNEXPECTED_CHARACTER;
+                }
+                current = DIGIT;
+            }
+        }
+
+        if (isNotValidOperatorSequence(last, current)) {
+            return Reason.CONSECUTIVE_OPERATORS;
+        }
+        if (isNotValidVariableSequence(last, current) || isNotValidVariableSequence(current, last)) {
+            return Reason.MISSING_OPERATOR;
+        }
+        last = current;
+        return null;
+    }
+
+    /**
+     * Checks the state after the last character of the equation.
+     *
+     * @return The reason why the equation cannot end here, or null if it can.
+     */
+    public Reason finish() {
+        return depth == 0 ? null : Reason.UNCLOSED_PARENTHESIS;
+    }
+
+    private static boolean isNotValidOperatorSequence(int last, int current) {
+        return last == OPERATOR && current == OPERATOR;
+    }
+
+    /**
+     * Checks that 'x' is only adjacent to operators or minus signs, so that "2x" or "x1" are rejected.
+     */
+    private static boolean isNotValidVariableSequence(int neighbour, int variable) {
+        return variable == VARIABLE && neighbour != OPERATOR && neighbour != MINUS;
+    }
+
+}
@@ -1,22 +1,18 @@
 package org.vitaliistf.mathhelper.validation;
 
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.Stack;
+import org.vitaliistf.mathhelper.metrics.Counter;
+import org.vitaliistf.mathhelper.metrics.Metrics;
+import org.vitaliistf.mathhelper.metrics.Timer;
+import org.vitaliistf.mathhelper.metrics.ValidateEvent;
 
 /**
  * Utility class for validating mathematical equations.
+ * The equation is checked in a single pass over its characters by an {@link EquationScanner}.
  */
 public class EquationValidator {
 
-    private static final Set<String> OPERATORS = new HashSet<>(
-            Arrays.asList("+", "*", "/", "=")
-    );
-
-    private static final Set<String> ALLOWED_SYMBOLS = new HashSet<>(
-            Arrays.asList("+", "*", "/", "=", "-", "(", ")", ".", "x")
-    );
+    private static final Timer IS_VALID = Metrics.timer("validation.isValid");
+    private static final Counter REJECTED = Metrics.counter("validation.rejected");
 
     /**
      * Validates the given mathematical equation.
@@ -24,68 +20,37 @@ public class EquationValidator {
      * @param equation The mathematical equation to validate.
      * @return True if the equation is valid, false otherwise.
      */
-    public static boolean isValid(String equation) {
-        String[] tokens = tokenizeEquation(equation);
-        String lastToken = "=";
-        Stack<String> parentheses = new Stack<>();
-
-        for (String currentToken : tokens) {
-            if (currentToken.equals(" ")) {
-                continue;
-            }
-            if (!isValidToken(currentToken)) {
-                return false;
-            }
-
-            if (currentToken.equals("(")) {
-                parentheses.push(currentToken);
-            } else if (currentToken.equals(")") && parentheses.isEmpty()) {
-                return false;
-            } else if (currentToken.equals(")")) {
-                parentheses.pop();
-            } else if (isNotValidOperatorSequence(lastToken, currentToken)
-                    || isNotValidMVariableSequence(lastToken, currentToken)
-                    || isNotValidMVariableSequence(currentToken, lastToken)) {
-                return false;
-            } else if (isValidNumericSequence(lastToken, currentToken)) {
-                lastToken += currentToken;
-            } else {
-                lastToken = currentToken;
-            }
-
+    public static boolean isValid(CharSequence equation) {
+        long start = IS_VALID.start();
+        ValidateEvent event = new ValidateEvent();
+        event.begin();
+        boolean valid = scan(equation);
+        event.end();
+        if (event.shouldCommit()) {
+            event.expressionLength = equation.length();
+            event.valid = valid;
+            event.commit();
         }
-        return parentheses.isEmpty();
-    }
-
-    private static boolean isValidNumericSequence(String lastToken, String currentToken) {
-        return isNumeric(currentToken) && isNumeric(lastToken);
-    }
-
-    private static boolean isNotValidMVariableSequence(String token1, String token2) {
-        return !OPERATORS.contains(token1) && "x".equals(token2) && !"-".equals(token1);
-    }
-
-    private static boolean isNotValidOperatorSequence(String lastToken, String currentToken) {
-        return OPERATORS.contains(lastToken) && OPERATORS.contains(currentToken);
-    }
-
-    private static String[] tokenizeEquation(String equation) {
-        return equation.split("");
-    }
-
-    private static boolean isValidToken(String token) {
-        return ALLOWED_SYMBOLS.contains(token) || isNumeric(token);
+        IS_VALID.stop(start);
+        if (!valid) {
+            REJECTED.increment();
+        }
+        return valid;
     }
 
-    private static boolean isNumeric(String str) {
-        if (str == null) {
+    private static boolean scan(CharSequence equation) {
+        int length = equation.length();
+        if (length == 0) {
             return false;
         }
-        try {
-            Double.parseDouble(str);
-            return true;
-        } catch (NumberFormatException e) {
-            return str.length() > 1 && str.charAt(0) == '-' && isNumeric(str.substring(1));
+
+        EquationScanner scanner = new EquationScanner();
+        for (int i = 0; i < length; i++) {
+            if (scanner.next(equation.charAt(i)) != null) {
+                return false;
+            }
         }
+        return scanner.finish() == null;
     }
+
 }
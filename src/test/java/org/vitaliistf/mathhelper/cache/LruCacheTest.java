@@ -0,0 +1,83 @@
+package org.vitaliistf.mathhelper.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LruCacheTest {
+
+    @Test
+    public void testHitsAndMisses() {
+        LruCache<String, Integer> cache = new LruCache<>(4);
+        assertNull(cache.getIfPresent("a"));
+        cache.put("a", 1);
+        assertEquals(1, cache.getIfPresent("a"));
+        assertEquals(2, cache.get("b", key -> 2));
+        assertEquals(2, cache.get("b", key -> 3));
+
+        CacheStatistics statistics = cache.statistics();
+        assertEquals(2, statistics.hits());
+        assertEquals(2, statistics.misses());
+        assertEquals(2, statistics.size());
+        assertEquals(0.5, statistics.hitRate());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedValueIsEvicted() {
+        LruCache<Integer, Integer> cache = new LruCache<>(3);
+        cache.put(1, 1);
+        cache.put(2, 2);
+        cache.put(3, 3);
+        cache.getIfPresent(1);
+        cache.put(4, 4);
+
+        assertNull(cache.getIfPresent(2));
+        assertNotNull(cache.getIfPresent(1));
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.statistics().evictions());
+    }
+
+    @Test
+    public void testSizeIsBoundedUnderConcurrentUse() throws Exception {
+        LruCache<Integer, Integer> cache = new LruCache<>(1000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                int offset = thread * 10_000;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        assertEquals(offset + i, cache.get(offset + i, key -> key));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        CacheStatistics statistics = cache.statistics();
+        assertTrue(statistics.size() <= 1000);
+        assertEquals(80_000, statistics.misses());
+        assertEquals(80_000 - statistics.size(), statistics.evictions());
+    }
+
+    @Test
+    public void testInvalidation() {
+        LruCache<String, Integer> cache = new LruCache<>(100);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.invalidate("a");
+        assertNull(cache.getIfPresent("a"));
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,39 @@
+package org.vitaliistf.mathhelper.entity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class ExpressionHashTest {
+
+    @Test
+    public void testWhitespaceIsIgnored() {
+        // Test that expressions differing only in whitespace have the same hash
+        assertEquals(ExpressionHash.of("x*x=4"), ExpressionHash.of(" x * x\t= 4 "));
+        assertNotEquals(ExpressionHash.of("x*x=4"), ExpressionHash.of("x*x=5"));
+    }
+
+    @Test
+    public void testHashesAreDistinct() {
+        // Test that many similar expressions have distinct hashes
+        Set<Long> hashes = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            hashes.add(ExpressionHash.of("x=" + i));
+        }
+        assertEquals(100_000, hashes.size());
+    }
+
+    @Test
+    public void testEquationKeepsHashOfExpression() {
+        // Test that the hash follows the expression of an equation
+        Equation equation = new Equation("x-1=0");
+        assertEquals(ExpressionHash.of("x-1=0"), equation.getExpressionHash());
+
+        equation.setExpression("x-2=0");
+        assertEquals(ExpressionHash.of("x-2=0"), equation.getExpressionHash());
+    }
+
+}
@@ -0,0 +1,36 @@
+package org.vitaliistf.mathhelper.entity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class PackedRootsTest {
+
+    @Test
+    public void testPackAndUnpack() {
+        // Test that root values are unpacked exactly as they were packed
+        double[] values = {2, -2, 0.1, -0.0, Double.MAX_VALUE, Double.MIN_VALUE, Double.NaN};
+        byte[] packed = PackedRoots.pack(values);
+
+        assertEquals(values.length * Double.BYTES, packed.length);
+        assertArrayEquals(values, PackedRoots.unpack(packed));
+        assertEquals(0, PackedRoots.unpack(null).length);
+        assertEquals(0, PackedRoots.unpack(new byte[0]).length);
+        assertThrows(IllegalArgumentException.class, () -> PackedRoots.unpack(new byte[7]));
+    }
+
+    @Test
+    public void testEquationRootValues() {
+        // Test that the root values of an equation follow its list of roots
+        Equation equation = new Equation("x*x=4");
+        equation.addRoot(2);
+        equation.addRoot(-2);
+        assertArrayEquals(new double[]{2, -2}, equation.getRootValues());
+        assertArrayEquals(PackedRoots.pack(equation.getRoots()), PackedRoots.pack(new double[]{2, -2}));
+
+        equation.removeRoot(equation.getRoots().get(0));
+        assertArrayEquals(new double[]{-2}, equation.getRootValues());
+        assertNull(equation.getPackedRoots());
+    }
+
+}
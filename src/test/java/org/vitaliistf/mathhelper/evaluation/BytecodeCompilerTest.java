@@ -0,0 +1,82 @@
+package org.vitaliistf.mathhelper.evaluation;
+
+import org.junit.jupiter.api.Test;
+import org.vitaliistf.mathhelper.evaluation.BinaryOperation.Operator;
+import org.vitaliistf.mathhelper.metrics.Metrics;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.function.DoubleUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BytecodeCompilerTest {
+
+    private static final String[] EQUATIONS = {
+            "2*x+5=17", "-1.3*5/x=1.2", "2*x*x=10", "2*(x+5+x)+5=10", "17=2*x+5",
+            "2*(x+5+-x)+5=10", "2*((x+5+-x)+5)=10+(7+1)", "-x*-x/3-.5=-0*x", "x/0=0/0"
+    };
+
+    private static final double[] VALUES = {0, -0.0, 1, -1, 2.5, 1e-5, -3.75e-7, 1e12, 123456.789};
+
+    @Test
+    public void testResultsAreBitIdenticalToStatefulEvaluationHelper() {
+        for (String equation : EQUATIONS) {
+            Optional<DoubleUnaryOperator> compiled = BytecodeCompiler.compile(CompiledEquation.compile(equation));
+            assertTrue(compiled.isPresent(), equation);
+
+            String[] sides = equation.split("=");
+            for (double x : VALUES) {
+                double expected = interpret(sides[0], x) - interpret(sides[1], x);
+                assertEquals(Double.doubleToLongBits(expected),
+                        Double.doubleToLongBits(compiled.get().applyAsDouble(x)), equation + " at x = " + x);
+            }
+        }
+    }
+
+    @Test
+    public void testEquationIsCompiledAfterThreshold() {
+        int threshold = CompiledEquation.COMPILE_THRESHOLD;
+        CompiledEquation.COMPILE_THRESHOLD = 5;
+        try {
+            CompiledEquation equation = CompiledEquation.compile("2*x+5=17");
+            for (int i = 0; i < 4; i++) {
+                assertTrue(equation.isSatisfiedBy(6));
+            }
+            assertFalse(equation.isBytecodeCompiled());
+
+            assertTrue(equation.isSatisfiedBy(6));
+            assertTrue(equation.isBytecodeCompiled());
+            assertTrue(equation.isSatisfiedBy(6));
+            assertFalse(equation.isSatisfiedBy(5));
+        } finally {
+            CompiledEquation.COMPILE_THRESHOLD = threshold;
+        }
+    }
+
+    @Test
+    public void testFallbackToInterpreterWhenMethodIsTooLarge() {
+        // about 16k multiplications do not fit into the 64 KB method size limit
+        CompiledEquation equation = new CompiledEquation(sumOfTerms(14), new Constant(0));
+        long fallbacks = Metrics.counter("evaluation.bytecode.fallbacks").getCount();
+
+        assertTrue(BytecodeCompiler.compile(equation).isEmpty());
+        assertEquals(fallbacks + 1, Metrics.counter("evaluation.bytecode.fallbacks").getCount());
+        equation.compileBytecode();
+        assertFalse(equation.isBytecodeCompiled());
+        assertEquals(16384 * 1.5 * 2, equation.residual(2));
+    }
+
+    private static Expression sumOfTerms(int depth) {
+        if (depth == 0) {
+            return new BinaryOperation(Operator.MULTIPLY, Variable.X, new Constant(1.5));
+        }
+        return new BinaryOperation(Operator.ADD, sumOfTerms(depth - 1), sumOfTerms(depth - 1));
+    }
+
+    private static double interpret(String expression, double x) {
+        String value = Double.doubleToRawLongBits(x) == Double.doubleToRawLongBits(-0.0)
+                ? "-0" : new BigDecimal(x).toPlainString();
+        return new StatefulEvaluationHelper(expression.replaceAll("x", "(" + value + ")")).parse();
+    }
+}
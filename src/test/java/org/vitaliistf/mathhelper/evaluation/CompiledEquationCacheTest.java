@@ -0,0 +1,52 @@
+package org.vitaliistf.mathhelper.evaluation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledEquationCacheTest {
+
+    @Test
+    public void testEquationIsParsedOnce() {
+        CompiledEquationCache cache = new CompiledEquationCache(16);
+        CompiledEquation first = cache.compile("2*x+5=17").equation();
+        CompiledEquation second = cache.compile("2 * x + 5 = 17").equation();
+
+        assertSame(first, second);
+        assertEquals(1, cache.statistics().hits());
+        assertEquals(1, cache.statistics().misses());
+    }
+
+    @Test
+    public void testInvalidEquationsAreNotCached() {
+        CompiledEquationCache cache = new CompiledEquationCache(16);
+        assertFalse(cache.compile("2x+5=17").isSuccessful());
+        assertFalse(cache.compile("2x+5=17").isSuccessful());
+        assertEquals(0, cache.statistics().size());
+    }
+
+    @Test
+    public void testEquationsAreEvicted() {
+        CompiledEquationCache cache = new CompiledEquationCache(2);
+        cache.compile("x=1");
+        cache.compile("x=2");
+        cache.compile("x=3");
+        assertEquals(2, cache.statistics().size());
+        assertEquals(1, cache.statistics().evictions());
+    }
+
+    @Test
+    public void testLenientlyParsedEquationsAreCachedApart() {
+        CompiledEquationCache cache = new CompiledEquationCache(16);
+        CompiledEquation first = cache.compileLeniently("x=2=3");
+        CompiledEquation second = cache.compileLeniently("x = 2 = 3");
+
+        assertSame(first, second);
+        assertEquals(1, cache.statistics().size());
+        assertEquals(1, cache.statistics().hits());
+        assertTrue(first.isSatisfiedBy(2));
+        assertFalse(cache.compile("x=2=3").isSuccessful());
+        assertSame(cache.compile("2*x=4").equation(), cache.compileLeniently("2*x=4"));
+        assertThrows(IllegalArgumentException.class, () -> cache.compileLeniently("2*x"));
+    }
+}
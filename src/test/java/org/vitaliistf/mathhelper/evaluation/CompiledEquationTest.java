@@ -0,0 +1,60 @@
+package org.vitaliistf.mathhelper.evaluation;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledEquationTest {
+
+    private static final String[] EXPRESSIONS = {
+            "2*x+5", "-1.3*5/x", "2*x*x", "2*(x+5+x)+5", "2*((x+5+-x)+5)", "10+(7+1)", "-x*-x/3-.5", "x/0"
+    };
+
+    private static final double[] VALUES = {0, -0.0, 1, -1, 2.5, 1e-5, -3.75e-7, 1e12, 123456.789};
+
+    @Test
+    public void testCompiledEquationIsReusable() {
+        CompiledEquation equation = CompiledEquation.compile("2*x*x=8");
+        assertTrue(equation.isSatisfiedBy(2));
+        assertTrue(equation.isSatisfiedBy(-2));
+        assertFalse(equation.isSatisfiedBy(3));
+    }
+
+    @Test
+    public void testScientificNotationRoot() {
+        // String.valueOf(1e-5) is "1.0E-5", which could not be substituted into the text
+        assertTrue(EquationEvaluator.evaluate("x*100000=1", 1e-5));
+        assertTrue(CompiledEquation.compile("2*x=-0.0000006").isSatisfiedBy(-3e-7));
+    }
+
+    @Test
+    public void testResultsMatchStatefulEvaluationHelper() {
+        for (String expression : EXPRESSIONS) {
+            Expression tree = ExpressionParser.parse(expression);
+            for (double x : VALUES) {
+                String substituted = expression.replaceAll("x", "(" + toPlainString(x) + ")");
+                double expected = new StatefulEvaluationHelper(substituted).parse();
+                assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(tree.evaluate(x)),
+                        expression + " at x = " + x);
+            }
+        }
+    }
+
+    @Test
+    public void testConstantSubexpressionsAreFolded() {
+        assertEquals(new Constant(18), ExpressionParser.parse("10+(7+1)"));
+        assertInstanceOf(BinaryOperation.class, ExpressionParser.parse("2*x+5"));
+    }
+
+    @Test
+    public void testEquationWithoutRightSide() {
+        assertThrows(IllegalArgumentException.class, () -> CompiledEquation.compile("2*x+5"));
+    }
+
+    private static String toPlainString(double x) {
+        String plain = new BigDecimal(x).toPlainString();
+        return Double.doubleToRawLongBits(x) == Double.doubleToRawLongBits(-0.0) ? "-0" : plain;
+    }
+}
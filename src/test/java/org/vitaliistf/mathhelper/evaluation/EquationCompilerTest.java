@@ -0,0 +1,96 @@
+package org.vitaliistf.mathhelper.evaluation;
+
+import org.junit.jupiter.api.Test;
+import org.vitaliistf.mathhelper.validation.EquationError;
+import org.vitaliistf.mathhelper.validation.EquationError.Reason;
+import org.vitaliistf.mathhelper.validation.EquationScanner;
+import org.vitaliistf.mathhelper.validation.EquationValidator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EquationCompilerTest {
+
+    @Test
+    public void testValidEquations() {
+        String[] equations = {
+                "2*x+5=17", "-1.3*5/x=1.2", "2*x*x=10", "2*(x+5+x)+5=10", "17=2*x+5",
+                "2*(x+5+-x)+5=10", "2*((x+5+-x)+5)=10+(7+1)", "2 * x + 5 = 17"
+        };
+        for (String equation : equations) {
+            CompilationResult result = EquationCompiler.compile(equation);
+            assertTrue(result.isSuccessful(), equation);
+            assertNull(result.error());
+            assertTrue(EquationValidator.isValid(equation));
+        }
+    }
+
+    @Test
+    public void testCompiledEquationIsEvaluable() {
+        CompiledEquation equation = EquationCompiler.compile("2*(x+6+x)+5=25").equation();
+        assertTrue(equation.isSatisfiedBy(2));
+        assertFalse(equation.isSatisfiedBy(3));
+    }
+
+    @Test
+    public void testValidationErrors() {
+        assertError("2*x+5=abc", 6, Reason.UNEXPECTED_CHARACTER);
+        assertError("2x+5=17", 1, Reason.MISSING_OPERATOR);
+        assertError("17=2*x1+5", 6, Reason.MISSING_OPERATOR);
+        assertError("2*(x+5=10", 9, Reason.UNCLOSED_PARENTHESIS);
+        assertError("17=2*x++5", 7, Reason.CONSECUTIVE_OPERATORS);
+        assertError("2*(x+5+x))+5=10", 9, Reason.UNMATCHED_PARENTHESIS);
+        assertError("", 0, Reason.EMPTY_EQUATION);
+    }
+
+    @Test
+    public void testErrorsAcceptedByValidator() {
+        // Inputs passing EquationValidator that cannot be evaluated
+        assertError("2*x+5=", 6, Reason.MISSING_OPERAND);
+        assertError("2*x+5", 5, Reason.MISSING_EQUALS_SIGN);
+        assertError("x=1=x", 3, Reason.EXTRA_EQUALS_SIGN);
+        assertError("1..2=x", 0, Reason.MALFORMED_NUMBER);
+        assertError("()x=1", 1, Reason.MISSING_OPERAND);
+        assertError("2(3)=6", 1, Reason.UNEXPECTED_CHARACTER);
+    }
+
+    @Test
+    public void testNestingDepthIsLimited() {
+        // Test that deep nesting is reported as an error instead of overflowing the stack
+        int limit = EquationScanner.MAX_DEPTH;
+        String allowed = "(".repeat(limit) + "x" + ")".repeat(limit) + "=1";
+        assertTrue(EquationCompiler.compile(allowed).isSuccessful());
+        assertTrue(EquationValidator.isValid(allowed));
+
+        String deep = "(".repeat(100_000) + "x" + ")".repeat(100_000) + "=1";
+        assertError(deep, limit, Reason.TOO_DEEPLY_NESTED);
+        assertError("1=" + "-".repeat(100_000) + "x", 2 + limit, Reason.TOO_DEEPLY_NESTED);
+        assertFalse(EquationValidator.isValid(deep));
+        EquationSyntaxException exception =
+                assertThrows(EquationSyntaxException.class, () -> CompiledEquation.compile(deep));
+        assertEquals(new EquationError(limit, Reason.TOO_DEEPLY_NESTED), exception.getError());
+    }
+
+    @Test
+    public void testOperationCountIsLimited() {
+        // Test that a long chain of operations, as deep as it is long once parsed, is reported as an error
+        int limit = ExpressionParser.MAX_OPERATIONS;
+        String allowed = "x" + "+x".repeat(limit) + "=1";
+        assertTrue(EquationCompiler.compile(allowed).equation().isSatisfiedBy(1.0 / (limit + 1)));
+
+        assertError("x" + "+x".repeat(100_000) + "=1", 2 * limit + 1, Reason.TOO_MANY_OPERATIONS);
+        assertError("x*x=" + "x-".repeat(limit) + "1", 4 + 2 * limit - 1, Reason.TOO_MANY_OPERATIONS);
+    }
+
+    @Test
+    public void testErrorMessage() {
+        EquationError error = EquationCompiler.compile("2x+5=17").error();
+        assertEquals("Missing operator next to x at position 2", error.getMessage());
+    }
+
+    private static void assertError(String equation, int position, Reason reason) {
+        CompilationResult result = EquationCompiler.compile(equation);
+        assertFalse(result.isSuccessful(), equation);
+        assertNull(result.equation());
+        assertEquals(new EquationError(position, reason), result.error(), equation);
+    }
+}
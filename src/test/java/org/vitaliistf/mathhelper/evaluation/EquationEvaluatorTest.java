@@ -3,6 +3,9 @@ package org.vitaliistf.mathhelper.evaluation;
 import org.junit.jupiter.api.Test;
 import org.vitaliistf.mathhelper.evaluation.EquationEvaluator;
 
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -49,4 +52,35 @@ public class EquationEvaluatorTest {
         String equation = "2*((x+5+-x)+5)=10+(7+1)";
         assertFalse(EquationEvaluator.evaluate(equation, 5));
     }
+
+    @Test
+    public void testEvaluateBatch() {
+        String equation = "2*x*x=8";
+        double[] xs = {2, -2, 3, 0, 2.0000001};
+        BatchEvaluationResult result = EquationEvaluator.evaluateBatch(equation, xs);
+
+        BitSet expectedRoots = new BitSet();
+        expectedRoots.set(0, 2);
+        assertEquals(expectedRoots, result.roots());
+        assertEquals(10, result.residuals()[2]);
+        assertEquals(-8, result.residuals()[3]);
+    }
+
+    @Test
+    public void testEvaluateBatchMatchesEvaluate() {
+        String equation = "2*((x+5+-x)+5)/(x-1)=-x*3+(7+1)/x";
+        CompiledEquation compiledEquation = CompiledEquation.compile(equation);
+        double[] xs = new double[2000];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = (i - 1000) / 7.0;
+        }
+
+        BatchEvaluationResult result = compiledEquation.evaluateBatch(xs);
+
+        for (int i = 0; i < xs.length; i++) {
+            assertEquals(Double.doubleToLongBits(compiledEquation.residual(xs[i])),
+                    Double.doubleToLongBits(result.residuals()[i]));
+            assertEquals(EquationEvaluator.evaluate(equation, xs[i]), result.isRoot(i));
+        }
+    }
 }
@@ -0,0 +1,88 @@
+package org.vitaliistf.mathhelper.evaluation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EquationNormalizerTest {
+
+    @Test
+    public void testPolynomialEquation() {
+        CanonicalForm form = normalize("2*(x+5+x)+5=10");
+        assertTrue(form.isPolynomial());
+        assertEquals(Polynomial.of(5, 4), form.numerator());
+        assertEquals(-5.0 / 4, form.solve().orElseThrow()[0], 1e-12);
+    }
+
+    @Test
+    public void testRationalEquation() {
+        CanonicalForm form = normalize("-1.3*5/x=1.2");
+        assertFalse(form.isPolynomial());
+        assertArrayEquals(new double[]{-6.5 / 1.2}, form.solve().orElseThrow(), 1e-12);
+    }
+
+    @Test
+    public void testHornerEvaluationMatchesTree() {
+        String equation = "2*((x+5+-x)+5)/(x-1)=-x*3+(7+1)/x";
+        CompiledEquation compiledEquation = CompiledEquation.compile(equation);
+        CanonicalForm form = EquationNormalizer.normalize(compiledEquation).orElseThrow();
+        for (double x = -10.25; x < 10; x += 0.5) {
+            assertEquals(compiledEquation.residual(x), form.residual(x), 1e-9);
+        }
+    }
+
+    @Test
+    public void testAlgebraicallyIdenticalEquationsHaveSameKey() {
+        String key = normalize("2*x*x=10").key();
+        assertEquals(key, normalize("10=2*x*x").key());
+        assertEquals(key, normalize("x*(x+1)-x=5").key());
+        assertEquals(key, normalize("x*x/5=1").key());
+        assertNotEquals(key, normalize("x*x=4").key());
+        assertEquals(normalize("1/x=2").key(), normalize("2=1/x").key());
+    }
+
+    @Test
+    public void testCommonFactorIsCancelledInKey() {
+        assertEquals(normalize("x=1").key(), normalize("x*x/x=1").key());
+        assertEquals(normalize("x-1=0").key(), normalize("(x*x-1)/(x+1)=0").key());
+        assertEquals(normalize("1/(x-3)=2").key(), normalize("(x+0.1)/((x-3)*(x+0.1))=2").key());
+        assertNotEquals(normalize("x*x-1=0").key(), normalize("(x*x-1)/(x+2)=0").key());
+    }
+
+    @Test
+    public void testPolynomialsAreSolvedInClosedForm() {
+        assertRoots("2*x+5=17", 6);
+        assertRoots("2*x*x=10", -Math.sqrt(5), Math.sqrt(5));
+        assertRoots("x*x=-1");
+        assertRoots("(x-1)*(x-2)*(x-3)=0", 1, 2, 3);
+        assertRoots("x*x*x=8", 2);
+        assertRoots("(x-1)*(x-1)*(x+2)=0", -2, 1);
+        assertRoots("(x-1)*(x+2)*(x-3)*(x+4)=0", -4, -2, 1, 3);
+        assertRoots("x*x*x*x-5*x*x+4=0", -2, -1, 1, 2);
+        assertRoots("x*x*x*x=-1");
+    }
+
+    @Test
+    public void testRootsOfDenominatorAreExcluded() {
+        assertRoots("x*x/x=0");
+    }
+
+    @Test
+    public void testEquationsWithoutClosedForm() {
+        assertTrue(normalize("x*x*x*x*x=1").solve().isEmpty());
+        assertTrue(normalize("x-x=0").solve().isEmpty());
+        assertTrue(EquationNormalizer.normalize(CompiledEquation.compile("x/0=1")).isEmpty());
+        assertEquals(Optional.empty(), EquationNormalizer.normalize(CompiledEquation.compile(
+                "x*x*x*x*x*x*x*x*x*x*x*x*x*x*x*x*x=1")));
+    }
+
+    private static CanonicalForm normalize(String equation) {
+        return EquationNormalizer.normalize(CompiledEquation.compile(equation)).orElseThrow();
+    }
+
+    private static void assertRoots(String equation, double... expected) {
+        assertArrayEquals(expected, normalize(equation).solve().orElseThrow(), 1e-9, equation);
+    }
+}
@@ -0,0 +1,123 @@
+package org.vitaliistf.mathhelper.evaluation;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RootFinderTest {
+
+    private final RootFinder rootFinder = new RootFinder();
+
+    @Test
+    public void testLinearEquation() {
+        assertRoots("2*x+5=17", 6);
+    }
+
+    @Test
+    public void testQuadraticEquation() {
+        assertRoots("2*x*x=10", -Math.sqrt(5), Math.sqrt(5));
+    }
+
+    @Test
+    public void testRootsOfEvenMultiplicity() {
+        assertRoots("(x-3.001234)*(x-3.001234)=0", 3.001234);
+    }
+
+    @Test
+    public void testRootsCloseToEachOther() {
+        assertRoots("(x-0.091)*(x-0.109)=0", 0.091, 0.109);
+    }
+
+    @Test
+    public void testEquationWithoutRoots() {
+        assertRoots("x*x=-1");
+        assertRoots("2*(x+5+-x)+5=10");
+    }
+
+    @Test
+    public void testPoleIsNotARoot() {
+        assertRoots("1/x=0");
+        assertRoots("1/(x-2)=1", 3);
+    }
+
+    @Test
+    public void testRootsOutsideOfIntervalAreNotFound() {
+        RootFinder narrowFinder = new RootFinder(0, 10, 1000, 100, Duration.ofSeconds(1), new ForkJoinPool(2));
+        double[] roots = narrowFinder.findRoots(CompiledEquation.compile("(x+5)*(x-5)*(x-20)=0")).roots();
+        assertArrayEquals(new double[]{5}, roots, 1e-9);
+    }
+
+    @Test
+    public void testExhaustedTimeBudget() {
+        RootFinder finder = new RootFinder(-10, 10, 1000, 100, Duration.ZERO, ForkJoinPool.commonPool());
+        assertEquals(0, finder.findRootsNumerically(CompiledEquation.compile("2*x+5=17")).roots().length);
+    }
+
+    @Test
+    public void testInvalidInterval() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RootFinder(1, 1, 100, 100, Duration.ofSeconds(1), ForkJoinPool.commonPool()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RootFinder(-10, 10, 1, 100, Duration.ofSeconds(1), ForkJoinPool.commonPool()));
+    }
+
+    @Test
+    public void testEquationWithFewRootsOnCoarseGridIsNotAnIdentity() {
+        // Test that an equation satisfied at many but not all grid points is not taken for an identity
+        RootFinder coarseFinder = new RootFinder(-1, 1, RootFinder.MIN_SAMPLES, 100,
+                Duration.ofSeconds(1), ForkJoinPool.commonPool());
+        FoundRoots found = coarseFinder.findRootsNumerically(CompiledEquation.compile("x*x*x-x=0"));
+        assertFalse(found.everyValue());
+        assertArrayEquals(new double[]{-1, 0, 1}, found.roots(), 1e-9);
+
+        FoundRoots grid = coarseFinder.findRootsNumerically(
+                CompiledEquation.compile("x*(x*x-1)*(16*x*x-1)*(64*x*x-9)*(64*x*x-25)=0"));
+        assertFalse(grid.everyValue());
+        assertEquals(9, grid.roots().length);
+    }
+
+    @Test
+    public void testIdentityIsSatisfiedByEveryValue() {
+        // Test that identities are reported as such instead of listing the points of the grid
+        for (String identity : new String[]{"x=x", "x-x=0", "x/x=1", "2*(x+1)=2*x+2"}) {
+            FoundRoots found = rootFinder.findRoots(CompiledEquation.compile(identity));
+            assertTrue(found.everyValue(), identity);
+            assertEquals(0, found.roots().length, identity);
+
+            FoundRoots foundNumerically = rootFinder.findRootsNumerically(CompiledEquation.compile(identity));
+            assertTrue(foundNumerically.everyValue(), identity);
+            assertEquals(0, foundNumerically.roots().length, identity);
+        }
+        assertFalse(rootFinder.findRoots(CompiledEquation.compile("x*x=4")).everyValue());
+    }
+
+    @Test
+    public void testNumberOfRootsIsCapped() {
+        // Test that an equation with more roots than can be listed only reports the smallest ones
+        // the residual is below the precision for |x| < 21.5, that is at about 4300 points of the grid
+        FoundRoots found = rootFinder.findRoots(CompiledEquation.compile("x*x*x*x*x*x/1000000000000000000=0"));
+        assertFalse(found.everyValue());
+        assertTrue(found.truncated());
+        assertEquals(RootFinder.MAX_ROOTS, found.roots().length);
+    }
+
+    @Test
+    public void testHighDegreeEquation() {
+        assertRoots("x*x*x*x*x*x=64", -2, 2);
+    }
+
+    private void assertRoots(String equation, double... expected) {
+        CompiledEquation compiledEquation = CompiledEquation.compile(equation);
+        for (double[] roots : new double[][]{
+                rootFinder.findRoots(compiledEquation).roots(),
+                rootFinder.findRootsNumerically(compiledEquation).roots()}) {
+            assertArrayEquals(expected, roots, 1e-6, equation);
+            for (double root : roots) {
+                assertTrue(compiledEquation.isSatisfiedBy(root));
+            }
+        }
+    }
+}
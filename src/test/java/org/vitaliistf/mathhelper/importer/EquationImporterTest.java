@@ -0,0 +1,85 @@
+package org.vitaliistf.mathhelper.importer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vitaliistf.mathhelper.entity.Equation;
+import org.vitaliistf.mathhelper.repository.EquationRepository;
+import org.vitaliistf.mathhelper.service.EquationService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+public class EquationImporterTest {
+
+    private SessionFactory sessionFactory;
+    private EquationRepository equationRepository;
+    private EquationImporter equationImporter;
+
+    @BeforeEach
+    public void setUp() {
+        // Setting up database
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(org.vitaliistf.mathhelper.entity.Equation.class)
+                .addAnnotatedClass(org.vitaliistf.mathhelper.entity.Root.class)
+                .buildSessionFactory();
+        equationRepository = new EquationRepository(sessionFactory);
+        equationImporter = new EquationImporter(new EquationService(equationRepository), 2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        // Closing session factory after every test
+        sessionFactory.close();
+    }
+
+    @Test
+    public void testImportEquations() throws IOException {
+        // Test importing equations with roots, reporting a result for every line
+        EquationService equationService = new EquationService(equationRepository);
+        Equation saved = equationService.newEquation("7=x", equationService.compile("7=x").equation());
+        equationRepository.save(saved);
+
+        String input = """
+                # equations
+                x*x=4,2,-2,3
+
+                2*x+5=17,6
+                2*x=12
+                7 = x
+                3+*4=x,1
+                x=1,one
+                """;
+        StringWriter results = new StringWriter();
+
+        ImportReport report = equationImporter.importEquations(new BufferedReader(new StringReader(input)), results);
+
+        assertEquals(6, report.lines());
+        assertEquals(3, report.saved());
+        assertEquals(1, report.duplicates());
+        assertEquals(2, report.invalid());
+        assertEquals(3, report.roots());
+
+        List<String> lines = results.toString().lines().toList();
+        assertEquals(6, lines.size());
+        assertTrue(lines.get(0).matches("2,SAVED,\\d+,\"not roots: 3\""), lines.get(0));
+        assertTrue(lines.get(1).matches("4,SAVED,\\d+"), lines.get(1));
+        String savedId = lines.get(1).split(",")[2];
+        // algebraically identical equations are saved, and reported as such
+        assertTrue(lines.get(2).matches("5,SAVED,\\d+,\"equivalent to: " + savedId + "\""), lines.get(2));
+        assertEquals("6,DUPLICATE," + saved.getId(), lines.get(3));
+        assertTrue(lines.get(4).startsWith("7,INVALID,\"The equation is not correct"), lines.get(4));
+        assertEquals("8,INVALID,\"Root one is not a number\"", lines.get(5));
+
+        assertEquals(2, equationRepository.findEquationByExpression("x*x=4").getRoots().size());
+        assertEquals(4, equationRepository.findAll().size());
+    }
+
+}
@@ -0,0 +1,92 @@
+package org.vitaliistf.mathhelper.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.vitaliistf.mathhelper.evaluation.EquationCompiler;
+import org.vitaliistf.mathhelper.evaluation.EquationEvaluator;
+import org.vitaliistf.mathhelper.validation.EquationValidator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+public class FlightRecorderEventsTest {
+
+    @Test
+    public void testEvaluationEvents() throws IOException {
+        // Test that parse, evaluate and validate events carry the details of the equation
+        List<RecordedEvent> events = record(Duration.ZERO, () -> {
+            EquationValidator.isValid("3+*4=x");
+            EquationCompiler.compile("2*x+5=17");
+            EquationEvaluator.evaluateBatch("2*x+5=17", new double[]{6, 7, 8});
+        });
+
+        RecordedEvent validate = single(events, "org.vitaliistf.mathhelper.Validate");
+        assertEquals(6, validate.getInt("expressionLength"));
+        assertFalse(validate.getBoolean("valid"));
+
+        RecordedEvent parse = events.stream()
+                .filter(event -> event.getEventType().getName().equals("org.vitaliistf.mathhelper.Parse"))
+                .findFirst().orElseThrow();
+        assertEquals(8, parse.getInt("expressionLength"));
+        assertTrue(parse.getBoolean("successful"));
+
+        RecordedEvent evaluate = single(events, "org.vitaliistf.mathhelper.Evaluate");
+        assertEquals(3, evaluate.getInt("values"));
+        assertEquals(1, evaluate.getInt("roots"));
+    }
+
+    @Test
+    public void testFastCallsAreNotRecorded() throws IOException {
+        // Test that only the calls slower than the default threshold are recorded
+        for (int i = 0; i < 10_000; i++) {
+            EquationValidator.isValid("2*x=4");
+        }
+        List<RecordedEvent> events = record(null, () -> {
+            for (int i = 0; i < 1000; i++) {
+                EquationValidator.isValid("2*x=4");
+            }
+        });
+
+        assertTrue(events.size() < 1000);
+    }
+
+    /**
+     * Runs the action while recording the events of the application, with the specified threshold
+     * or with the default thresholds if it is null.
+     */
+    private static List<RecordedEvent> record(Duration threshold, Runnable action) throws IOException {
+        Path file = Files.createTempFile("mathhelper", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : List.of("Parse", "Evaluate", "Validate", "RepositoryQuery")) {
+                if (threshold != null) {
+                    recording.enable("org.vitaliistf.mathhelper." + name).withThreshold(threshold);
+                } else {
+                    recording.enable("org.vitaliistf.mathhelper." + name);
+                }
+            }
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .toList();
+        assertEquals(1, matching.size(), name);
+        return matching.get(0);
+    }
+
+}
@@ -0,0 +1,55 @@
+package org.vitaliistf.mathhelper.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketsCoverAllValues() {
+        // Test that every value falls into a bucket whose upper bound is close above it
+        long[] values = {0, 1, 31, 32, 33, 63, 64, 1000, 123_456_789, Long.MAX_VALUE / 3, Long.MAX_VALUE};
+        for (long value : values) {
+            int index = LatencyHistogram.bucketIndex(value);
+            long upperBound = LatencyHistogram.upperBound(index);
+            assertTrue(upperBound >= value, "value " + value);
+            assertTrue(upperBound - value <= value / 16, "value " + value);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.upperBound(index - 1) < value, "value " + value);
+            }
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        // Test percentiles of uniformly distributed values
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertEquals(10_000, histogram.count());
+        assertEquals(10_000_000, histogram.max());
+        assertEquals(5_000_000, histogram.percentile(50), 5_000_000 / 16.0);
+        assertEquals(9_900_000, histogram.percentile(99), 9_900_000 / 16.0);
+        assertEquals(10_000_000, histogram.percentile(100));
+    }
+
+    @Test
+    public void testEmptyAndReset() {
+        // Test a histogram without values, and resetting recorded values
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(99));
+
+        histogram.record(-5);
+        histogram.record(42);
+        assertEquals(0, histogram.percentile(50));
+        assertEquals(42, histogram.percentile(100));
+
+        histogram.reset();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.max());
+    }
+
+}
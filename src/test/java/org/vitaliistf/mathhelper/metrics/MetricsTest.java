@@ -0,0 +1,104 @@
+package org.vitaliistf.mathhelper.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vitaliistf.mathhelper.cache.CacheStatistics;
+import org.vitaliistf.mathhelper.evaluation.EquationEvaluator;
+import org.vitaliistf.mathhelper.validation.EquationValidator;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+public class MetricsTest {
+
+    @BeforeEach
+    public void setUp() {
+        // Starting every test with enabled and empty metrics
+        Metrics.setEnabled(true);
+        Metrics.reset();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Metrics.setEnabled(true);
+    }
+
+    @Test
+    public void testTimerAndCounter() {
+        // Test recording durations and events
+        Timer timer = Metrics.timer("test.timer");
+        assertSame(timer, Metrics.timer("test.timer"));
+        timer.record(1_000);
+        timer.record(3_000);
+        long start = timer.start();
+        timer.stop(start);
+
+        Counter counter = Metrics.counter("test.counter");
+        counter.increment();
+        counter.add(2);
+
+        assertEquals(3, timer.getCount());
+        assertTrue(timer.getMaxMicros() >= 3);
+        assertEquals(3, counter.getCount());
+    }
+
+    @Test
+    public void testDisabledMetricsRecordNothing() {
+        // Test that nothing is recorded while the metrics are disabled
+        Timer timer = Metrics.timer("test.disabled");
+        Counter counter = Metrics.counter("test.disabled");
+        Metrics.setEnabled(false);
+
+        long start = timer.start();
+        timer.stop(start);
+        counter.increment();
+        EquationValidator.isValid("2*x=4");
+
+        assertEquals(0, timer.getCount());
+        assertEquals(0, counter.getCount());
+        assertEquals(0, Metrics.timer("validation.isValid").getCount());
+        assertTrue(Metrics.dump().startsWith("Metrics are disabled."));
+    }
+
+    @Test
+    public void testInstrumentedCalls() {
+        // Test that validating and evaluating equations is measured
+        EquationValidator.isValid("2*x=4");
+        EquationValidator.isValid("3+*4=x");
+        EquationEvaluator.evaluate("2*x=4", 2);
+
+        assertEquals(2, Metrics.timer("validation.isValid").getCount());
+        assertEquals(1, Metrics.counter("validation.rejected").getCount());
+        assertEquals(1, Metrics.timer("evaluation.evaluate").getCount());
+
+        String dump = Metrics.dump();
+        assertTrue(dump.contains("validation.isValid"));
+        assertTrue(dump.contains("validation.rejected"));
+        assertTrue(dump.contains("evaluation.compiledEquations"));
+    }
+
+    @Test
+    public void testMBeans() throws Exception {
+        // Test reading the metrics through JMX
+        Metrics.registerMBeans();
+        Metrics.timer("test.jmx").record(2_000);
+        Metrics.registerCache("test.cache", () -> new CacheStatistics(3, 1, 0, 2));
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        assertEquals(1L, server.getAttribute(
+                new ObjectName(Metrics.DOMAIN + ":type=Timer,name=\"test.jmx\""), "Count"));
+        assertEquals(0.75, (Double) server.getAttribute(
+                new ObjectName(Metrics.DOMAIN + ":type=Cache,name=\"test.cache\""), "HitRate"), 1e-9);
+
+        ObjectName control = new ObjectName(Metrics.DOMAIN + ":type=Metrics,name=\"control\"");
+        server.setAttribute(control, new Attribute("Enabled", false));
+        assertFalse(Metrics.isEnabled());
+        assertTrue(((String) server.invoke(control, "dump", null, null)).contains("test.jmx"));
+    }
+
+}
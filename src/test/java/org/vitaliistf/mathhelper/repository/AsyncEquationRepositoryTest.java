@@ -0,0 +1,106 @@
+package org.vitaliistf.mathhelper.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vitaliistf.mathhelper.entity.Equation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AsyncEquationRepositoryTest {
+
+    private SessionFactory sessionFactory;
+    private CountingEquationRepository equationRepository;
+    private AsyncEquationRepository asyncRepository;
+
+    @BeforeEach
+    public void setUp() {
+        // Setting up database and the asynchronous repository limited to the connection pool size
+        sessionFactory = DatabaseConfiguration.buildSessionFactory();
+        equationRepository = new CountingEquationRepository(sessionFactory);
+        asyncRepository = new AsyncEquationRepository(equationRepository, sessionFactory);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        // Closing the repository and session factory after every test
+        asyncRepository.close();
+        sessionFactory.close();
+    }
+
+    @Test
+    public void testUsesVirtualThreadsWhenAvailable() {
+        // Test that virtual threads are used on Java 21 and later
+        assertEquals(Runtime.version().feature() >= 21, asyncRepository.usesVirtualThreads());
+    }
+
+    @Test
+    public void testManyConcurrentLookups() {
+        // Test that thousands of lookups complete while no more calls run at once than there are connections
+        List<Equation> equations = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Equation equation = new Equation("x=" + i);
+            equation.addRoot(i);
+            equations.add(equation);
+        }
+        asyncRepository.saveAll(equations).join();
+
+        List<CompletableFuture<List<EquationSummary>>> futures = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            futures.add(asyncRepository.findEquationSummariesByRoots(List.of((double) (i % 100)), 1e-10));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        for (int i = 0; i < futures.size(); i++) {
+            List<EquationSummary> summaries = futures.get(i).join();
+            assertEquals(1, summaries.size());
+            assertEquals("x=" + (i % 100), summaries.get(0).expression());
+        }
+        assertTrue(equationRepository.maxConcurrentCalls.get() <= DatabaseConfiguration.maximumPoolSize(sessionFactory));
+    }
+
+    @Test
+    public void testSaveFindAndDelete() {
+        // Test that writes and reads complete in order when chained
+        Equation equation = new Equation("2*x=4");
+        equation.addRoot(2.0);
+
+        Equation found = asyncRepository.save(equation)
+                .thenCompose(saved -> asyncRepository.findEquationByExpression("2*x=4"))
+                .join();
+        assertEquals(equation.getId(), found.getId());
+
+        asyncRepository.deleteEquationById(found.getId()).join();
+        assertNull(asyncRepository.findEquationById(found.getId()).join());
+    }
+
+    /**
+     * Repository recording the maximum number of root searches running at once.
+     */
+    private static class CountingEquationRepository extends EquationRepository {
+
+        private final AtomicInteger concurrentCalls = new AtomicInteger();
+        private final AtomicInteger maxConcurrentCalls = new AtomicInteger();
+
+        CountingEquationRepository(SessionFactory sessionFactory) {
+            super(sessionFactory);
+        }
+
+        @Override
+        public List<EquationSummary> findEquationSummariesByRoots(List<Double> roots, double tolerance) {
+            maxConcurrentCalls.accumulateAndGet(concurrentCalls.incrementAndGet(), Math::max);
+            try {
+                return super.findEquationSummariesByRoots(roots, tolerance);
+            } finally {
+                concurrentCalls.decrementAndGet();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,118 @@
+package org.vitaliistf.mathhelper.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vitaliistf.mathhelper.cache.CacheStatistics;
+import org.vitaliistf.mathhelper.entity.Equation;
+import org.vitaliistf.mathhelper.entity.Root;
+
+import java.util.List;
+
+public class CachingEquationRepositoryTest {
+
+    private SessionFactory sessionFactory;
+    private CachingEquationRepository equationRepository;
+
+    @BeforeEach
+    public void setUp() {
+        // Setting up database with statistics to count the executed statements
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Equation.class)
+                .addAnnotatedClass(Root.class)
+                .setProperty("hibernate.generate_statistics", "true")
+                .buildSessionFactory();
+        equationRepository = new CachingEquationRepository(sessionFactory);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        // Closing session factory after every test
+        sessionFactory.close();
+    }
+
+    @Test
+    public void testRepeatedReadsDoNotQueryDatabase() {
+        // Test that reads after the first one are served from memory
+        Equation equation = new Equation("x-1=0");
+        equation.addRoot(1.0);
+        equationRepository.save(equation);
+
+        Statistics statistics = sessionFactory.getStatistics();
+        equationRepository.findEquationById(equation.getId());
+        equationRepository.findEquationByExpression("x-1=0");
+        equationRepository.findAll();
+        equationRepository.findEquationsWithSingleRoot();
+        long statements = statistics.getPrepareStatementCount();
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("x-1=0", equationRepository.findEquationById(equation.getId()).getExpression());
+            assertEquals(equation.getId(), equationRepository.findEquationByExpression("x-1=0").getId());
+            assertEquals(1, equationRepository.findAll().size());
+            assertEquals(1, equationRepository.findEquationsWithSingleRoot().size());
+        }
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        CacheStatistics cacheStatistics = equationRepository.statistics();
+        assertEquals(40, cacheStatistics.hits());
+        assertEquals(4, cacheStatistics.misses());
+    }
+
+    @Test
+    public void testSaveInvalidatesCache() {
+        // Test that a saved equation is visible to cached queries
+        Equation equation1 = new Equation("x-1=0");
+        equation1.addRoot(1.0);
+        equationRepository.save(equation1);
+        assertEquals(1, equationRepository.findAll().size());
+        assertEquals(1, equationRepository.findEquationsWithSingleRoot().size());
+
+        Equation equation2 = new Equation("x-2=0");
+        equation2.addRoot(2.0);
+        equationRepository.save(equation2);
+
+        assertEquals(2, equationRepository.findAll().size());
+        assertEquals(2, equationRepository.findEquationsWithSingleRoot().size());
+    }
+
+    @Test
+    public void testDeleteInvalidatesCache() {
+        // Test that a deleted equation is no longer returned from the cache
+        Equation equation = new Equation("x-1=0");
+        equationRepository.save(equation);
+        assertNotNull(equationRepository.findEquationById(equation.getId()));
+        assertNotNull(equationRepository.findEquationByExpression("x-1=0"));
+        assertEquals(1, equationRepository.findAll().size());
+
+        equationRepository.deleteEquationById(equation.getId());
+
+        assertNull(equationRepository.findEquationById(equation.getId()));
+        assertNull(equationRepository.findEquationByExpression("x-1=0"));
+        assertTrue(equationRepository.findAll().isEmpty());
+    }
+
+    @Test
+    public void testFindEquationsByIdsCombinesCachedAndLoaded() {
+        // Test that equations found by identifiers are ordered and partially served from memory
+        Equation equation1 = new Equation("x-1=0");
+        equationRepository.save(equation1);
+        Equation equation2 = new Equation("x-2=0");
+        equationRepository.save(equation2);
+        Equation equation3 = new Equation("x-3=0");
+        equationRepository.save(equation3);
+
+        equationRepository.findEquationById(equation2.getId());
+        List<Equation> equations = equationRepository.findEquationsByIds(
+                List.of(equation3.getId(), equation2.getId(), equation1.getId()));
+
+        assertEquals(List.of(equation1.getId(), equation2.getId(), equation3.getId()),
+                equations.stream().map(Equation::getId).toList());
+        assertEquals(1, equationRepository.statistics().hits());
+    }
+
+}
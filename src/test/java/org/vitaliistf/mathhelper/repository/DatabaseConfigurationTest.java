@@ -0,0 +1,125 @@
+package org.vitaliistf.mathhelper.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vitaliistf.mathhelper.entity.Equation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+public class DatabaseConfigurationTest {
+
+    private static final int THREADS = 16;
+    private static final int EQUATIONS_PER_THREAD = 10;
+
+    private SessionFactory sessionFactory;
+
+    @BeforeEach
+    public void setUp() {
+        // Setting up database with the pooled configuration of the application
+        sessionFactory = DatabaseConfiguration.buildSessionFactory();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        // Closing session factory after every test
+        sessionFactory.close();
+    }
+
+    @Test
+    public void testConnectionsArePooled() {
+        // Test that connections come from a HikariCP pool configured in hibernate.properties
+        HikariDataSource dataSource = dataSource();
+        assertEquals(4, dataSource.getMaximumPoolSize());
+        assertEquals(4, DatabaseConfiguration.maximumPoolSize(sessionFactory));
+        assertTrue(dataSource.getLeakDetectionThreshold() > 0);
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        // Test that many threads can save and read equations at once through a smaller pool
+        EquationRepository equationRepository = new CachingEquationRepository(sessionFactory);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < EQUATIONS_PER_THREAD; i++) {
+                        double root = thread * EQUATIONS_PER_THREAD + i;
+                        Equation equation = new Equation("x=" + root);
+                        equation.addRoot(root);
+                        equationRepository.save(equation);
+
+                        assertEquals(equation.getId(), equationRepository.findEquationByExpression("x=" + root).getId());
+                        assertEquals(1, equationRepository.findEquationsByRoots(List.of(root), 1e-10).size());
+                        if (i == EQUATIONS_PER_THREAD - 1) {
+                            try (Stream<Equation> equations = equationRepository.streamAll()) {
+                                assertTrue(equations.count() > i);
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(THREADS * EQUATIONS_PER_THREAD, equationRepository.findAll().size());
+        assertEquals(0, dataSource().getHikariPoolMXBean().getActiveConnections());
+    }
+
+    @Test
+    public void testSequencesAreSeededFromStoredIdentifiers() {
+        // Test saving into tables which already have rows inserted without the sequences
+        sessionFactory.inTransaction(session -> {
+            for (long id = 1; id <= 120; id++) {
+                session.createNativeMutationQuery("INSERT INTO Equation (id, expression, rootCount) VALUES (?1, ?2, 1)")
+                        .setParameter(1, id)
+                        .setParameter(2, "x=" + id)
+                        .executeUpdate();
+                session.createNativeMutationQuery("INSERT INTO Root (id, value, equation_id) VALUES (?1, ?2, ?1)")
+                        .setParameter(1, id)
+                        .setParameter(2, (double) id)
+                        .executeUpdate();
+            }
+        });
+        DatabaseConfiguration.seedSequences(sessionFactory);
+        DatabaseConfiguration.seedSequences(sessionFactory);
+
+        EquationRepository equationRepository = new EquationRepository(sessionFactory);
+        List<Equation> equations = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Equation equation = new Equation("x=-" + i);
+            equation.addRoot(-i);
+            equations.add(equation);
+        }
+        equationRepository.saveAll(equations);
+
+        assertTrue(equations.get(0).getId() > 120);
+        assertTrue(equations.get(0).getRoots().get(0).getId() > 120);
+        assertEquals(220, equationRepository.findAll().size());
+    }
+
+    private HikariDataSource dataSource() {
+        return ((SessionFactoryImplementor) sessionFactory).getServiceRegistry()
+                .getService(ConnectionProvider.class)
+                .unwrap(HikariDataSource.class);
+    }
+
+}
@@ -2,15 +2,34 @@ package org.vitaliistf.mathhelper.repository;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.vitaliistf.mathhelper.entity.Equation;
+import org.vitaliistf.mathhelper.entity.ExpressionHash;
+import org.vitaliistf.mathhelper.entity.Root;
+import org.vitaliistf.mathhelper.evaluation.CompiledEquation;
+import org.vitaliistf.mathhelper.metrics.Metrics;
+import org.vitaliistf.mathhelper.metrics.Timer;
 import org.vitaliistf.mathhelper.repository.EquationRepository;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public class EquationRepositoryTest {
 
@@ -45,6 +64,23 @@ public class EquationRepositoryTest {
         assertEquals(equation.getExpression(), foundEquation.getExpression());
     }
 
+    @Test
+    public void testFindEquationsByCanonicalForm() {
+        // Test searching algebraically identical equations
+        Equation equation1 = new Equation("2*x*x=10");
+        equation1.setCanonicalForm("-5,0,1/1");
+        equationRepository.save(equation1);
+
+        Equation equation2 = new Equation("x*x=4");
+        equation2.setCanonicalForm("-4,0,1/1");
+        equationRepository.save(equation2);
+
+        List<Equation> equations = equationRepository.findEquationsByCanonicalForm("-5,0,1/1");
+
+        assertEquals(1, equations.size());
+        assertEquals(equation1.getExpression(), equations.get(0).getExpression());
+    }
+
     @Test
     public void testFindAll() {
         // Test getting all the equations
@@ -87,6 +123,260 @@ public class EquationRepositoryTest {
         assertEquals(1, equations.size());
     }
 
+    @Test
+    public void testFindEquationsByRootsWithinTolerance() {
+        // Test searching equations by roots which are not stored exactly
+        Equation equation1 = new Equation("x*x=4");
+        equation1.addRoot(2.00000000005);
+        equation1.addRoot(-2.0);
+        equationRepository.save(equation1);
+
+        Equation equation2 = new Equation("x-2=0");
+        equation2.addRoot(1.99999999995);
+        equationRepository.save(equation2);
+
+        Equation equation3 = new Equation("x-2.001=0");
+        equation3.addRoot(2.001);
+        equationRepository.save(equation3);
+
+        assertEquals(0, equationRepository.findEquationsByRoots(List.of(2.0)).size());
+        assertEquals(2, equationRepository.findEquationsByRoots(List.of(2.0), 1e-10).size());
+
+        List<Equation> equations = equationRepository.findEquationsByRoots(List.of(2.0, -2.0), 1e-10);
+        assertEquals(1, equations.size());
+        assertEquals(equation1.getId(), equations.get(0).getId());
+
+        assertTrue(equationRepository.findEquationsByRoots(List.of(), 1e-10).isEmpty());
+    }
+
+    @Test
+    public void testRootIndexIsRefreshedAfterChanges() {
+        // Test that saved and deleted equations are reflected in searches within tolerance
+        Equation equation1 = new Equation("x-3=0");
+        equation1.addRoot(3.0);
+        equationRepository.save(equation1);
+        assertEquals(1, equationRepository.findEquationsByRoots(List.of(3.0), 1e-10).size());
+
+        Equation equation2 = new Equation("2*x=6");
+        equation2.addRoot(3.0);
+        equationRepository.save(equation2);
+        assertEquals(2, equationRepository.findEquationsByRoots(List.of(3.0), 1e-10).size());
+
+        equationRepository.deleteEquationById(equation1.getId());
+        assertEquals(1, equationRepository.findEquationsByRoots(List.of(3.0), 1e-10).size());
+    }
+
+    @Test
+    public void testRootIndexIsUpdatedWithoutReloading() {
+        // Test that saves and deletes are applied to a loaded root index instead of reloading the Root table
+        Equation equation1 = new Equation("x-3=0");
+        equation1.addRoot(3.0);
+        equationRepository.save(equation1);
+        equationRepository.findEquationSummariesByRoots(List.of(3.0), 1e-10); // loads the root index
+
+        Equation equation2 = new Equation("2*x=6");
+        equation2.addRoot(3.0);
+        equationRepository.save(equation2);
+        List<Equation> equations = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            Equation equation = new Equation("x=" + i);
+            equation.addRoot(i);
+            equations.add(equation);
+        }
+        equationRepository.saveAll(equations);
+        equationRepository.deleteByExpressions(List.of("x=3"));
+        equationRepository.deleteEquationById(equation1.getId());
+
+        assertStatements(1, () -> assertEquals(List.of(new EquationSummary(equation2.getId(), "2*x=6")),
+                equationRepository.findEquationSummariesByRoots(List.of(3.0), 1e-10)));
+        assertStatements(1, () -> assertEquals(1,
+                equationRepository.findEquationSummariesByRoots(List.of(2999.0), 1e-10).size()));
+    }
+
+    @Test
+    public void testToleranceIsExclusive() {
+        // Test that a root exactly the tolerance away is not found, as with EquationEvaluator.PRECISION
+        Equation equation = new Equation("2*x=1");
+        equation.addRoot(0.5);
+        equationRepository.save(equation);
+
+        assertEquals(1, equationRepository.findEquationsByRoots(List.of(0.625), 0.25).size());
+        assertEquals(0, equationRepository.findEquationsByRoots(List.of(0.75), 0.25).size());
+        assertEquals(0, equationRepository.findEquationsByRoots(List.of(0.25), 0.25).size());
+    }
+
+    @Test
+    public void testSaveAll() {
+        // Test saving many equations with their roots in batches
+        List<Equation> equations = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Equation equation = new Equation("x*x=" + i * i);
+            equation.addRoot(i);
+            equation.addRoot(-i);
+            equations.add(equation);
+        }
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        BulkSaveReport report = equationRepository.saveAll(equations);
+
+        assertEquals(1000, report.equations());
+        assertEquals(2000, report.roots());
+        assertEquals(3000, report.rows());
+        assertTrue(report.rowsPerSecond() > 0);
+        // inserts one by one would need a statement for every row
+        assertTrue(statistics.getPrepareStatementCount() < 300);
+        assertEquals(1000, equationRepository.findAll().size());
+        assertEquals(2, equationRepository.findEquationByExpression("x*x=4").getRoots().size());
+        assertEquals(1, equationRepository.findEquationsByRoots(List.of(-999.0), 1e-10).size());
+    }
+
+    @Test
+    public void testFindAllAfter() {
+        // Test reading all equations page by page
+        for (int i = 0; i < 25; i++) {
+            equationRepository.save(new Equation("x=" + i));
+        }
+
+        List<String> expressions = new ArrayList<>();
+        Long lastId = null;
+        List<Equation> page;
+        do {
+            page = equationRepository.findAllAfter(lastId, 10);
+            assertTrue(page.size() <= 10);
+            page.forEach(equation -> expressions.add(equation.getExpression()));
+            if (!page.isEmpty()) {
+                lastId = page.get(page.size() - 1).getId();
+            }
+        } while (!page.isEmpty());
+
+        assertEquals(25, expressions.size());
+        assertEquals("x=0", expressions.get(0));
+        assertEquals("x=24", expressions.get(24));
+    }
+
+    @Test
+    public void testStreamAll() {
+        // Test streaming all equations with their roots
+        for (int i = 0; i < 25; i++) {
+            Equation equation = new Equation("x*x=" + i * i);
+            equation.addRoot(i);
+            if (i > 0) {
+                equation.addRoot(-i);
+            }
+            equationRepository.save(equation);
+        }
+
+        try (Stream<Equation> equations = equationRepository.streamAll()) {
+            List<Equation> streamed = equations.toList();
+            assertEquals(25, streamed.size());
+            assertEquals("x*x=0", streamed.get(0).getExpression());
+            assertEquals(2, streamed.get(24).getRoots().size());
+        }
+        try (Stream<Equation> equations = equationRepository.streamEquationsWithSingleRoot()) {
+            assertEquals(List.of("x*x=0"), equations.map(Equation::getExpression).toList());
+        }
+    }
+
+    @Test
+    public void testReadsUseFixedNumberOfStatements() {
+        // Test that reading equations with their roots does not issue a statement per equation
+        List<Equation> equations = new ArrayList<>();
+        for (int i = 1; i <= 30; i++) {
+            Equation equation = new Equation("x*x=" + i * i);
+            equation.setCanonicalForm(i % 2 == 0 ? "even" : "odd");
+            equation.addRoot(i);
+            if (i % 3 != 0) {
+                equation.addRoot(-i);
+            }
+            equations.add(equation);
+        }
+        equationRepository.saveAll(equations);
+        List<Long> ids = equations.stream().map(Equation::getId).toList();
+
+        assertStatements(1, () -> assertEquals(30, equationRepository.findAll().size()));
+        assertStatements(1, () -> assertEquals(10, equationRepository.findEquationsWithSingleRoot().size()));
+        assertStatements(1, () -> assertEquals(30, equationRepository.findEquationsByIds(ids).size()));
+        assertStatements(1, () -> assertEquals(15, equationRepository.findEquationsByCanonicalForm("odd").size()));
+        assertStatements(1, () -> assertEquals(1, equationRepository.findEquationsByRoots(List.of(2.0, -2.0)).size()));
+        assertStatements(1, () -> assertEquals(2, equationRepository.findEquationById(ids.get(0)).getRoots().size()));
+        assertStatements(1, () -> assertEquals(2,
+                equationRepository.findEquationByExpression("x*x=4").getRoots().size()));
+        assertStatements(2, () -> assertEquals(20, equationRepository.findAllAfter(ids.get(9), 20).size()));
+        assertStatements(1, () -> assertEquals(30, equationRepository.findAllSummaries().size()));
+        assertStatements(1, () -> {
+            try (Stream<Equation> stream = equationRepository.streamAll()) {
+                assertEquals(50, stream.mapToInt(equation -> equation.getRoots().size()).sum());
+            }
+        });
+        equationRepository.findEquationSummariesByRoots(List.of(1.0), 1e-10); // loads the root index
+        assertStatements(1, () -> assertEquals(List.of(new EquationSummary(ids.get(0), "x*x=1")),
+                equationRepository.findEquationSummariesByRoots(List.of(1.0), 1e-10)));
+    }
+
+    @Test
+    public void testQueriesAreRecordedWithFlightRecorder() throws IOException {
+        // Test that repository methods emit Flight Recorder events with their row counts
+        Equation equation = new Equation("x*x=4");
+        equation.addRoot(2.0);
+        equation.addRoot(-2.0);
+
+        Path file = Files.createTempFile("mathhelper", ".jfr");
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("org.vitaliistf.mathhelper.RepositoryQuery").withThreshold(Duration.ZERO);
+            recording.start();
+            equationRepository.save(equation);
+            equationRepository.findAll();
+            equationRepository.findEquationByExpression("x*x=4");
+            recording.stop();
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        assertEquals(List.of("save", "findAll", "findEquationByExpression"),
+                events.stream().map(event -> event.getString("operation")).toList());
+        assertEquals(2, events.get(0).getInt("roots"));
+        assertEquals(1, events.get(1).getInt("rows"));
+        assertEquals(5, events.get(2).getInt("expressionLength"));
+    }
+
+    @Test
+    public void testFailedSaveAllIsRecorded() throws IOException {
+        // Test that a failed batch is timed and emits its Flight Recorder event like a successful one
+        equationRepository.save(new Equation("x=1"));
+        Timer timer = Metrics.timer("repository.saveAll");
+        long count = timer.getCount();
+
+        Path file = Files.createTempFile("mathhelper", ".jfr");
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("org.vitaliistf.mathhelper.RepositoryQuery").withThreshold(Duration.ZERO);
+            recording.start();
+            assertThrows(DuplicateEquationException.class,
+                    () -> equationRepository.saveAll(List.of(new Equation("x=2"), new Equation("x=1"))));
+            recording.stop();
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        assertEquals(Metrics.isEnabled() ? count + 1 : count, timer.getCount());
+        assertEquals(List.of("saveAll"), events.stream().map(event -> event.getString("operation")).toList());
+        assertEquals(2, events.get(0).getInt("rows"));
+    }
+
+    private void assertStatements(long expected, Runnable read) {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        read.run();
+        assertEquals(expected, statistics.getPrepareStatementCount());
+    }
+
     @Test
     public void testFindEquationsWithSingleRoot() {
         // Test searching equations with single root
@@ -103,6 +393,141 @@ public class EquationRepositoryTest {
         assertEquals(2, equations.size());
     }
 
+    @Test
+    public void testFindEquationsWithRootCount() {
+        // Test searching equations by the stored number of their roots
+        for (int count = 0; count <= 3; count++) {
+            Equation equation = new Equation("equation with " + count + " roots");
+            for (int i = 0; i < count; i++) {
+                equation.addRoot(i);
+            }
+            equationRepository.save(equation);
+        }
+        Equation replaced = new Equation("roots replaced");
+        replaced.setRoots(List.of(new Root(1.0, replaced), new Root(2.0, replaced)));
+        equationRepository.save(replaced);
+
+        assertEquals(1, equationRepository.findEquationsWithRootCount(0).size());
+        assertEquals(1, equationRepository.findEquationsWithSingleRoot().size());
+        assertEquals(2, equationRepository.findEquationsWithRootCount(2).size());
+        assertEquals(2, equationRepository.findEquationsWithRootCount(2).get(1).getRootCount());
+        assertEquals(0, equationRepository.findEquationsWithRootCount(4).size());
+        assertEquals(0, equationRepository.recountRoots());
+
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            session.createNativeMutationQuery("UPDATE Equation SET rootCount = 0").executeUpdate();
+            transaction.commit();
+        }
+        assertEquals(4, equationRepository.recountRoots());
+        assertEquals(2, equationRepository.findEquationsWithRootCount(2).size());
+    }
+
+    @Test
+    public void testRootCountAfterRemovingRoot() {
+        // Test that the root count follows roots removed from a saved equation
+        Equation equation = new Equation("x*x=4");
+        equation.addRoot(2.0);
+        equation.addRoot(-2.0);
+        equationRepository.save(equation);
+
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            Equation saved = session.get(Equation.class, equation.getId());
+            assertTrue(saved.removeRoot(saved.getRoots().get(0)));
+            transaction.commit();
+        }
+
+        Equation updated = equationRepository.findEquationById(equation.getId());
+        assertEquals(1, updated.getRoots().size());
+        assertEquals(1, updated.getRootCount());
+        assertArrayEquals(new double[]{-2.0}, updated.getRootValues());
+        assertEquals(1, equationRepository.findEquationsWithSingleRoot().size());
+
+        // the roots cannot be changed behind the derived columns
+        assertThrows(UnsupportedOperationException.class, () -> updated.getRoots().add(new Root(2.0, updated)));
+
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            Equation saved = session.get(Equation.class, equation.getId());
+            saved.setRoots(List.of(new Root(3.0, saved), new Root(4.0, saved), new Root(5.0, saved)));
+            transaction.commit();
+        }
+        Equation replaced = equationRepository.findEquationById(equation.getId());
+        assertEquals(3, replaced.getRootCount());
+        assertArrayEquals(new double[]{3.0, 4.0, 5.0}, replaced.getRootValues());
+    }
+
+    @Test
+    public void testDuplicateExpressionsAreRejected() {
+        // Test that the same expression, ignoring spaces, cannot be saved twice
+        equationRepository.save(new Equation("x*x=4"));
+
+        DuplicateEquationException exception = assertThrows(DuplicateEquationException.class,
+                () -> equationRepository.save(new Equation("x * x = 4")));
+        assertEquals("x * x = 4", exception.getExpression());
+
+        List<Equation> batch = List.of(new Equation("x=1"), new Equation("x*x=4"));
+        assertThrows(DuplicateEquationException.class, () -> equationRepository.saveAll(batch));
+        assertEquals(1, equationRepository.findAll().size());
+    }
+
+    @Test
+    public void testEqualHashesOfDistinctExpressions() {
+        // Test that an equation whose expression hash is taken by a distinct expression is saved and found
+        Equation equation1 = new Equation("x=1");
+        equationRepository.save(equation1);
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            session.createNativeMutationQuery("UPDATE Equation SET expressionHash = :expressionHash")
+                    .setParameter("expressionHash", ExpressionHash.of("x=2"))
+                    .executeUpdate();
+            transaction.commit();
+        }
+
+        Equation equation2 = new Equation("x=2");
+        equationRepository.save(equation2);
+        equationRepository.saveAll(List.of(new Equation("x=3")));
+
+        assertEquals(equation2.getId(), equationRepository.findEquationByExpression("x=2").getId());
+        assertEquals(Map.of("x=2", equation2.getId()),
+                equationRepository.findEquationIdsByExpressions(List.of("x=2", "x=4")));
+        assertThrows(DuplicateEquationException.class, () -> equationRepository.save(new Equation("x = 2")));
+        assertThrows(DuplicateEquationException.class,
+                () -> equationRepository.saveAll(List.of(new Equation("x=5"), new Equation("x= 5"))));
+        assertEquals(3, equationRepository.findAll().size());
+    }
+
+    @Test
+    public void testFindEquationIdsByExpressions() {
+        // Test finding which expressions are already saved
+        Equation equation = new Equation("x*x=4");
+        equationRepository.save(equation);
+
+        assertEquals(Map.of("x*x=4", equation.getId()),
+                equationRepository.findEquationIdsByExpressions(List.of("x*x=4", "x*x=9")));
+        assertTrue(equationRepository.findEquationIdsByExpressions(List.of()).isEmpty());
+        assertNull(equationRepository.findEquationByExpression("x * x = 4"));
+    }
+
+    @Test
+    public void testHashExpressions() {
+        // Test hashing the expressions of equations saved before the hash was stored
+        equationRepository.save(new Equation("x-1=0"));
+        equationRepository.save(new Equation("x-2=0"));
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            session.createNativeMutationQuery("UPDATE Equation SET expressionHash = NULL").executeUpdate();
+            transaction.commit();
+        }
+        assertNull(equationRepository.findEquationByExpression("x-1=0"));
+
+        assertEquals(2, equationRepository.hashExpressions());
+
+        assertNotNull(equationRepository.findEquationByExpression("x-1=0"));
+        assertEquals(0, equationRepository.hashExpressions());
+    }
+
     @Test
     public void testDeleteEquationById() {
         // Test deleting the equation
@@ -115,4 +540,159 @@ public class EquationRepositoryTest {
 
         assertNull(deletedEquation);
     }
+
+    @Test
+    public void testDeleteByIds() {
+        // Test deleting many equations with their roots in a fixed number of statements
+        List<Equation> equations = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Equation equation = new Equation("x*x=" + i * i);
+            equation.addRoot(i);
+            equation.addRoot(-i);
+            equations.add(equation);
+        }
+        equationRepository.saveAll(equations);
+        List<Long> ids = new ArrayList<>(equations.stream().map(Equation::getId).toList().subList(0, 999));
+        ids.add(-1L);
+
+        BulkDeleteReport[] report = new BulkDeleteReport[1];
+        assertStatements(2, () -> report[0] = equationRepository.deleteByIds(ids));
+
+        assertEquals(new BulkDeleteReport(999, 1998), report[0]);
+        assertEquals(List.of("x*x=998001"), equationRepository.findAll().stream().map(Equation::getExpression).toList());
+        assertEquals(1, equationRepository.findEquationsByRoots(List.of(999.0), 1e-10).size());
+        assertEquals(0, equationRepository.findEquationsByRoots(List.of(2.0), 1e-10).size());
+        assertEquals(BulkDeleteReport.NONE, equationRepository.deleteByIds(List.of()));
+    }
+
+    @Test
+    public void testDeleteByExpressions() {
+        // Test deleting equations with their roots by their expressions
+        Equation equation1 = new Equation("x*x=4");
+        equation1.addRoot(2);
+        equation1.addRoot(-2);
+        Equation equation2 = new Equation("x=3");
+        equation2.addRoot(3);
+        Equation equation3 = new Equation("x=5");
+        equationRepository.saveAll(List.of(equation1, equation2, equation3));
+
+        BulkDeleteReport report = equationRepository.deleteByExpressions(List.of("x*x=4", "x=5", "x=7"));
+
+        assertEquals(new BulkDeleteReport(2, 2), report);
+        assertEquals(List.of(equation2.getId()), equationRepository.findAll().stream().map(Equation::getId).toList());
+        assertNull(equationRepository.findEquationByExpression("x*x=4"));
+    }
+
+    @Test
+    public void testFindAllPacked() {
+        // Test reading the root values of equations from their packed roots
+        Equation equation1 = new Equation("x*x=4");
+        equation1.addRoot(2);
+        equation1.addRoot(-2);
+        Equation equation2 = new Equation("x=3");
+        equationRepository.saveAll(List.of(equation1, equation2));
+        assertArrayEquals(new double[]{2, -2}, equation1.getRootValues());
+
+        List<PackedEquation> equations = equationRepository.findAllPacked();
+
+        assertEquals(2, equations.size());
+        assertEquals(equation1.getId(), equations.get(0).id());
+        assertEquals("x*x=4", equations.get(0).expression());
+        assertArrayEquals(new double[]{2, -2}, equations.get(0).roots());
+        assertArrayEquals(new double[0], equations.get(1).roots());
+
+        // the packed roots are written again when the roots of a saved equation change
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            Equation saved = session.get(Equation.class, equation1.getId());
+            saved.removeRoot(saved.getRoots().get(0));
+            transaction.commit();
+        }
+        assertArrayEquals(new double[]{-2}, equationRepository.findAllPacked().get(0).roots());
+        assertArrayEquals(new double[]{-2}, equationRepository.findEquationById(equation1.getId()).getRootValues());
+    }
+
+    @Test
+    public void testFindPackedEquationsByRoots() {
+        // Test finding equations by roots with their root values, checked by the evaluator as they are
+        Equation equation1 = new Equation("x*x=4");
+        equation1.addRoot(2);
+        equation1.addRoot(-2);
+        Equation equation2 = new Equation("x=2");
+        equation2.addRoot(2);
+        Equation equation3 = new Equation("x=3");
+        equation3.addRoot(3);
+        equationRepository.saveAll(List.of(equation1, equation2, equation3));
+
+        List<PackedEquation> found = equationRepository.findPackedEquationsByRoots(List.of(2.0), 1e-10);
+
+        assertEquals(List.of(equation1.getId(), equation2.getId()), found.stream().map(PackedEquation::id).toList());
+        for (PackedEquation equation : found) {
+            CompiledEquation compiled = CompiledEquation.compile(equation.expression());
+            assertEquals(equation.roots().length, compiled.evaluateBatch(equation.roots()).roots().cardinality());
+        }
+        assertTrue(equationRepository.findPackedEquationsByRoots(List.of(5.0), 1e-10).isEmpty());
+    }
+
+    @Test
+    public void testPackRoots() {
+        // Test packing the roots of equations saved before the packed roots were stored
+        Equation equation = new Equation("x*x=4");
+        equation.addRoot(2);
+        equation.addRoot(-2);
+        equationRepository.save(equation);
+        equationRepository.save(new Equation("x=3"));
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            session.createNativeMutationQuery("UPDATE Equation SET packedRoots = NULL").executeUpdate();
+            transaction.commit();
+        }
+        assertArrayEquals(new double[0], equationRepository.findAllPacked().get(0).roots());
+
+        assertEquals(2, equationRepository.packRoots());
+
+        assertArrayEquals(new double[]{2, -2}, equationRepository.findAllPacked().get(0).roots());
+        assertEquals(0, equationRepository.packRoots());
+    }
+
+    @Test
+    public void testPackedRootsAllocateLessHeap() {
+        // Test that reading equations with packed roots allocates a fraction of the heap of Equation and Root entities
+        List<Equation> equations = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Equation equation = new Equation("x=" + i);
+            for (int j = 0; j < 25; j++) {
+                equation.addRoot(i * 100 + j);
+            }
+            equations.add(equation);
+        }
+        equationRepository.saveAll(equations);
+        equations = null;
+        // warming up the queries, so that their plans are not measured
+        equationRepository.findAll();
+        equationRepository.findAllPacked();
+
+        long before = allocatedBytes();
+        List<Equation> entities = equationRepository.findAll();
+        long entitiesAllocated = allocatedBytes() - before;
+
+        before = allocatedBytes();
+        List<PackedEquation> packed = equationRepository.findAllPacked();
+        long packedAllocated = allocatedBytes() - before;
+
+        assertEquals(2000, entities.size());
+        assertEquals(2000, packed.size());
+        // reading 50000 roots as entities allocates at least 50 bytes for each, packed they take 8 bytes
+        assertTrue(entitiesAllocated > 50 * 50_000, "Entities: " + entitiesAllocated + " bytes");
+        assertTrue(packedAllocated * 3 < entitiesAllocated,
+                "Packed: " + packedAllocated + ", entities: " + entitiesAllocated + " bytes");
+    }
+
+    /**
+     * Returns the number of bytes allocated by the current thread so far, which unlike the used heap
+     * does not depend on when the garbage collector runs.
+     */
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
 }
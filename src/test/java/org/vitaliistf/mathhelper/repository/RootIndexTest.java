@@ -0,0 +1,56 @@
+package org.vitaliistf.mathhelper.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vitaliistf.mathhelper.entity.Equation;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+public class RootIndexTest {
+
+    private SessionFactory sessionFactory;
+    private EquationRepository equationRepository;
+
+    @BeforeEach
+    public void setUp() {
+        // Setting up database
+        sessionFactory = DatabaseConfiguration.buildSessionFactory();
+        equationRepository = new EquationRepository(sessionFactory);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        // Closing session factory after every test
+        sessionFactory.close();
+    }
+
+    @Test
+    public void testChangesOfOtherWritersAreSeenAfterRefresh() throws InterruptedException {
+        // Test that roots saved and deleted outside the index, as by another process, are found after a reload
+        Equation equation1 = new Equation("x-3=0");
+        equation1.addRoot(3.0);
+        equationRepository.save(equation1);
+
+        RootIndex rootIndex = new RootIndex(sessionFactory, Duration.ofMillis(100));
+        assertEquals(Set.of(equation1.getId()), rootIndex.findEquationIds(List.of(3.0), 1e-10));
+
+        Equation equation2 = new Equation("2*x=6");
+        equation2.addRoot(3.0);
+        equationRepository.save(equation2);
+        equationRepository.deleteEquationById(equation1.getId());
+
+        Set<Long> found = rootIndex.findEquationIds(List.of(3.0), 1e-10);
+        for (int i = 0; i < 100 && !found.equals(Set.of(equation2.getId())); i++) {
+            Thread.sleep(50);
+            found = rootIndex.findEquationIds(List.of(3.0), 1e-10);
+        }
+        assertEquals(Set.of(equation2.getId()), found);
+    }
+
+}
@@ -0,0 +1,98 @@
+package org.vitaliistf.mathhelper.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vitaliistf.mathhelper.entity.Equation;
+import org.vitaliistf.mathhelper.evaluation.EquationEvaluator;
+import org.vitaliistf.mathhelper.repository.DatabaseConfiguration;
+import org.vitaliistf.mathhelper.repository.EquationRepository;
+import org.vitaliistf.mathhelper.repository.EquationSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class ReverseSearchTest {
+
+    private SessionFactory sessionFactory;
+    private EquationRepository equationRepository;
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    public void setUp() {
+        // Setting up database and a pool of four threads
+        sessionFactory = DatabaseConfiguration.buildSessionFactory();
+        equationRepository = new EquationRepository(sessionFactory);
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        // Stopping the pool and closing session factory after every test
+        pool.shutdown();
+        sessionFactory.close();
+    }
+
+    @Test
+    public void testFindEquationsSatisfiedBy() {
+        // Test finding the equations satisfied by the roots over several pages, without any saved roots
+        List<Equation> equations = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            equations.add(new Equation(i % 2 == 0 ? "x*x=" + i * i : "2*x-" + 2 * i + "=0"));
+        }
+        equationRepository.saveAll(equations);
+        ReverseSearch reverseSearch = new ReverseSearch(equationRepository, pool, 300);
+
+        assertEquals(List.of("2*x-6=0"), expressions(reverseSearch.findEquationsSatisfiedBy(new double[]{3})));
+        assertEquals(List.of("x*x=16"), expressions(reverseSearch.findEquationsSatisfiedBy(new double[]{4, -4})));
+        assertTrue(reverseSearch.findEquationsSatisfiedBy(new double[]{3, 4}).isEmpty());
+        assertTrue(reverseSearch.findEquationsSatisfiedBy(new double[0]).isEmpty());
+    }
+
+    @Test
+    public void testLegacyValidEquationsAreMatched() {
+        // Test that equations accepted by the older validation only are checked like EquationEvaluator does
+        equationRepository.saveAll(List.of(new Equation("x=2=3"), new Equation("x*x=9")));
+        ReverseSearch reverseSearch = new ReverseSearch(equationRepository, pool, 300);
+
+        assertTrue(EquationEvaluator.evaluate("x=2=3", 2));
+        assertEquals(List.of("x=2=3"), expressions(reverseSearch.findEquationsSatisfiedBy(new double[]{2})));
+    }
+
+    @Test
+    public void testSameResultAsSequentialEvaluation() {
+        // Test that the parallel search finds the same equations, in the same order, as evaluating them one by one
+        List<Equation> equations = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            equations.add(new Equation("x*x-" + i + "*x=" + i % 5));
+        }
+        equationRepository.saveAll(equations);
+        double[] roots = {0};
+
+        List<Long> expected = equations.stream()
+                .filter(equation -> EquationEvaluator.evaluate(equation.getExpression(), 0))
+                .map(Equation::getId)
+                .toList();
+
+        List<EquationSummary> found = new ReverseSearch(equationRepository, pool, 64).findEquationsSatisfiedBy(roots);
+        assertEquals(100, expected.size());
+        assertEquals(expected, found.stream().map(EquationSummary::id).toList());
+        assertEquals(expected, new ReverseSearch(equationRepository).findEquationsSatisfiedBy(roots).stream()
+                .map(EquationSummary::id).toList());
+    }
+
+    @Test
+    public void testPageSizeMustBePositive() {
+        // Test that a search cannot read empty pages
+        assertThrows(IllegalArgumentException.class, () -> new ReverseSearch(equationRepository, pool, 0));
+    }
+
+    private static List<String> expressions(List<EquationSummary> equations) {
+        return equations.stream().map(EquationSummary::expression).toList();
+    }
+
+}
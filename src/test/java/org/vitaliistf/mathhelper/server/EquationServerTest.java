@@ -0,0 +1,213 @@
+package org.vitaliistf.mathhelper.server;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vitaliistf.mathhelper.evaluation.CompilationResult;
+import org.vitaliistf.mathhelper.repository.CachingEquationRepository;
+import org.vitaliistf.mathhelper.repository.DatabaseConfiguration;
+import org.vitaliistf.mathhelper.service.EquationService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Collections;
+
+public class EquationServerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    private SessionFactory sessionFactory;
+    private EquationServer server;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        // Setting up database and a server on a free port
+        sessionFactory = DatabaseConfiguration.buildSessionFactory();
+        EquationService equationService = new EquationService(new CachingEquationRepository(sessionFactory));
+        server = new EquationServer(equationService, 0);
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        // Stopping the server and closing session factory after every test
+        server.close();
+        sessionFactory.close();
+    }
+
+    @Test
+    public void testCreateAndGetEquation() throws Exception {
+        // Test saving an equation with the given roots and reading it back
+        HttpResponse<String> created = send("POST", "/equations",
+                "{\"expression\": \"x * x = 4\", \"roots\": [2, 3, -2]}");
+        assertEquals(201, created.statusCode());
+        JsonNode equation = objectMapper.readTree(created.body());
+        assertEquals("x*x=4", equation.get("expression").asText());
+        assertEquals(2, equation.get("roots").size());
+        assertEquals(3.0, equation.get("rejectedRoots").get(0).asDouble());
+
+        HttpResponse<String> found = send("GET", "/equations/" + equation.get("id").asLong(), null);
+        assertEquals(200, found.statusCode());
+        assertEquals("x*x=4", objectMapper.readTree(found.body()).get("expression").asText());
+
+        assertEquals(404, send("GET", "/equations/123456", null).statusCode());
+    }
+
+    @Test
+    public void testCreateEquationWithFoundRoots() throws Exception {
+        // Test saving an equation with automatically found roots
+        HttpResponse<String> created = send("POST", "/equations", "{\"expression\": \"2*x-6=0\", \"findRoots\": true}");
+        assertEquals(201, created.statusCode());
+        assertEquals(3.0, objectMapper.readTree(created.body()).get("roots").get(0).asDouble(), 1e-12);
+
+        HttpResponse<String> identity = send("POST", "/equations", "{\"expression\": \"x-x=0\", \"findRoots\": true}");
+        assertEquals(201, identity.statusCode());
+        JsonNode equation = objectMapper.readTree(identity.body());
+        assertTrue(equation.get("everyValue").asBoolean());
+        assertEquals(0, equation.get("roots").size());
+    }
+
+    @Test
+    public void testRejectedEquations() throws Exception {
+        // Test that incorrect and already saved equations are rejected, while equivalent ones are reported
+        HttpResponse<String> incorrect = send("POST", "/equations", "{\"expression\": \"2**x=4\"}");
+        assertEquals(400, incorrect.statusCode());
+        assertEquals(2, objectMapper.readTree(incorrect.body()).get("position").asInt());
+
+        HttpResponse<String> created = send("POST", "/equations", "{\"expression\": \"2*x=4\"}");
+        HttpResponse<String> equivalent = send("POST", "/equations", "{\"expression\": \"x=2\"}");
+        assertEquals(201, equivalent.statusCode());
+        assertEquals(objectMapper.readTree(created.body()).get("id").asLong(),
+                objectMapper.readTree(equivalent.body()).get("equivalentId").asLong());
+        assertNull(objectMapper.readTree(created.body()).get("equivalentId"));
+
+        HttpResponse<String> duplicate = send("POST", "/equations", "{\"expression\": \"2 * x = 4\"}");
+        assertEquals(409, duplicate.statusCode());
+        assertEquals(objectMapper.readTree(created.body()).get("id").asLong(),
+                objectMapper.readTree(duplicate.body()).get("equivalentId").asLong());
+
+        assertEquals(400, send("POST", "/equations", "{\"expression\": ").statusCode());
+        assertEquals(400, send("POST", "/equations", null).statusCode());
+        assertEquals(405, send("PUT", "/equations", "{}").statusCode());
+        assertEquals(404, send("GET", "/unknown", null).statusCode());
+    }
+
+    @Test
+    public void testVerifySearchListAndDelete() throws Exception {
+        // Test the remaining operations of the menu
+        HttpResponse<String> verified = send("POST", "/equations/verify",
+                "{\"expression\": \"x*x=9\", \"roots\": [3, -3, 1]}");
+        assertEquals(200, verified.statusCode());
+        JsonNode verification = objectMapper.readTree(verified.body());
+        assertEquals(2, verification.get("validRoots").size());
+        assertEquals(1, verification.get("invalidRoots").size());
+
+        long id = objectMapper.readTree(send("POST", "/equations",
+                "{\"expression\": \"x*x=9\", \"roots\": [3, -3]}").body()).get("id").asLong();
+        send("POST", "/equations", "{\"expression\": \"x=3\", \"roots\": [3]}");
+
+        JsonNode found = objectMapper.readTree(send("POST", "/equations/search", "{\"roots\": [3, -3]}").body());
+        assertEquals(1, found.size());
+        assertEquals(id, found.get(0).get("id").asLong());
+
+        assertEquals(2, objectMapper.readTree(send("GET", "/equations", null).body()).size());
+        assertEquals(1, objectMapper.readTree(send("GET", "/equations?singleRoot=true", null).body()).size());
+        JsonNode twoRoots = objectMapper.readTree(send("GET", "/equations?rootCount=2", null).body());
+        assertEquals(1, twoRoots.size());
+        assertEquals(id, twoRoots.get(0).get("id").asLong());
+
+        assertEquals(204, send("DELETE", "/equations/" + id, null).statusCode());
+        assertEquals(404, send("DELETE", "/equations/" + id, null).statusCode());
+        assertEquals(1, objectMapper.readTree(send("GET", "/equations", null).body()).size());
+    }
+
+    @Test
+    public void testDeleteByExpressions() throws Exception {
+        // Test deleting equations by their expressions
+        send("POST", "/equations", "{\"expression\": \"x*x=9\", \"roots\": [3, -3]}");
+        send("POST", "/equations", "{\"expression\": \"x=3\", \"roots\": [3]}");
+
+        HttpResponse<String> deleted = send("POST", "/equations/delete",
+                "{\"expressions\": [\"x*x=9\", \"x=4\"]}");
+        assertEquals(200, deleted.statusCode());
+        JsonNode report = objectMapper.readTree(deleted.body());
+        assertEquals(1, report.get("equations").asInt());
+        assertEquals(2, report.get("roots").asInt());
+        assertEquals(1, objectMapper.readTree(send("GET", "/equations", null).body()).size());
+
+        assertEquals(400, send("POST", "/equations/delete", "{}").statusCode());
+        assertEquals(405, send("GET", "/equations/delete", null).statusCode());
+    }
+
+    @Test
+    public void testOversizedAndDeeplyNestedRequests() throws Exception {
+        // Test that requests too large or too deep to handle are still answered with a status code
+        String deep = "(".repeat(100_000) + "x" + ")".repeat(100_000) + "=1";
+        HttpResponse<String> nested = send("POST", "/equations", "{\"expression\": \"" + deep + "\"}");
+        assertEquals(400, nested.statusCode());
+
+        String large = "{\"expression\": \"" + "x+".repeat(EquationServer.MAX_REQUEST_BODY_SIZE / 2) + "x=1\"}";
+        assertEquals(413, send("POST", "/equations", large).statusCode());
+
+        String operation = "{\"method\": \"GET\", \"path\": \"/equations/1\"}";
+        String batch = "[" + String.join(",", Collections.nCopies(EquationApi.MAX_BATCH_SIZE + 1, operation)) + "]";
+        assertEquals(413, send("POST", "/batch", batch).statusCode());
+        assertEquals(0, objectMapper.readTree(send("GET", "/equations", null).body()).size());
+    }
+
+    @Test
+    public void testErrorsAreAnswered() throws Exception {
+        // Test that an Error thrown while handling a request is answered with 500
+        server.close();
+        server = new EquationServer(new EquationService(new CachingEquationRepository(sessionFactory)) {
+            @Override
+            public CompilationResult compile(String expression) {
+                throw new StackOverflowError();
+            }
+        }, 0);
+        server.start();
+
+        assertEquals(500, send("POST", "/equations", "{\"expression\": \"x=1\"}").statusCode());
+        assertEquals(200, send("GET", "/equations", null).statusCode());
+    }
+
+    @Test
+    public void testBatch() throws Exception {
+        // Test running several operations in one request, in order
+        HttpResponse<String> response = send("POST", "/batch", """
+                [
+                  {"method": "POST", "path": "/equations", "body": {"expression": "x+1=0", "roots": [-1]}},
+                  {"method": "POST", "path": "/equations", "body": {"expression": "x+*1=0"}},
+                  {"method": "POST", "path": "/equations/search", "body": {"roots": [-1]}},
+                  {"method": "GET", "path": "/equations"},
+                  {"method": "POST", "path": "/batch", "body": []}
+                ]""");
+        assertEquals(200, response.statusCode());
+
+        JsonNode results = objectMapper.readTree(response.body());
+        assertEquals(5, results.size());
+        assertEquals(201, results.get(0).get("status").asInt());
+        assertEquals(400, results.get(1).get("status").asInt());
+        assertEquals("x+1=0", results.get(2).get("body").get(0).get("expression").asText());
+        assertEquals(1, results.get(3).get("body").size());
+        assertEquals(400, results.get(4).get("status").asInt());
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .method(method, body != null ? HttpRequest.BodyPublishers.ofString(body)
+                        : HttpRequest.BodyPublishers.noBody())
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+}
@@ -3,6 +3,9 @@ package org.vitaliistf.mathhelper.validation;
 import org.junit.jupiter.api.Test;
 import org.vitaliistf.mathhelper.validation.EquationValidator;
 
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -91,4 +94,50 @@ public class EquationValidatorTest {
         String equation = "2*(x+5+x))+5="; // Після знаку рівності нічого немає
         assertFalse(EquationValidator.isValid(equation));
     }
+
+    @Test
+    public void testEmptyAndBlankEquations() {
+        assertFalse(EquationValidator.isValid(""));
+        assertEquals(LegacyEquationValidator.isValid("   "), EquationValidator.isValid("   "));
+    }
+
+    @Test
+    public void testCharSequenceInput() {
+        assertTrue(EquationValidator.isValid(new StringBuilder("2*(x+5+x)+5=10")));
+    }
+
+    @Test
+    public void testSameResultsAsLegacyValidatorForAllShortEquations() {
+        // Every string of up to 5 characters over the significant symbols
+        char[] alphabet = "1+-*/=().x a".toCharArray();
+        char[] buffer = new char[5];
+        for (int length = 0; length <= buffer.length; length++) {
+            int combinations = (int) Math.pow(alphabet.length, length);
+            for (int n = 0; n < combinations; n++) {
+                int rest = n;
+                for (int i = 0; i < length; i++) {
+                    buffer[i] = alphabet[rest % alphabet.length];
+                    rest /= alphabet.length;
+                }
+                assertSameResult(new String(buffer, 0, length));
+            }
+        }
+    }
+
+    @Test
+    public void testSameResultsAsLegacyValidatorForRandomEquations() {
+        char[] alphabet = "0123456789+-*/=().x \t\u0661\u00a0Ee".toCharArray();
+        Random random = new Random(42);
+        for (int n = 0; n < 200_000; n++) {
+            char[] equation = new char[random.nextInt(16)];
+            for (int i = 0; i < equation.length; i++) {
+                equation[i] = alphabet[random.nextInt(alphabet.length)];
+            }
+            assertSameResult(new String(equation));
+        }
+    }
+
+    private static void assertSameResult(String equation) {
+        assertEquals(LegacyEquationValidator.isValid(equation), EquationValidator.isValid(equation), equation);
+    }
 }